@@ -146,6 +146,177 @@ public class AppConfig {
         logger.info("言語設定を変更しました: {}", language);
     }
     
+    /**
+     * インポート時のヘッダー読み込みスレッド数を取得
+     */
+    public int getImportThreads() {
+        if (configData.getImportThreads() != null && configData.getImportThreads() > 0) {
+            return configData.getImportThreads();
+        }
+        // デフォルト: CPUコア数
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * インポート時のヘッダー読み込みスレッド数を設定
+     */
+    public void setImportThreads(int importThreads) {
+        configData.setImportThreads(importThreads);
+        saveConfig();
+        logger.info("インポートスレッド数を変更しました: {}", importThreads);
+    }
+    
+    /**
+     * ウィンドウ/レベル適用（表示用の変換）の並列数を取得
+     */
+    public int getRenderThreads() {
+        if (configData.getRenderThreads() != null && configData.getRenderThreads() > 0) {
+            return configData.getRenderThreads();
+        }
+        // デフォルト: CPUコア数
+        return Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * ウィンドウ/レベル適用の並列数を設定（1の場合は逐次処理、比較・問題切り分け用）
+     */
+    public void setRenderThreads(int renderThreads) {
+        configData.setRenderThreads(renderThreads);
+        saveConfig();
+        logger.info("表示処理の並列数を変更しました: {}", renderThreads);
+    }
+    
+    /**
+     * デコード済みスライスのキャッシュの上限（MB）を取得
+     */
+    public int getSliceCacheMb() {
+        if (configData.getSliceCacheMb() != null && configData.getSliceCacheMb() >= 0) {
+            return configData.getSliceCacheMb();
+        }
+        // デフォルト: 512MB（最大ヒープの1/4を超えない）
+        return (int) Math.min(512, Runtime.getRuntime().maxMemory() / 4 / (1024 * 1024));
+    }
+    
+    /**
+     * デコード済みスライスのキャッシュの上限（MB）を設定（0の場合はキャッシュしない）
+     */
+    public void setSliceCacheMb(int sliceCacheMb) {
+        configData.setSliceCacheMb(sliceCacheMb);
+        saveConfig();
+        logger.info("スライスキャッシュの上限を変更しました: {}MB", sliceCacheMb);
+    }
+    
+    /**
+     * スクロール方向に先読みするスライス数を取得
+     */
+    public int getPrefetchSlices() {
+        if (configData.getPrefetchSlices() != null && configData.getPrefetchSlices() >= 0) {
+            return configData.getPrefetchSlices();
+        }
+        // デフォルト: 8スライス
+        return 8;
+    }
+    
+    /**
+     * スクロール方向に先読みするスライス数を設定（0の場合は先読みしない）
+     */
+    public void setPrefetchSlices(int prefetchSlices) {
+        configData.setPrefetchSlices(prefetchSlices);
+        saveConfig();
+        logger.info("先読みスライス数を変更しました: {}", prefetchSlices);
+    }
+    
+    /**
+     * シリーズのボリューム（ヒープ外）1つあたりの上限（MB）を取得
+     */
+    public int getVolumeMemoryMb() {
+        if (configData.getVolumeMemoryMb() != null && configData.getVolumeMemoryMb() >= 0) {
+            return configData.getVolumeMemoryMb();
+        }
+        // デフォルト: 1024MB（最大ヒープの1/2を超えない、ダイレクトバッファの上限は既定で最大ヒープと同じため）
+        return (int) Math.min(1024, Runtime.getRuntime().maxMemory() / 2 / (1024 * 1024));
+    }
+    
+    /**
+     * シリーズのボリューム1つあたりの上限（MB）を設定（0の場合はボリュームを作成しない）
+     */
+    public void setVolumeMemoryMb(int volumeMemoryMb) {
+        configData.setVolumeMemoryMb(volumeMemoryMb);
+        saveConfig();
+        logger.info("ボリュームの上限を変更しました: {}MB", volumeMemoryMb);
+    }
+    
+    /**
+     * シネ再生のフレームレート（CineRate/FrameTimeがない場合に使用）を取得
+     */
+    public int getCineFps() {
+        if (configData.getCineFps() != null && configData.getCineFps() > 0) {
+            return configData.getCineFps();
+        }
+        // デフォルト: 15fps
+        return 15;
+    }
+    
+    /**
+     * シネ再生のフレームレート（CineRate/FrameTimeがない場合に使用）を設定
+     */
+    public void setCineFps(int cineFps) {
+        configData.setCineFps(cineFps);
+        saveConfig();
+        logger.info("シネ再生のフレームレートを変更しました: {}fps", cineFps);
+    }
+    
+    /**
+     * シネ再生で先行してデコードしておくフレーム数を取得
+     */
+    public int getCineBufferFrames() {
+        if (configData.getCineBufferFrames() != null && configData.getCineBufferFrames() > 0) {
+            return configData.getCineBufferFrames();
+        }
+        // デフォルト: 32フレーム（512x512の16bit画像で約16MB）
+        return 32;
+    }
+    
+    /**
+     * シネ再生で先行してデコードしておくフレーム数を設定
+     */
+    public void setCineBufferFrames(int cineBufferFrames) {
+        configData.setCineBufferFrames(cineBufferFrames);
+        saveConfig();
+        logger.info("シネ再生の先行デコード数を変更しました: {}", cineBufferFrames);
+    }
+    
+    /**
+     * 見つからないファイルをきっかけにストレージ索引を照合する最小間隔（分）を取得
+     */
+    public int getStorageReconcileIntervalMinutes() {
+        if (configData.getStorageReconcileIntervalMinutes() != null && configData.getStorageReconcileIntervalMinutes() >= 0) {
+            return configData.getStorageReconcileIntervalMinutes();
+        }
+        // デフォルト: 60分
+        return 60;
+    }
+    
+    /**
+     * 見つからないファイルをきっかけにストレージ索引を照合する最小間隔（分）を設定
+     */
+    public void setStorageReconcileIntervalMinutes(int storageReconcileIntervalMinutes) {
+        configData.setStorageReconcileIntervalMinutes(storageReconcileIntervalMinutes);
+        saveConfig();
+        logger.info("ストレージ索引の照合間隔を変更しました: {}分", storageReconcileIntervalMinutes);
+    }
+    
+    /**
+     * データベース（SQLite）のパフォーマンス設定を取得
+     * 設定ファイルに記載がない項目はデフォルト値を使用
+     */
+    public DatabaseSettings getDatabaseSettings() {
+        if (configData.getDatabase() == null) {
+            configData.setDatabase(new DatabaseSettings());
+        }
+        return configData.getDatabase();
+    }
+    
     /**
      * インストール先の言語ファイルディレクトリパスを取得
      * jpackageでインストールされた場合のパスを取得
@@ -232,6 +403,15 @@ public class AppConfig {
         private String storagePath;
         private String databasePath;
         private String language;
+        private Integer importThreads;
+        private Integer renderThreads;
+        private Integer sliceCacheMb;
+        private Integer prefetchSlices;
+        private Integer volumeMemoryMb;
+        private Integer cineFps;
+        private Integer cineBufferFrames;
+        private Integer storageReconcileIntervalMinutes;
+        private DatabaseSettings database = new DatabaseSettings();
         
         public ConfigData() {
             // デフォルト値は空（getStorageBasePath/getDatabasePathで処理）
@@ -260,6 +440,165 @@ public class AppConfig {
         public void setLanguage(String language) {
             this.language = language;
         }
+        
+        public Integer getImportThreads() {
+            return importThreads;
+        }
+        
+        public void setImportThreads(Integer importThreads) {
+            this.importThreads = importThreads;
+        }
+        
+        public Integer getRenderThreads() {
+            return renderThreads;
+        }
+        
+        public void setRenderThreads(Integer renderThreads) {
+            this.renderThreads = renderThreads;
+        }
+        
+        public Integer getSliceCacheMb() {
+            return sliceCacheMb;
+        }
+        
+        public void setSliceCacheMb(Integer sliceCacheMb) {
+            this.sliceCacheMb = sliceCacheMb;
+        }
+        
+        public Integer getPrefetchSlices() {
+            return prefetchSlices;
+        }
+        
+        public void setPrefetchSlices(Integer prefetchSlices) {
+            this.prefetchSlices = prefetchSlices;
+        }
+        
+        public Integer getVolumeMemoryMb() {
+            return volumeMemoryMb;
+        }
+        
+        public void setVolumeMemoryMb(Integer volumeMemoryMb) {
+            this.volumeMemoryMb = volumeMemoryMb;
+        }
+        
+        public Integer getCineFps() {
+            return cineFps;
+        }
+        
+        public void setCineFps(Integer cineFps) {
+            this.cineFps = cineFps;
+        }
+        
+        public Integer getCineBufferFrames() {
+            return cineBufferFrames;
+        }
+        
+        public void setCineBufferFrames(Integer cineBufferFrames) {
+            this.cineBufferFrames = cineBufferFrames;
+        }
+        
+        public Integer getStorageReconcileIntervalMinutes() {
+            return storageReconcileIntervalMinutes;
+        }
+        
+        public void setStorageReconcileIntervalMinutes(Integer storageReconcileIntervalMinutes) {
+            this.storageReconcileIntervalMinutes = storageReconcileIntervalMinutes;
+        }
+        
+        public DatabaseSettings getDatabase() {
+            return database;
+        }
+        
+        public void setDatabase(DatabaseSettings database) {
+            this.database = database;
+        }
+    }
+    
+    /**
+     * データベース（SQLite）のパフォーマンス設定
+     * 接続時にPRAGMAとして適用される
+     */
+    public static class DatabaseSettings {
+        // ジャーナルモード（WAL: 書き込み中も読み込みがブロックされない）
+        private String journalMode = "WAL";
+        // 同期モード（WALではNORMALでも整合性は保たれる）
+        private String synchronous = "NORMAL";
+        // ページキャッシュサイズ（KB）
+        private int cacheSizeKb = 65536;
+        // メモリマップI/Oのサイズ（MB、0で無効）
+        private int mmapSizeMb = 256;
+        // 一時テーブル・インデックスの格納先
+        private String tempStore = "MEMORY";
+        // 外部キー制約（ON DELETE CASCADEの有効化に必要）
+        private boolean foreignKeys = true;
+        // ロック待ちのタイムアウト（ミリ秒）
+        private int busyTimeoutMs = 5000;
+        // 読み込み専用接続の数
+        private int readConnections = 2;
+        
+        public String getJournalMode() {
+            return journalMode;
+        }
+        
+        public void setJournalMode(String journalMode) {
+            this.journalMode = journalMode;
+        }
+        
+        public String getSynchronous() {
+            return synchronous;
+        }
+        
+        public void setSynchronous(String synchronous) {
+            this.synchronous = synchronous;
+        }
+        
+        public int getCacheSizeKb() {
+            return cacheSizeKb;
+        }
+        
+        public void setCacheSizeKb(int cacheSizeKb) {
+            this.cacheSizeKb = cacheSizeKb;
+        }
+        
+        public int getMmapSizeMb() {
+            return mmapSizeMb;
+        }
+        
+        public void setMmapSizeMb(int mmapSizeMb) {
+            this.mmapSizeMb = mmapSizeMb;
+        }
+        
+        public String getTempStore() {
+            return tempStore;
+        }
+        
+        public void setTempStore(String tempStore) {
+            this.tempStore = tempStore;
+        }
+        
+        public boolean isForeignKeys() {
+            return foreignKeys;
+        }
+        
+        public void setForeignKeys(boolean foreignKeys) {
+            this.foreignKeys = foreignKeys;
+        }
+        
+        public int getBusyTimeoutMs() {
+            return busyTimeoutMs;
+        }
+        
+        public void setBusyTimeoutMs(int busyTimeoutMs) {
+            this.busyTimeoutMs = busyTimeoutMs;
+        }
+        
+        public int getReadConnections() {
+            return readConnections;
+        }
+        
+        public void setReadConnections(int readConnections) {
+            this.readConnections = readConnections;
+        }
     }
 }
 
@@ -1,8 +1,10 @@
 package com.jjdicomviewer.core;
 
 import com.jjdicomviewer.config.AppConfig;
+import com.jjdicomviewer.dicom.DicomProbe;
 import com.jjdicomviewer.dicom.DicomReader;
 import com.jjdicomviewer.storage.DatabaseManager;
+import com.jjdicomviewer.storage.StorageIndex;
 import com.jjdicomviewer.storage.StudyRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,10 +12,24 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * DICOMファイルのインポートサービス
@@ -22,18 +38,47 @@ public class ImportService {
     
     private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
     
+    // パイプラインのステージ間キューの容量
+    private static final int PATH_QUEUE_CAPACITY = 1024;
+    private static final int RESULT_QUEUE_CAPACITY = 256;
+    private static final int STUDY_QUEUE_CAPACITY = 16;
+    
+    // 一度に保存するStudyの最大数
+    private static final int SAVE_BATCH_STUDIES = 32;
+    
+    // この件数の読み込み結果にファイルが含まれなかったStudyは読み込み済みとみなす
+    // （検索順で近いファイルが、キューとワーカーの並列処理により前後して届く範囲より大きくする）
+    private static final int IDLE_RESULTS_BEFORE_FLUSH = PATH_QUEUE_CAPACITY + RESULT_QUEUE_CAPACITY;
+    
+    // ファイル検索の終了を示すマーカー（参照で比較する）
+    private static final Path END_OF_FILES = Paths.get("");
+    
     private final DicomReader dicomReader;
     private final StudyRepository studyRepository;
+    private final StorageIndex storageIndex;
     private final AppConfig appConfig;
     
     public ImportService(DatabaseManager dbManager) {
         this.dicomReader = new DicomReader();
         this.studyRepository = new StudyRepository(dbManager);
+        this.storageIndex = new StorageIndex(dbManager);
         this.appConfig = AppConfig.getInstance();
     }
     
     /**
      * フォルダからDICOMファイルをインポート
+     *
+     * 以下のステージをパイプライン処理する（ステージ間は容量制限付きキューで接続し、メモリ使用量を一定に保つ）:
+     * 1. ファイル検索（専用スレッド）
+     * 2. ヘッダー読み込み（ワーカースレッドプール、スレッド数はAppConfig#getImportThreads）
+     * 3. Studyごとの集約（呼び出し元スレッド）
+     * 4. ストレージへのコピー（コピー用スレッドプール）
+     * 5. データベースへの保存（保存用スレッド、saveStudiesでまとめて保存）
+     *
+     * 直近の読み込み結果（{@link #IDLE_RESULTS_BEFORE_FLUSH}件）に含まれなくなったStudyは読み込み済みとみなし、
+     * 全ファイルの読み込みを待たずにコピー・保存する。その後に同じStudyのファイルが見つかった場合は、
+     * 新しい集約として保存し、データベース上でマージされる。
+     * 進捗はファイル数で通知する（読み込みと保存の両方を終えたファイルを1件として数える）。
      */
     public void importFromFolder(Path folderPath, ProgressCallback callback) throws IOException {
         logger.info("フォルダからのインポートを開始: {}", folderPath);
@@ -51,238 +96,463 @@ public class ImportService {
             throw new IOException(errorMsg);
         }
         
-        List<Path> dicomFiles;
-        try {
-            dicomFiles = findDicomFiles(folderPath);
-        } catch (Exception e) {
-            String errorMsg = "DICOMファイルの検索中にエラーが発生: " + e.getMessage();
-            logger.error(errorMsg, e);
-            throw new IOException(errorMsg, e);
-        }
-        
-        int totalFiles = dicomFiles.size();
-        int processedFiles = 0;
-        int errorCount = 0;
-        
         if (callback != null) {
-            callback.onProgress(0, totalFiles, "DICOMファイルを検索中...");
-        }
-        
-        logger.info("{}件のDICOMファイルが見つかりました", totalFiles);
-        
-        if (totalFiles == 0) {
-            String errorMsg = "DICOMファイルが見つかりませんでした: " + folderPath;
-            logger.warn(errorMsg);
-            throw new IOException(errorMsg);
+            callback.onProgress(0, 0, "DICOMファイルを検索中...");
         }
         
-        // StudyInstanceUIDでグループ化するMap
-        Map<String, Study> studyMap = new HashMap<>();
+        int workerCount = Math.max(1, appConfig.getImportThreads());
+        BlockingQueue<Path> pathQueue = new ArrayBlockingQueue<>(PATH_QUEUE_CAPACITY);
+        BlockingQueue<ParseResult> resultQueue = new ArrayBlockingQueue<>(RESULT_QUEUE_CAPACITY);
+        BlockingQueue<StudyAggregate> copyQueue = new ArrayBlockingQueue<>(STUDY_QUEUE_CAPACITY);
+        BlockingQueue<StudyAggregate> saveQueue = new ArrayBlockingQueue<>(STUDY_QUEUE_CAPACITY);
+        AtomicInteger discoveredCount = new AtomicInteger();
+        AtomicBoolean discoveryFinished = new AtomicBoolean(false);
+        AtomicReference<Exception> discoveryError = new AtomicReference<>();
+        ImportProgress progress = new ImportProgress(callback, discoveredCount);
         
-        logger.info("DICOMファイルの読み込みを開始します...");
+        logger.info("DICOMファイルの読み込みを開始します（ワーカースレッド数: {}）", workerCount);
         
-        // すべてのファイルを読み込んで、Studyごとにグループ化
-        // ファイル読み込みは全体の70%を占める
-        for (Path dicomFile : dicomFiles) {
+        // ステージ1: ファイル検索
+        Thread discoveryThread = new Thread(() -> {
             try {
-                int currentProcessed = processedFiles + errorCount;
-                // ファイル読み込み進捗は全体の70%まで
-                int readingProgress = (int) (totalFiles * 0.7 * (double) currentProcessed / totalFiles);
-                
-                if (callback != null) {
-                    callback.onProgress(readingProgress, totalFiles, 
-                        "読み込み中: " + dicomFile.getFileName());
+                findDicomFiles(folderPath, pathQueue, discoveredCount);
+            } catch (Exception e) {
+                discoveryError.set(e);
+            } finally {
+                discoveryFinished.set(true);
+                try {
+                    // ワーカーごとに終了マーカーを投入
+                    for (int i = 0; i < workerCount; i++) {
+                        pathQueue.put(END_OF_FILES);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
-                
-                // 100ファイルごとに進捗をログ出力（最初の10ファイルは毎回出力）
-                if (currentProcessed <= 10 || currentProcessed % 100 == 0) {
-                    logger.info("読み込み進捗: {}/{} ファイル処理済み (成功: {}, 失敗: {})", 
-                        currentProcessed, totalFiles, processedFiles, errorCount);
+            }
+        }, "import-discovery");
+        discoveryThread.setDaemon(true);
+        
+        // ステージ5: データベースへの保存
+        AtomicReference<Throwable> saveError = new AtomicReference<>();
+        Thread saveThread = new Thread(() -> runSaveWorker(saveQueue, workerCount, progress, saveError), "import-save");
+        saveThread.setDaemon(true);
+        
+        ExecutorService workerPool = Executors.newFixedThreadPool(workerCount, new ImportThreadFactory("import-worker-"));
+        ExecutorService copyPool = Executors.newFixedThreadPool(workerCount, new ImportThreadFactory("import-copy-"));
+        try {
+            discoveryThread.start();
+            saveThread.start();
+            
+            // ステージ2: ヘッダー読み込み
+            for (int i = 0; i < workerCount; i++) {
+                workerPool.execute(() -> runParseWorker(pathQueue, resultQueue));
+            }
+            
+            // ステージ4: ストレージへのコピー
+            for (int i = 0; i < workerCount; i++) {
+                copyPool.execute(() -> runCopyWorker(copyQueue, saveQueue, progress));
+            }
+            
+            // ステージ3: 読み込み結果をStudyInstanceUIDでグループ化
+            // 最後にファイルを追加した順（アクセス順）に保持し、先頭から読み込み済みのStudyを取り出す
+            Map<String, StudyAggregate> studyMap = new LinkedHashMap<>(16, 0.75f, true);
+            int processedFiles = 0;
+            int errorCount = 0;
+            int skippedFiles = 0;
+            int finishedWorkers = 0;
+            long resultCount = 0;
+            int studyCount = 0;
+            
+            while (finishedWorkers < workerCount) {
+                ParseResult result = resultQueue.take();
+                if (result == ParseResult.WORKER_FINISHED) {
+                    finishedWorkers++;
+                    continue;
                 }
+                resultCount++;
                 
-                logger.debug("DICOMファイルを読み込み中: {}", dicomFile);
-                
-                // DICOMファイルを読み込んでメタデータを取得
-                Study fileStudy = dicomReader.readStudy(dicomFile);
-                
-                if (fileStudy == null || fileStudy.getStudyInstanceUID() == null) {
+                Path dicomFile = result.file;
+                if (result.skipped) {
+                    skippedFiles++;
+                    progress.filesDone(1);
+                } else if (result.error != null) {
+                    errorCount++;
+                    progress.filesDone(1);
+                    // エラーが発生しても続行
+                    // 最初の10件のエラーのみ詳細ログを出力
+                    if (errorCount <= 10) {
+                        logger.error("DICOMファイルの読み込みに失敗 ({}件目): {} - エラー: {}", 
+                            errorCount, dicomFile, result.error.getMessage(), result.error);
+                    } else if (errorCount == 11) {
+                        logger.warn("エラーが11件以上発生しています。以降のエラーは簡潔にログ出力します。");
+                    } else {
+                        logger.warn("DICOMファイルの読み込みに失敗 ({}件目): {} - エラー: {}", 
+                            errorCount, dicomFile, result.error.getMessage());
+                    }
+                } else if (result.study == null || result.study.getStudyInstanceUID() == null) {
                     logger.warn("StudyInstanceUIDが取得できませんでした: {}", dicomFile);
                     errorCount++;
-                    continue;
-                }
-                
-                String studyUID = fileStudy.getStudyInstanceUID();
-                
-                // 既存のStudyがある場合は、SeriesとInstanceを追加
-                Study existingStudy = studyMap.get(studyUID);
-                if (existingStudy != null) {
-                    // 既存のStudyにSeriesとInstanceを追加
-                    mergeStudy(existingStudy, fileStudy);
-                    logger.debug("既存のStudyに追加: {} (Series数: {})", studyUID, existingStudy.getSeriesList().size());
+                    progress.filesDone(1);
                 } else {
-                    // 新しいStudyとして追加
-                    studyMap.put(studyUID, fileStudy);
-                    logger.debug("新しいStudyを追加: {} (Series数: {})", studyUID, fileStudy.getSeriesList().size());
+                    Study fileStudy = result.study;
+                    String studyUID = fileStudy.getStudyInstanceUID();
+                    
+                    // 既存のStudyがある場合は、SeriesとInstanceを追加
+                    StudyAggregate existing = studyMap.get(studyUID);
+                    if (existing != null) {
+                        existing.merge(fileStudy);
+                        existing.lastResult = resultCount;
+                        logger.debug("既存のStudyに追加: {} (Series数: {})", studyUID, existing.study.getSeriesList().size());
+                    } else {
+                        StudyAggregate aggregate = new StudyAggregate(fileStudy);
+                        aggregate.lastResult = resultCount;
+                        studyMap.put(studyUID, aggregate);
+                        studyCount++;
+                        logger.debug("新しいStudyを追加: {} (Series数: {})", studyUID, fileStudy.getSeriesList().size());
+                    }
+                    processedFiles++;
                 }
+                progress.fileRead();
                 
-                processedFiles++;
+                // 読み込み済みとみなせるStudyをコピー・保存のステージへ渡す
+                Iterator<StudyAggregate> eldest = studyMap.values().iterator();
+                while (eldest.hasNext()) {
+                    StudyAggregate aggregate = eldest.next();
+                    if (resultCount - aggregate.lastResult < IDLE_RESULTS_BEFORE_FLUSH) {
+                        break;
+                    }
+                    eldest.remove();
+                    copyQueue.put(aggregate);
+                }
                 
-            } catch (Exception e) {
-                errorCount++;
-                // エラーが発生しても続行
-                // 最初の10件のエラーのみ詳細ログを出力
-                if (errorCount <= 10) {
-                    logger.error("DICOMファイルの読み込みに失敗 ({}件目): {} - エラー: {}", 
-                        errorCount, dicomFile, e.getMessage(), e);
-                } else if (errorCount == 11) {
-                    logger.warn("エラーが11件以上発生しています。以降のエラーは簡潔にログ出力します。");
-                } else {
-                    logger.warn("DICOMファイルの読み込みに失敗 ({}件目): {} - エラー: {}", 
-                        errorCount, dicomFile, e.getMessage());
+                int currentProcessed = processedFiles + errorCount + skippedFiles;
+                // 100ファイルごとに進捗をログ出力（最初の10ファイルは毎回出力）
+                if (currentProcessed <= 10 || currentProcessed % 100 == 0) {
+                    logger.info("読み込み進捗: {}/{} ファイル処理済み (成功: {}, 失敗: {}, スキップ: {})", 
+                        currentProcessed, discoveredCount.get(), processedFiles, errorCount, skippedFiles);
                 }
+                progress.report((discoveryFinished.get() ? "読み込み中: " : "検索・読み込み中: ") + dicomFile.getFileName());
             }
-        }
-        
-        logger.info("ファイル読み込み完了: {}件成功, {}件失敗, {}件のStudy", 
-            processedFiles, errorCount, studyMap.size());
-        
-        if (studyMap.isEmpty()) {
-            logger.error("読み込んだStudyが0件です。すべてのファイルの読み込みに失敗した可能性があります。");
+            
+            // 残りのStudyをすべて渡し、コピー用スレッドごとに終了マーカーを投入
+            for (StudyAggregate aggregate : studyMap.values()) {
+                copyQueue.put(aggregate);
+            }
+            studyMap.clear();
+            for (int i = 0; i < workerCount; i++) {
+                copyQueue.put(StudyAggregate.END_OF_STUDIES);
+            }
+            
+            discoveryThread.join();
+            logger.info("ファイル読み込み完了: {}件成功, {}件失敗, {}件スキップ, {}件のStudy", 
+                processedFiles, errorCount, skippedFiles, studyCount);
+            saveThread.join();
+            if (saveError.get() != null) {
+                Throwable e = saveError.get();
+                String errorMsg = "データベースへの保存中にエラーが発生: " + e.getMessage();
+                logger.error(errorMsg, e);
+                throw new IOException(errorMsg, e);
+            }
+            
+            if (discoveryError.get() != null) {
+                Exception e = discoveryError.get();
+                String errorMsg = "DICOMファイルの検索中にエラーが発生: " + e.getMessage();
+                logger.error(errorMsg, e);
+                throw new IOException(errorMsg, e);
+            }
+            
+            int totalFiles = discoveredCount.get();
+            logger.info("{}件のDICOMファイルが見つかりました", totalFiles);
+            
+            if (totalFiles == 0) {
+                String errorMsg = "DICOMファイルが見つかりませんでした: " + folderPath;
+                logger.warn(errorMsg);
+                throw new IOException(errorMsg);
+            }
+            
+            if (studyCount == 0) {
+                logger.error("読み込んだStudyが0件です。すべてのファイルの読み込みに失敗した可能性があります。");
+                if (callback != null) {
+                    callback.onProgress(totalFiles, totalFiles, "インポート完了（エラー: 読み込めたStudyが0件）");
+                }
+                return;
+            }
+            
+            // 最後に100%を通知
+            int savedStudies = progress.savedStudyCount();
             if (callback != null) {
-                callback.onProgress(totalFiles, totalFiles, "インポート完了（エラー: 読み込めたStudyが0件）");
+                callback.onProgress(totalFiles, totalFiles, 
+                    String.format("インポート完了: %d件のStudyを保存", savedStudies));
             }
-            return;
+            logger.info("インポート完了: {}件のStudyを保存 ({}件のファイルを処理, {}件のエラー)", 
+                savedStudies, processedFiles, errorCount + progress.failedStudyCount());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("インポートが中断されました", e);
+        } finally {
+            discoveryThread.interrupt();
+            workerPool.shutdownNow();
+            copyPool.shutdownNow();
+            saveThread.interrupt();
         }
-        
-        // すべてのStudyをストレージにコピーして保存
-        // 進捗バー: ファイル読み込みが70%、保存処理が30%を占める
-        int totalStudies = studyMap.size();
-        int savedStudies = 0;
-        int studyIndex = 0;
-        
-        for (Study study : studyMap.values()) {
-            studyIndex++;
+    }
+    
+    /**
+     * ストレージへのコピーワーカー
+     * 終了マーカーを受け取るまでStudyのファイルをコピーし、保存用のキューへ投入する
+     */
+    private void runCopyWorker(BlockingQueue<StudyAggregate> copyQueue, BlockingQueue<StudyAggregate> saveQueue,
+                               ImportProgress progress) {
+        try {
             try {
-                // ファイル読み込み完了分（70%）+ 保存処理の進捗（30% * (studyIndex / totalStudies)）
-                int readingProgress = (int) (totalFiles * 0.7);
-                int savingProgress = (int) (totalFiles * 0.3 * studyIndex / totalStudies);
-                int currentProgress = readingProgress + savingProgress;
-                
-                if (callback != null) {
-                    callback.onProgress(currentProgress, totalFiles, 
-                        String.format("保存中: %s (%d/%d)", 
-                            study.getPatientName() != null ? study.getPatientName() : "Unknown",
-                            studyIndex, totalStudies));
+                while (true) {
+                    StudyAggregate aggregate = copyQueue.take();
+                    if (aggregate == StudyAggregate.END_OF_STUDIES) {
+                        break;
+                    }
+                    try {
+                        copyDicomFilesToStorage(aggregate.study);
+                        saveQueue.put(aggregate);
+                    } catch (IOException | RuntimeException e) {
+                        logger.error("ストレージへのコピーに失敗: {} - {}", aggregate.study.getStudyInstanceUID(),
+                            e.getMessage(), e);
+                        progress.studyFailed(aggregate);
+                    }
                 }
+            } finally {
+                saveQueue.put(StudyAggregate.END_OF_STUDIES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * データベースへの保存ワーカー
+     * コピー済みのStudyをキューにある分だけまとめ（最大{@link #SAVE_BATCH_STUDIES}件）、saveStudiesで保存する
+     * 予期しないエラーで保存を続けられない場合も、コピー用スレッドがキューへの投入で停止しないよう
+     * 終了マーカーを受け取るまでキューを空にし続け、残りのStudyは失敗として数える（エラーはsaveErrorに設定）
+     * @param copyWorkerCount コピー用スレッド数（この数の終了マーカーを受け取ったら終了）
+     */
+    private void runSaveWorker(BlockingQueue<StudyAggregate> saveQueue, int copyWorkerCount, ImportProgress progress,
+                               AtomicReference<Throwable> saveError) {
+        List<StudyAggregate> batch = new ArrayList<>(SAVE_BATCH_STUDIES);
+        List<Study> studies = new ArrayList<>(SAVE_BATCH_STUDIES);
+        int finishedWorkers = 0;
+        boolean completed = false;
+        try {
+            while (finishedWorkers < copyWorkerCount) {
+                batch.clear();
+                batch.add(saveQueue.take());
+                saveQueue.drainTo(batch, SAVE_BATCH_STUDIES - 1);
                 
-                logger.info("Studyを保存中: {} (Series数: {}) [{}/{}]", 
-                    study.getStudyInstanceUID(), study.getSeriesList().size(), studyIndex, totalStudies);
-                
-                // コピー前のパスをログ出力（デバッグ用）
-                for (Series series : study.getSeriesList()) {
-                    for (Instance instance : series.getInstanceList()) {
-                        logger.debug("コピー前のファイルパス: {} (SOPInstanceUID: {})", 
-                            instance.getFilePath(), instance.getSopInstanceUID());
+                studies.clear();
+                for (StudyAggregate aggregate : batch) {
+                    if (aggregate == StudyAggregate.END_OF_STUDIES) {
+                        finishedWorkers++;
+                    } else {
+                        studies.add(aggregate.study);
                     }
                 }
-                
-                // DICOMファイルをストレージベースパス配下にコピーし、パスを更新
-                copyDicomFilesToStorage(study);
-                
-                // コピー後のパスをログ出力（デバッグ用）
-                for (Series series : study.getSeriesList()) {
-                    for (Instance instance : series.getInstanceList()) {
-                        logger.debug("コピー後のファイルパス: {} (SOPInstanceUID: {})", 
-                            instance.getFilePath(), instance.getSopInstanceUID());
-                        // ファイルが存在するか確認
-                        if (!Files.exists(instance.getFilePath())) {
-                            logger.error("コピー後のファイルが存在しません: {} (SOPInstanceUID: {})", 
-                                instance.getFilePath(), instance.getSopInstanceUID());
-                        }
+                if (studies.isEmpty()) {
+                    continue;
+                }
+                saveBatch(batch, studies, progress);
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed = true;
+        } catch (RuntimeException | Error e) {
+            logger.error("保存用スレッドで予期しないエラーが発生したため、以降のStudyは保存しません", e);
+            saveError.set(e);
+        } finally {
+            if (!completed) {
+                for (StudyAggregate aggregate : batch) {
+                    if (aggregate != StudyAggregate.END_OF_STUDIES && !aggregate.counted) {
+                        progress.studyFailed(aggregate);
                     }
                 }
-                
-                // データベースに保存（コピー先のパスで保存される）
-                studyRepository.saveStudy(study);
-                
-                savedStudies++;
-                logger.info("Studyを保存しました: {} (Series数: {}, Instance数: {})", 
-                    study.getStudyInstanceUID(), 
-                    study.getSeriesList().size(),
-                    study.getSeriesList().stream()
-                        .mapToInt(s -> s.getInstanceList().size())
-                        .sum());
-                
-            } catch (Exception e) {
-                logger.error("Studyの保存に失敗: {} - エラー: {}", study.getStudyInstanceUID(), e.getMessage(), e);
-                errorCount++;
+                discardRemaining(saveQueue, copyWorkerCount - finishedWorkers, progress);
             }
         }
-        
-        // 最後に100%を通知
-        if (callback != null) {
-            callback.onProgress(totalFiles, totalFiles, 
-                String.format("インポート完了: %d件のStudyを保存", savedStudies));
+    }
+    
+    /**
+     * 指定数の終了マーカーを受け取るまでキューのStudyを取り出し、失敗として数える
+     */
+    private void discardRemaining(BlockingQueue<StudyAggregate> saveQueue, int remainingWorkers, ImportProgress progress) {
+        try {
+            while (remainingWorkers > 0) {
+                StudyAggregate aggregate = saveQueue.take();
+                if (aggregate == StudyAggregate.END_OF_STUDIES) {
+                    remainingWorkers--;
+                } else {
+                    progress.studyFailed(aggregate);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        logger.info("インポート完了: {}件のStudyを保存 ({}件のファイルを処理, {}件のエラー)", 
-            savedStudies, processedFiles, errorCount);
     }
     
     /**
-     * 既存のStudyに新しいStudyのSeriesとInstanceをマージ
+     * Studyをまとめて保存（失敗した場合は1件ずつ保存し直し、保存できないStudyのみをエラーとする）
      */
-    private void mergeStudy(Study existingStudy, Study newStudy) {
-        for (Series newSeries : newStudy.getSeriesList()) {
-            String seriesUID = newSeries.getSeriesInstanceUID();
-            
-            // 既存のSeriesを検索
-            Series existingSeries = null;
-            for (Series s : existingStudy.getSeriesList()) {
-                if (seriesUID.equals(s.getSeriesInstanceUID())) {
-                    existingSeries = s;
-                    break;
+    private void saveBatch(List<StudyAggregate> batch, List<Study> studies, ImportProgress progress) {
+        try {
+            studyRepository.saveStudies(studies);
+            for (StudyAggregate aggregate : batch) {
+                if (aggregate != StudyAggregate.END_OF_STUDIES) {
+                    progress.studySaved(aggregate);
                 }
             }
-            
-            if (existingSeries != null) {
-                // 既存のSeriesにInstanceを追加
-                for (Instance newInstance : newSeries.getInstanceList()) {
-                    // 同じSOPInstanceUIDのInstanceが既に存在するかチェック
-                    boolean exists = false;
-                    String newSopUID = newInstance.getSopInstanceUID();
-                    if (newSopUID == null || newSopUID.isEmpty()) {
-                        logger.warn("SOPInstanceUIDが空のInstanceをスキップします");
-                        continue;
+            logger.info("{}件のStudyを保存しました", studies.size());
+        } catch (SQLException | RuntimeException e) {
+            // saveStudiesはStudyごとにコミットするため、保存済みのStudyを再度保存しても内容は変わらない
+            logger.warn("Studyの一括保存に失敗したため1件ずつ保存します: {}", e.getMessage());
+            for (StudyAggregate aggregate : batch) {
+                if (aggregate == StudyAggregate.END_OF_STUDIES) {
+                    continue;
+                }
+                try {
+                    studyRepository.saveStudy(aggregate.study);
+                    progress.studySaved(aggregate);
+                } catch (SQLException | RuntimeException ex) {
+                    logger.error("Studyの保存に失敗: {} - エラー: {}", aggregate.study.getStudyInstanceUID(),
+                        ex.getMessage(), ex);
+                    progress.studyFailed(aggregate);
+                }
+            }
+        }
+        try {
+            Study last = studies.get(studies.size() - 1);
+            progress.report(String.format("保存中: %s (%d件のStudyを保存済み)",
+                last.getPatientName() != null ? last.getPatientName() : "Unknown", progress.savedStudyCount()));
+        } catch (RuntimeException e) {
+            // 進捗の通知に失敗しても保存は続ける
+            logger.warn("インポートの進捗の通知に失敗しました: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * ヘッダー読み込みワーカー
+     * 終了マーカーを受け取るまでファイルを読み込み、結果をキューへ投入する
+     */
+    private void runParseWorker(BlockingQueue<Path> pathQueue, BlockingQueue<ParseResult> resultQueue) {
+        try {
+            try {
+                while (true) {
+                    Path file = pathQueue.take();
+                    if (file == END_OF_FILES) {
+                        break;
                     }
-                    for (Instance inst : existingSeries.getInstanceList()) {
-                        if (newSopUID.equals(inst.getSopInstanceUID())) {
-                            exists = true;
+                    resultQueue.put(parseFile(file));
+                }
+            } finally {
+                resultQueue.put(ParseResult.WORKER_FINISHED);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 1ファイルのヘッダーを読み込む（判定と読み込みで同じストリームを使用）
+     */
+    private ParseResult parseFile(Path dicomFile) {
+        logger.debug("DICOMファイルを読み込み中: {}", dicomFile);
+        try (DicomProbe probe = DicomProbe.open(dicomFile)) {
+            if (!probe.isDicom() && !hasDicomExtension(dicomFile)) {
+                // 拡張子なしのDICOM以外のファイルはエラーとせずスキップ
+                logger.debug("DICOMファイルではないためスキップ: {}", dicomFile);
+                return new ParseResult(dicomFile, null, null, true);
+            }
+            return new ParseResult(dicomFile, dicomReader.readStudy(probe), null, false);
+        } catch (Exception e) {
+            return new ParseResult(dicomFile, null, e, false);
+        }
+    }
+    
+    /**
+     * インポート中のStudyの集約
+     * SeriesInstanceUIDとSOPInstanceUIDのインデックスを保持し、マージを線形時間で行う
+     */
+    private static final class StudyAggregate {
+        // コピー・保存のステージの終了を示すマーカー
+        static final StudyAggregate END_OF_STUDIES = new StudyAggregate(new Study());
+        
+        final Study study;
+        // 集約したファイル数（SOPInstanceUIDが重複して追加しなかったファイルを含む、進捗の計算用）
+        int fileCount = 1;
+        // 最後にファイルを追加した時点の読み込み結果の件数
+        long lastResult;
+        // 保存または失敗として進捗に数えたかどうか（保存用スレッドの異常終了時に二重に数えないため）
+        boolean counted;
+        // SeriesInstanceUID -> Series
+        private final Map<String, Series> seriesByUID = new HashMap<>();
+        // SeriesInstanceUID -> 登録済みのSOPInstanceUID
+        private final Map<String, Set<String>> sopUIDsBySeries = new HashMap<>();
+        
+        StudyAggregate(Study study) {
+            this.study = study;
+            for (Series series : study.getSeriesList()) {
+                indexSeries(series);
+            }
+        }
+        
+        private void indexSeries(Series series) {
+            seriesByUID.putIfAbsent(series.getSeriesInstanceUID(), series);
+            Set<String> sopUIDs = sopUIDsBySeries.computeIfAbsent(series.getSeriesInstanceUID(), k -> new HashSet<>());
+            for (Instance instance : series.getInstanceList()) {
+                sopUIDs.add(instance.getSopInstanceUID());
+            }
+        }
+        
+        /**
+         * 新しいStudyのSeriesとInstanceをマージ
+         * 同じSOPInstanceUIDのInstanceは追加しない
+         */
+        void merge(Study newStudy) {
+            fileCount++;
+            for (Series newSeries : newStudy.getSeriesList()) {
+                String seriesUID = newSeries.getSeriesInstanceUID();
+                Series existingSeries = seriesByUID.get(seriesUID);
+                
+                if (existingSeries != null) {
+                    // 既存のSeriesにInstanceを追加
+                    Set<String> sopUIDs = sopUIDsBySeries.get(seriesUID);
+                    for (Instance newInstance : newSeries.getInstanceList()) {
+                        String newSopUID = newInstance.getSopInstanceUID();
+                        if (newSopUID == null || newSopUID.isEmpty()) {
+                            logger.warn("SOPInstanceUIDが空のInstanceをスキップします");
+                            continue;
+                        }
+                        if (sopUIDs.add(newSopUID)) {
+                            existingSeries.addInstance(newInstance);
+                            logger.debug("既存のSeriesにInstanceを追加: {} (Series: {})", 
+                                newSopUID, seriesUID);
+                        } else {
                             logger.debug("同じSOPInstanceUIDのInstanceが既に存在するためスキップ: {} (Series: {})", 
                                 newSopUID, seriesUID);
-                            break;
                         }
                     }
-                    if (!exists) {
-                        existingSeries.addInstance(newInstance);
-                        logger.debug("既存のSeriesにInstanceを追加: {} (Series: {})", 
-                            newSopUID, seriesUID);
-                    }
+                } else {
+                    // 新しいSeriesとして追加
+                    study.addSeries(newSeries);
+                    indexSeries(newSeries);
+                    logger.debug("新しいSeriesを追加: {} (Instance数: {})", 
+                        seriesUID, newSeries.getInstanceList().size());
                 }
-            } else {
-                // 新しいSeriesとして追加
-                existingStudy.addSeries(newSeries);
-                logger.debug("新しいSeriesを追加: {} (Instance数: {})", 
-                    seriesUID, newSeries.getInstanceList().size());
             }
         }
     }
     
     /**
-     * フォルダ内のDICOMファイルを再帰的に検索
+     * フォルダ内のDICOMファイルを再帰的に検索し、見つかった順にキューへ投入
+     * キューが満杯の場合は後続ステージの処理を待つ
      */
-    private List<Path> findDicomFiles(Path folderPath) throws IOException {
-        List<Path> dicomFiles = new ArrayList<>();
-        
+    private void findDicomFiles(Path folderPath, BlockingQueue<Path> queue, AtomicInteger foundCount) throws IOException {        
         // フォルダの存在確認
         if (!Files.exists(folderPath)) {
             logger.error("フォルダが存在しません: {}", folderPath);
@@ -315,9 +585,13 @@ public class ImportService {
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
                     try {
                         if (isDicomFile(file)) {
-                            dicomFiles.add(file);
+                            queue.put(file);
+                            foundCount.incrementAndGet();
                         }
                         return FileVisitResult.CONTINUE;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return FileVisitResult.TERMINATE;
                     } catch (Exception e) {
                         logger.warn("ファイル処理に失敗: {} - エラー: {}", file, e.getMessage());
                         return FileVisitResult.CONTINUE;
@@ -342,31 +616,31 @@ public class ImportService {
             throw new IOException("ファイル検索中にエラーが発生: " + e.getMessage(), e);
         }
         
-        logger.info("DICOMファイル検索完了: {}件のファイルが見つかりました", dicomFiles.size());
-        return dicomFiles;
+        logger.info("DICOMファイル検索完了: {}件のファイルが見つかりました", foundCount.get());
     }
     
     /**
-     * ファイルがDICOMファイルかどうかを判定
+     * ファイルがDICOMファイルの候補かどうかをファイル名のみで判定
+     * 拡張子なしのファイルは候補とし、内容の判定は読み込み時に行う（ファイルを開くのは1回のみ）
      */
     private boolean isDicomFile(Path file) {
         String fileName = file.getFileName().toString().toLowerCase();
         
         // .dcm拡張子または拡張子なし
-        if (fileName.endsWith(".dcm") || fileName.endsWith(".dicom")) {
-            return true;
-        }
-        
-        // 拡張子がない場合、DICOMファイルかどうかを検証
-        if (!fileName.contains(".")) {
-            return dicomReader.isValidDicomFile(file);
-        }
-        
-        return false;
+        return hasDicomExtension(file) || !fileName.contains(".");
+    }
+    
+    /**
+     * DICOMの拡張子（.dcm / .dicom）を持つかどうか
+     */
+    private boolean hasDicomExtension(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".dcm") || fileName.endsWith(".dicom");
     }
     
     /**
      * Study内のすべてのInstanceファイルをストレージベースパス配下にコピーし、パスを更新
+     * ストレージ内のファイルはストレージ索引（StorageIndex）に登録する
      */
     private void copyDicomFilesToStorage(Study study) throws IOException {
         Path storageBasePath = appConfig.getStorageBasePath();
@@ -379,6 +653,7 @@ public class ImportService {
             logger.info("ストレージディレクトリを作成しました: {}", storageBasePath);
         }
         
+        List<StorageIndex.Entry> indexEntries = new ArrayList<>();
         for (Series series : study.getSeriesList()) {
             for (Instance instance : series.getInstanceList()) {
                 Path sourceFile = instance.getFilePath();
@@ -386,6 +661,8 @@ public class ImportService {
                 // 既にストレージベースパス配下にある場合はスキップ
                 if (sourceFile.toString().startsWith(storageBasePath.toString())) {
                     logger.debug("ファイルは既にストレージ配下にあります: {}", sourceFile);
+                    indexEntries.add(new StorageIndex.Entry(instance.getSopInstanceUID(), study.getStudyInstanceUID(),
+                        series.getSeriesInstanceUID(), sourceFile, instance.getFileSize()));
                     continue;
                 }
                 
@@ -423,10 +700,116 @@ public class ImportService {
                 instance.setFileSize(targetFile.toFile().length());
                 logger.debug("InstanceのfilePathを更新しました: {} (SOPInstanceUID: {})", 
                     targetFile, instance.getSopInstanceUID());
+                indexEntries.add(new StorageIndex.Entry(instance.getSopInstanceUID(), study.getStudyInstanceUID(),
+                    series.getSeriesInstanceUID(), targetFile, instance.getFileSize()));
+            }
+        }
+        
+        try {
+            storageIndex.putAll(indexEntries);
+        } catch (SQLException e) {
+            // 索引はStorageReconcilerで修復できるため、インポートは継続する
+            logger.warn("ストレージ索引の更新に失敗しました: {} - {}", study.getStudyInstanceUID(), e.getMessage());
+        }
+    }
+    
+    /**
+     * 1ファイル分のヘッダー読み込み結果
+     */
+    private static final class ParseResult {
+        // ワーカーの終了を示すマーカー
+        static final ParseResult WORKER_FINISHED = new ParseResult(null, null, null, false);
+        
+        final Path file;
+        final Study study;
+        final Exception error;
+        final boolean skipped;
+        
+        ParseResult(Path file, Study study, Exception error, boolean skipped) {
+            this.file = file;
+            this.study = study;
+            this.error = error;
+            this.skipped = skipped;
+        }
+    }
+    
+    /**
+     * インポートの進捗（ファイル数）
+     * 読み込みと保存（またはエラー）をそれぞれ1ファイル分の半分として数え、読み込み・コピー・保存の各スレッドから更新する
+     */
+    private static final class ImportProgress {
+        private final ProgressCallback callback;
+        private final AtomicInteger discoveredCount;
+        private final AtomicInteger readFiles = new AtomicInteger();
+        private final AtomicInteger doneFiles = new AtomicInteger();
+        private final Set<String> savedStudyUIDs = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger failedStudies = new AtomicInteger();
+        
+        ImportProgress(ProgressCallback callback, AtomicInteger discoveredCount) {
+            this.callback = callback;
+            this.discoveredCount = discoveredCount;
+        }
+        
+        void fileRead() {
+            readFiles.incrementAndGet();
+        }
+        
+        /**
+         * 保存するものがないファイル（スキップ・読み込みエラー）、または保存・エラーが確定したファイル
+         */
+        void filesDone(int count) {
+            doneFiles.addAndGet(count);
+        }
+        
+        void studySaved(StudyAggregate aggregate) {
+            aggregate.counted = true;
+            savedStudyUIDs.add(aggregate.study.getStudyInstanceUID());
+            filesDone(aggregate.fileCount);
+        }
+        
+        void studyFailed(StudyAggregate aggregate) {
+            aggregate.counted = true;
+            failedStudies.incrementAndGet();
+            filesDone(aggregate.fileCount);
+        }
+        
+        int savedStudyCount() {
+            return savedStudyUIDs.size();
+        }
+        
+        int failedStudyCount() {
+            return failedStudies.get();
+        }
+        
+        void report(String message) {
+            if (callback != null) {
+                // 検索中は検出済みの件数を全体とする（検索完了後は確定値）
+                int totalFiles = discoveredCount.get();
+                int current = (readFiles.get() + doneFiles.get()) / 2;
+                callback.onProgress(Math.min(current, totalFiles), totalFiles, message);
             }
         }
     }
     
+    /**
+     * インポート用ワーカースレッドのファクトリ（デーモンスレッド）
+     */
+    private static final class ImportThreadFactory implements ThreadFactory {
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+        
+        ImportThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+        
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+    
     /**
      * 進捗コールバックインターフェース
      */
@@ -24,6 +24,9 @@ public class Instance {
     private Integer samplesPerPixel;
     private String photometricInterpretation;
     private Integer pixelRepresentation; // 0=unsigned, 1=signed
+    private Integer numberOfFrames;      // マルチフレームの場合のフレーム数
+    private Integer cineRate;            // 推奨再生フレームレート（fps）
+    private Double frameTime;            // フレーム間隔（ms）
     
     // ウィンドウ/レベル
     private String windowCenter;
@@ -34,6 +37,12 @@ public class Instance {
     // ROI情報（ULTRASOUND REGION）
     private Rectangle roiBounds;
     
+    // 空間情報（患者座標系、mm）
+    private double[] imagePositionPatient;    // 先頭ピクセルの位置 (x, y, z)
+    private double[] imageOrientationPatient; // 行方向・列方向の方向余弦 (6値)
+    private double[] pixelSpacing;            // 行間隔・列間隔
+    private Double sliceThickness;
+    
     public Instance() {
     }
     
@@ -154,6 +163,37 @@ public class Instance {
         this.pixelRepresentation = pixelRepresentation;
     }
     
+    public Integer getNumberOfFrames() {
+        return numberOfFrames;
+    }
+    
+    public void setNumberOfFrames(Integer numberOfFrames) {
+        this.numberOfFrames = numberOfFrames;
+    }
+    
+    public Integer getCineRate() {
+        return cineRate;
+    }
+    
+    public void setCineRate(Integer cineRate) {
+        this.cineRate = cineRate;
+    }
+    
+    public Double getFrameTime() {
+        return frameTime;
+    }
+    
+    public void setFrameTime(Double frameTime) {
+        this.frameTime = frameTime;
+    }
+    
+    /**
+     * フレーム数（NumberOfFramesがない場合は1）
+     */
+    public int getFrameCount() {
+        return numberOfFrames != null && numberOfFrames > 1 ? numberOfFrames : 1;
+    }
+    
     public String getWindowCenter() {
         return windowCenter;
     }
@@ -197,5 +237,37 @@ public class Instance {
     public boolean hasRoi() {
         return roiBounds != null && roiBounds.width > 0 && roiBounds.height > 0;
     }
+    
+    public double[] getImagePositionPatient() {
+        return imagePositionPatient;
+    }
+    
+    public void setImagePositionPatient(double[] imagePositionPatient) {
+        this.imagePositionPatient = imagePositionPatient;
+    }
+    
+    public double[] getImageOrientationPatient() {
+        return imageOrientationPatient;
+    }
+    
+    public void setImageOrientationPatient(double[] imageOrientationPatient) {
+        this.imageOrientationPatient = imageOrientationPatient;
+    }
+    
+    public double[] getPixelSpacing() {
+        return pixelSpacing;
+    }
+    
+    public void setPixelSpacing(double[] pixelSpacing) {
+        this.pixelSpacing = pixelSpacing;
+    }
+    
+    public Double getSliceThickness() {
+        return sliceThickness;
+    }
+    
+    public void setSliceThickness(Double sliceThickness) {
+        this.sliceThickness = sliceThickness;
+    }
 }
 
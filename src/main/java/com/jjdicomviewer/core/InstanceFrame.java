@@ -0,0 +1,75 @@
+package com.jjdicomviewer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 表示の単位となる1枚の画像（Instanceとそのフレーム番号）
+ * シングルフレームのInstanceはフレーム0のみ、マルチフレームのInstanceはフレーム数分の画像となる
+ */
+public final class InstanceFrame {
+
+    private final Instance instance;
+    private final int frameIndex;
+
+    public InstanceFrame(Instance instance, int frameIndex) {
+        this.instance = Objects.requireNonNull(instance, "instance");
+        this.frameIndex = frameIndex;
+    }
+
+    /**
+     * Instanceの一覧をフレーム単位の一覧に展開（Instanceの順序を維持し、各Instance内はフレーム番号順）
+     */
+    public static List<InstanceFrame> expand(List<Instance> instances) {
+        List<InstanceFrame> frames = new ArrayList<>(instances.size());
+        for (Instance instance : instances) {
+            for (int frame = 0; frame < instance.getFrameCount(); frame++) {
+                frames.add(new InstanceFrame(instance, frame));
+            }
+        }
+        return frames;
+    }
+
+    public Instance getInstance() {
+        return instance;
+    }
+
+    public int getFrameIndex() {
+        return frameIndex;
+    }
+
+    /**
+     * デコード済み画像のキャッシュのキー
+     * シングルフレームの場合はSOPInstanceUID、マルチフレームの場合はSOPInstanceUIDとフレーム番号
+     */
+    public String getCacheKey() {
+        String sopInstanceUID = instance.getSopInstanceUID();
+        if (sopInstanceUID == null || instance.getFrameCount() == 1) {
+            return sopInstanceUID;
+        }
+        return sopInstanceUID + "#" + frameIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InstanceFrame)) {
+            return false;
+        }
+        InstanceFrame other = (InstanceFrame) o;
+        return instance == other.instance && frameIndex == other.frameIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(instance) * 31 + frameIndex;
+    }
+
+    @Override
+    public String toString() {
+        return instance.getSopInstanceUID() + " [" + frameIndex + "]";
+    }
+}
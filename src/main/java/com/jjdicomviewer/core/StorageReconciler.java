@@ -0,0 +1,220 @@
+package com.jjdicomviewer.core;
+
+import com.jjdicomviewer.config.AppConfig;
+import com.jjdicomviewer.storage.StorageIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ストレージ索引（StorageIndex）をストレージの実際の内容と照合して修復する
+ *
+ * バックグラウンドの単一スレッドで以下を行う:
+ * 1. ストレージベースパス配下の {SOPInstanceUID}.dcm を走査して索引に登録（移動されたファイルのパスを更新）
+ * 2. 索引のうちファイルが存在しないエントリを削除
+ *
+ * ストレージ全体を走査するため起動時には実行せず、ユーザーの操作（{@link #requestReconcile()}）か、
+ * 見つからないファイルをきっかけとした要求（{@link #requestReconcileIfDue()}、設定の間隔で制限）でのみ実行する。
+ * 走査で見つかったファイルのうち、索引のパスとサイズが変わっていないものは書き込まない。
+ * 実行中に再度要求された場合は、現在の照合の完了後に1回だけ再実行する。
+ */
+public class StorageReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageReconciler.class);
+
+    // 索引へまとめて書き込む件数（書き込み用接続を長時間占有しないため）
+    private static final int BATCH_SIZE = 500;
+    private static final String DICOM_EXTENSION = ".dcm";
+
+    private final StorageIndex storageIndex;
+    private final ExecutorService executor;
+    // 照合の要求が未処理かどうか（連続した要求をまとめる）
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+    // 最後に照合を開始した時刻（System.nanoTime、未実行の場合は0）
+    private final AtomicLong lastStartNanos = new AtomicLong(0);
+
+    public StorageReconciler(StorageIndex storageIndex) {
+        this.storageIndex = storageIndex;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "storage-reconciler");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * 前回の照合から設定の間隔（storageReconcileIntervalMinutes）が経過している場合のみ、バックグラウンドでの照合を要求
+     * 索引にないファイルが続けて見つかっても、そのたびにストレージ全体を走査しないようにする
+     * @return 照合を要求した場合はtrue
+     */
+    public boolean requestReconcileIfDue() {
+        long last = lastStartNanos.get();
+        long interval = TimeUnit.MINUTES.toNanos(AppConfig.getInstance().getStorageReconcileIntervalMinutes());
+        if (last != 0 && System.nanoTime() - last < interval) {
+            logger.debug("前回の照合から間隔が経過していないため照合をスキップします");
+            return false;
+        }
+        requestReconcile();
+        return true;
+    }
+
+    /**
+     * バックグラウンドでの照合を要求
+     */
+    public void requestReconcile() {
+        if (pending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                pending.set(false);
+                try {
+                    reconcile();
+                } catch (Exception e) {
+                    logger.error("ストレージ索引の照合に失敗しました", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 照合を実行（呼び出し元スレッドで実行される）
+     */
+    public void reconcile() throws IOException, SQLException {
+        Path storageBasePath = AppConfig.getInstance().getStorageBasePath();
+        if (!Files.isDirectory(storageBasePath)) {
+            logger.debug("ストレージディレクトリが存在しないため照合をスキップします: {}", storageBasePath);
+            return;
+        }
+
+        long start = System.nanoTime();
+        lastStartNanos.set(start);
+        int[] counts = indexStorage(storageBasePath);
+        int removed = removeMissingEntries();
+        logger.info("ストレージ索引を照合しました: {}件のファイル（{}件を更新）, {}件の不要なエントリを削除 ({}ms)",
+            counts[0], counts[1], removed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * ストレージを走査してファイルを索引に登録
+     * @return [見つかったファイル数, 登録・更新したエントリ数]
+     */
+    private int[] indexStorage(Path storageBasePath) throws IOException, SQLException {
+        List<StorageIndex.Entry> batch = new ArrayList<>(BATCH_SIZE);
+        int[] count = {0, 0};
+        SQLException[] failure = new SQLException[1];
+
+        Files.walkFileTree(storageBasePath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String fileName = file.getFileName().toString();
+                if (!attrs.isRegularFile() || !fileName.endsWith(DICOM_EXTENSION)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                batch.add(toEntry(storageBasePath, file, fileName, attrs.size()));
+                count[0]++;
+                if (batch.size() >= BATCH_SIZE) {
+                    try {
+                        count[1] += putChanged(batch);
+                    } catch (SQLException e) {
+                        failure[0] = e;
+                        return FileVisitResult.TERMINATE;
+                    }
+                    batch.clear();
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                logger.warn("ファイルにアクセスできません: {} - {}", file, exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        count[1] += putChanged(batch);
+        return count;
+    }
+
+    /**
+     * 索引にない、またはパスかサイズが変わったエントリのみ書き込む
+     * @return 書き込んだエントリ数
+     */
+    private int putChanged(List<StorageIndex.Entry> entries) throws SQLException {
+        List<String> sopInstanceUIDs = new ArrayList<>(entries.size());
+        for (StorageIndex.Entry entry : entries) {
+            sopInstanceUIDs.add(entry.getSopInstanceUID());
+        }
+        Map<String, StorageIndex.Entry> indexed = storageIndex.findAll(sopInstanceUIDs);
+        List<StorageIndex.Entry> changed = new ArrayList<>();
+        for (StorageIndex.Entry entry : entries) {
+            StorageIndex.Entry current = indexed.get(entry.getSopInstanceUID());
+            if (current == null || current.getFileSize() != entry.getFileSize()
+                    || !current.getFilePath().equals(entry.getFilePath())) {
+                changed.add(entry);
+            }
+        }
+        storageIndex.putAll(changed);
+        return changed.size();
+    }
+
+    /**
+     * ファイルが存在しないエントリを削除
+     * @return 削除したエントリ数
+     */
+    private int removeMissingEntries() throws SQLException {
+        int removed = 0;
+        String after = null;
+        List<StorageIndex.Entry> page;
+        do {
+            page = storageIndex.findPage(after, BATCH_SIZE);
+            List<String> missing = new ArrayList<>();
+            for (StorageIndex.Entry entry : page) {
+                if (!Files.exists(entry.getFilePath())) {
+                    missing.add(entry.getSopInstanceUID());
+                }
+                after = entry.getSopInstanceUID();
+            }
+            storageIndex.removeAll(missing);
+            removed += missing.size();
+        } while (page.size() == BATCH_SIZE);
+        return removed;
+    }
+
+    /**
+     * ストレージ内のパス（{StudyInstanceUID}/{SeriesInstanceUID}/{SOPInstanceUID}.dcm）からエントリを作成
+     */
+    private static StorageIndex.Entry toEntry(Path storageBasePath, Path file, String fileName, long size) {
+        String sopInstanceUID = fileName.substring(0, fileName.length() - DICOM_EXTENSION.length());
+        Path relative = storageBasePath.relativize(file);
+        String studyInstanceUID = null;
+        String seriesInstanceUID = null;
+        if (relative.getNameCount() == 3) {
+            studyInstanceUID = relative.getName(0).toString();
+            seriesInstanceUID = relative.getName(1).toString();
+        }
+        return new StorageIndex.Entry(sopInstanceUID, studyInstanceUID, seriesInstanceUID, file, size);
+    }
+
+    /**
+     * バックグラウンドスレッドを停止
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
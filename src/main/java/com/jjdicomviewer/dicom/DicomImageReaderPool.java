@@ -0,0 +1,56 @@
+package com.jjdicomviewer.dicom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import java.util.Iterator;
+
+/**
+ * DICOM用ImageReader（dcm4che-imageioのDicomImageReader）のスレッドごとのプール
+ *
+ * ImageReaderはスレッドセーフではなく、生成時にプラグインの検索とデコーダーの初期化が発生するため、
+ * 読み込み用スレッド（スライス読み込み・先読み・ボリューム構築）ごとに1つ生成して使い回す。
+ * 使用後は {@link ImageReader#setInput(Object)} にnullを設定し、入力ストリームへの参照を解放すること。
+ */
+final class DicomImageReaderPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(DicomImageReaderPool.class);
+
+    private static final ThreadLocal<ImageReader> READERS = ThreadLocal.withInitial(DicomImageReaderPool::create);
+
+    private DicomImageReaderPool() {
+    }
+
+    /**
+     * 現在のスレッドのImageReaderを取得
+     * @return ImageReader、DICOM用のImageReaderが登録されていない場合はnull
+     */
+    static ImageReader acquire() {
+        return READERS.get();
+    }
+
+    /**
+     * 現在のスレッドのImageReaderを破棄（デコードに失敗して内部状態が不明な場合に使用、次回の取得時に再生成する）
+     */
+    static void discard() {
+        ImageReader reader = READERS.get();
+        READERS.remove();
+        if (reader != null) {
+            reader.dispose();
+        }
+    }
+
+    private static ImageReader create() {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("DICOM");
+        if (!readers.hasNext()) {
+            logger.warn("DICOM用のImageReaderが見つかりません（圧縮形式はデコードできません）");
+            return null;
+        }
+        ImageReader reader = readers.next();
+        logger.debug("ImageReaderを作成しました: {} (スレッド: {})",
+            reader.getClass().getName(), Thread.currentThread().getName());
+        return reader;
+    }
+}
@@ -2,16 +2,23 @@ package com.jjdicomviewer.dicom;
 
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Tag;
-import org.dcm4che3.data.VR;
 import org.dcm4che3.io.DicomInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * DICOMファイル読み込みクラス（Swing版）
@@ -19,6 +26,20 @@ import java.nio.ByteOrder;
  */
 public class DicomLoader {
     private static final Logger logger = LoggerFactory.getLogger(DicomLoader.class);
+    
+    // DICOMファイルの読み込み回数（ディスクI/Oの発生確認用）
+    private final AtomicLong fileReadCount = new AtomicLong();
+    
+    // PixelData読み込み用のダイレクトバッファをスレッドごとに保持して使い回す上限（これを超えるフレームは都度確保する）
+    private static final int MAX_REUSED_BUFFER_BYTES = 32 * 1024 * 1024;
+    private static final ThreadLocal<ByteBuffer> PIXEL_BUFFERS = new ThreadLocal<>();
+    
+    /**
+     * このローダーがDICOMファイルを読み込んだ回数を取得
+     */
+    public long getFileReadCount() {
+        return fileReadCount.get();
+    }
 
     /**
      * DICOMファイルからBufferedImageを読み込む（RAWデータ）
@@ -26,7 +47,17 @@ public class DicomLoader {
      * @return BufferedImage（RAWピクセルデータ、ウィンドウ/レベル未適用）
      */
     public BufferedImage loadDicomImage(File dicomFile) throws IOException {
-        return loadDicomImageRaw(dicomFile);
+        return loadDicomImageRaw(dicomFile, 0);
+    }
+    
+    /**
+     * マルチフレームのDICOMファイルから指定したフレームのみを読み込む
+     * @param dicomFile DICOMファイル
+     * @param frameIndex フレーム番号（0始まり）
+     * @return BufferedImage（RAWピクセルデータ、ウィンドウ/レベル未適用）
+     */
+    public BufferedImage loadDicomImage(File dicomFile, int frameIndex) throws IOException {
+        return loadDicomImageRaw(dicomFile, frameIndex);
     }
     
     /**
@@ -39,15 +70,20 @@ public class DicomLoader {
      */
     public BufferedImage loadDicomImage(File dicomFile, Double windowCenter, Double windowWidth) throws IOException {
         // RAWデータを読み込む（ウィンドウ/レベルはprocessImageで適用）
-        return loadDicomImageRaw(dicomFile);
+        return loadDicomImageRaw(dicomFile, 0);
     }
     
     /**
      * DICOMファイルからRAWピクセルデータを読み込む
+     * 非圧縮のTransfer Syntaxの場合は、ヘッダーの解析時に記録したPixelDataの領域のみを
+     * スレッドごとに使い回すダイレクトバッファへ読み込み、Javaヒープ上にコピーを作らずにDataBufferへ直接デコードする
+     * （メモリマップはGCまで解除されず、Windowsではマップ中のファイルを削除できないため使用しない）
+     * マルチフレームの場合は指定したフレームの領域のみを読み込む
      * @param dicomFile DICOMファイル
+     * @param frameIndex フレーム番号（0始まり）
      * @return BufferedImage（RAWピクセルデータ）
      */
-    private BufferedImage loadDicomImageRaw(File dicomFile) throws IOException {
+    private BufferedImage loadDicomImageRaw(File dicomFile, int frameIndex) throws IOException {
         if (dicomFile == null || !dicomFile.exists()) {
             logger.error("DICOMファイルが存在しません: {}", dicomFile);
             throw new IOException("DICOMファイルが存在しません: " + dicomFile);
@@ -58,31 +94,31 @@ public class DicomLoader {
             logger.error("DICOMファイルのサイズが0です: {}", dicomFile.getAbsolutePath());
             throw new IOException("DICOMファイルのサイズが0です: " + dicomFile.getAbsolutePath());
         }
+        
+        fileReadCount.incrementAndGet();
 
-        try (DicomInputStream dis = new DicomInputStream(dicomFile)) {
-            // まず、すべてのデータを読み込む（ピクセルデータを含む）
-            // readDataset(-1, -1)でピクセルデータも含めてすべてのデータを読み込む
-            @SuppressWarnings("deprecation")
+        try {
+            // ヘッダーのみ読み込む（PixelDataの手前で停止し、PixelDataの値の位置と長さを記録）
             Attributes attrs;
-            try {
-                attrs = dis.readDataset(-1, -1);
+            String transferSyntax;
+            long pixelDataOffset = -1;
+            long pixelDataLength = -1;
+            try (DicomInputStream dis = new DicomInputStream(dicomFile)) {
+                @SuppressWarnings("deprecation")
+                Attributes header = dis.readDataset(-1, Tag.PixelData);
+                attrs = header;
+                transferSyntax = dis.getTransferSyntax();
+                if (dis.tag() == Tag.PixelData) {
+                    // カプセル化（圧縮）されている場合、長さは-1
+                    pixelDataOffset = dis.getPosition();
+                    pixelDataLength = dis.length();
+                }
             } catch (Exception e) {
                 logger.error("readDataset()でエラー: ファイル={}, ファイルサイズ={}, エラー={}",
                     dicomFile.getName(), fileSize, e.getMessage(), e);
                 throw new IOException("DICOMデータセットの読み込みに失敗: " + e.getMessage(), e);
             }
             
-            if (!attrs.contains(Tag.PixelData)) {
-                dis.close();
-                try (DicomInputStream dis2 = new DicomInputStream(dicomFile)) {
-                    @SuppressWarnings("deprecation")
-                    Attributes attrs2 = dis2.readDataset(-1, Tag.PixelData);
-                    if (attrs2.contains(Tag.PixelData)) {
-                        attrs = attrs2;
-                    }
-                }
-            }
-            
             // 画像属性を取得
             int rows = attrs.getInt(Tag.Rows, 0);
             int columns = attrs.getInt(Tag.Columns, 0);
@@ -92,247 +128,191 @@ public class DicomLoader {
             int planarConfiguration = attrs.getInt(Tag.PlanarConfiguration, 0);
             boolean signed = attrs.getInt(Tag.PixelRepresentation, 0) != 0;
             String photometricInterpretation = attrs.getString(Tag.PhotometricInterpretation, "MONOCHROME2");
-            
-            // Rescale Slope/Intercept
-            double rescaleSlope = attrs.getDouble(Tag.RescaleSlope, 1.0);
-            double rescaleIntercept = attrs.getDouble(Tag.RescaleIntercept, 0.0);
+            int numberOfFrames = Math.max(1, attrs.getInt(Tag.NumberOfFrames, 1));
             
             if (rows <= 0 || columns <= 0) {
                 throw new IOException("無効な画像サイズ: " + rows + "x" + columns);
             }
-            
-            String transferSyntax = null;
-            try (DicomInputStream dis3 = new DicomInputStream(dicomFile)) {
-                transferSyntax = dis3.getTransferSyntax().toString();
+            if (frameIndex < 0 || frameIndex >= numberOfFrames) {
+                throw new IOException("フレーム番号が範囲外です: " + frameIndex + "（フレーム数: " + numberOfFrames + "）");
             }
             
-            boolean isCompressed = transferSyntax != null && 
-                    !transferSyntax.contains("1.2.840.10008.1.2") && 
-                    !transferSyntax.equals("1.2.840.10008.1.2");
-            
-            if (isCompressed) {
-                try {
-                    BufferedImage decodedImage = javax.imageio.ImageIO.read(dicomFile);
-                    if (decodedImage != null) {
-                        return decodedImage;
-                    }
-                } catch (Exception e) {
-                    logger.warn("ImageIOによる画像デコードに失敗: {}", e.getMessage());
+            boolean isNative = TransferSyntaxes.isNative(transferSyntax);
+            if (!isNative) {
+                BufferedImage decodedImage = decodeCompressedFrame(dicomFile, frameIndex, samplesPerPixel,
+                    bitsStored, signed);
+                if (decodedImage == null) {
+                    decodedImage = decodeEncapsulatedFrame(dicomFile, pixelDataOffset, pixelDataLength,
+                        frameIndex, numberOfFrames);
                 }
-            }
-            
-            // ピクセルデータを取得
-            byte[] pixelData = null;
-            
-            // まず通常の方法で取得を試みる
-            if (attrs.contains(Tag.PixelData)) {
-                try {
-                    VR vr = attrs.getVR(Tag.PixelData);
-                    if (vr == VR.OB || vr == VR.OW) {
-                        try {
-                            pixelData = attrs.getBytes(Tag.PixelData);
-                        } catch (Exception e) {
-                            logger.warn("ピクセルデータの取得に失敗 (VR: {}): {}", vr, e.getMessage());
-                        }
-                    } else {
-                        try {
-                            pixelData = attrs.getBytes(Tag.PixelData);
-                        } catch (Exception e) {
-                            logger.warn("ピクセルデータの取得に失敗 (VR: {}): {}", vr, e.getMessage());
-                        }
-                    }
-                } catch (Exception e) {
-                    logger.error("PixelDataのVR取得に失敗: {}", e.getMessage(), e);
-                }
-            } else {
-                logger.warn("AttributesにPixelDataタグが含まれていません");
-            }
-            
-            if (pixelData == null || pixelData.length == 0) {
-                try (DicomInputStream dis2 = new DicomInputStream(dicomFile)) {
-                    @SuppressWarnings("deprecation")
-                    Attributes attrs2 = dis2.readDataset(-1, Tag.PixelData);
-                    if (attrs2.contains(Tag.PixelData)) {
-                        pixelData = attrs2.getBytes(Tag.PixelData);
-                    }
-                } catch (Exception e) {
-                    logger.warn("再読み込みでもピクセルデータの取得に失敗: {}", e.getMessage());
-                }
-            }
-            
-            if (pixelData == null || pixelData.length == 0) {
-                try (DicomInputStream dis3 = new DicomInputStream(dicomFile)) {
-                    @SuppressWarnings("deprecation")
-                    Attributes attrs3 = dis3.readDataset(-1, -1);
-                    if (attrs3.contains(Tag.PixelData)) {
-                        pixelData = attrs3.getBytes(Tag.PixelData);
-                    }
-                } catch (Exception e) {
-                    logger.warn("直接読み込みでもピクセルデータの取得に失敗: {}", e.getMessage());
+                if (decodedImage != null) {
+                    return decodedImage;
                 }
             }
             
-            if (pixelData == null || pixelData.length == 0) {
-                // ファイルサイズは既に取得済み（fileSize変数を使用）
-                logger.error("ピクセルデータが見つかりません。ファイルサイズ: {} バイト, Transfer Syntax: {}", fileSize, transferSyntax);
-                throw new IOException("ピクセルデータが見つかりません（ファイルサイズ: " + fileSize + " バイト, Transfer Syntax: " + transferSyntax + "）");
-            }
-            
-            // ByteBufferを作成（エンディアンを考慮）
-            ByteBuffer buffer = ByteBuffer.wrap(pixelData);
-            // DICOMのデフォルトはリトルエンディアン
-            // 一部のTransferSyntax（Explicit VR Big Endian）はビッグエンディアンだが、
-            // ほとんどのDICOMファイルはリトルエンディアン
-            if (transferSyntax != null && transferSyntax.contains("BigEndian")) {
-                buffer.order(ByteOrder.BIG_ENDIAN);
-            } else {
-                // デフォルトはリトルエンディアン
-                buffer.order(ByteOrder.LITTLE_ENDIAN);
-            }
-            
-            // BufferedImageを作成
-            logger.info("画像作成: サイズ={}x{}, bitsAllocated={}, samplesPerPixel={}, photometricInterpretation={}", 
+            logger.debug("画像作成: サイズ={}x{}, bitsAllocated={}, samplesPerPixel={}, photometricInterpretation={}", 
                 columns, rows, bitsAllocated, samplesPerPixel, photometricInterpretation);
             
-            BufferedImage image;
-            if (samplesPerPixel == 3 || samplesPerPixel == 4) {
-                // カラー画像（RGB/RGBA）
-                if (bitsAllocated == 8) {
-                    image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
-                } else {
-                    // 16bitカラーは未対応（一旦グレースケールとして扱う）
-                    logger.warn("16bitカラー画像は未対応。グレースケールとして処理します。");
-                    image = new BufferedImage(columns, rows, BufferedImage.TYPE_BYTE_GRAY);
+            // ピクセルデータをDataBufferへ一括デコード
+            // 注意: Rescale Slope/Interceptは適用せず、生のピクセル値を保持
+            // ウィンドウ/レベル適用時にRescale Slope/Interceptを考慮する
+            long frameLength = PixelDecoder.frameLength(columns, rows, bitsAllocated, samplesPerPixel);
+            long frameOffset = frameIndex * frameLength;
+            ByteBuffer buffer;
+            if (isNative && pixelDataOffset >= 0 && pixelDataLength > 0) {
+                if (frameOffset >= pixelDataLength) {
+                    throw new IOException("フレームがPixelDataの範囲外です: " + frameIndex);
                 }
+                buffer = readPixelData(dicomFile, pixelDataOffset + frameOffset,
+                    Math.min(pixelDataLength - frameOffset, frameLength));
             } else {
-                // グレースケール画像
-                if (bitsAllocated == 8) {
-                    image = new BufferedImage(columns, rows, BufferedImage.TYPE_BYTE_GRAY);
-                } else if (bitsAllocated == 16) {
-                    // 16bit画像用にUSHORT_GRAYを使用
-                    image = new BufferedImage(columns, rows, BufferedImage.TYPE_USHORT_GRAY);
-                } else {
-                    // その他のビット深度は16bitとして扱う
-                    logger.warn("未対応のビット深度: {}。16bitとして処理します。", bitsAllocated);
-                    image = new BufferedImage(columns, rows, BufferedImage.TYPE_USHORT_GRAY);
+                byte[] pixelData = readPixelDataBytes(dicomFile);
+                if (pixelData == null || pixelData.length == 0) {
+                    logger.error("ピクセルデータが見つかりません。ファイルサイズ: {} バイト, Transfer Syntax: {}", fileSize, transferSyntax);
+                    throw new IOException("ピクセルデータが見つかりません（ファイルサイズ: " + fileSize + " バイト, Transfer Syntax: " + transferSyntax + "）");
+                }
+                if (frameOffset >= pixelData.length) {
+                    throw new IOException("フレームがPixelDataの範囲外です: " + frameIndex);
                 }
+                buffer = ByteBuffer.wrap(pixelData, (int) frameOffset, pixelData.length - (int) frameOffset);
             }
+            buffer.order(TransferSyntaxes.byteOrder(transferSyntax));
+            BufferedImage image = PixelDecoder.decode(buffer, columns, rows, bitsAllocated, bitsStored,
+                samplesPerPixel, planarConfiguration, signed);
             
-            logger.info("BufferedImage作成完了: サイズ={}x{}, タイプ={}", 
+            logger.debug("BufferedImage作成完了: サイズ={}x{}, タイプ={}", 
                 image.getWidth(), image.getHeight(), image.getType());
             
-            // ピクセルデータを読み込む
-            // 注意: Rescale Slope/Interceptは適用せず、生のピクセル値を保持
-            // ウィンドウ/レベル適用時にRescale Slope/Interceptを考慮する
-            if (bitsAllocated == 8) {
-                // 8bit画像
-                if (samplesPerPixel == 3 || samplesPerPixel == 4) {
-                    // RGB/RGBA画像
-                    if (planarConfiguration == 1) {
-                        // Planar形式（RRR... GGG... BBB...）をインターリーブ形式に変換
-                        int pixelCount = rows * columns;
-                        byte[] redPlane = new byte[pixelCount];
-                        byte[] greenPlane = new byte[pixelCount];
-                        byte[] bluePlane = new byte[pixelCount];
-                        buffer.get(redPlane);
-                        buffer.get(greenPlane);
-                        buffer.get(bluePlane);
-                        if (samplesPerPixel == 4) {
-                            // Alphaチャネルが存在する場合は読み飛ばす
-                            byte[] alphaPlane = new byte[pixelCount];
-                            buffer.get(alphaPlane);
-                        }
-                        
-                        for (int y = 0; y < rows; y++) {
-                            for (int x = 0; x < columns; x++) {
-                                int idx = y * columns + x;
-                                int r = redPlane[idx] & 0xFF;
-                                int g = greenPlane[idx] & 0xFF;
-                                int b = bluePlane[idx] & 0xFF;
-                                int rgb = (r << 16) | (g << 8) | b;
-                                image.setRGB(x, y, rgb);
-                            }
-                        }
-                    } else {
-                        // Interleaved形式
-                        for (int y = 0; y < rows; y++) {
-                            for (int x = 0; x < columns; x++) {
-                                int r = buffer.get() & 0xFF;
-                                int g = buffer.get() & 0xFF;
-                                int b = buffer.get() & 0xFF;
-                                if (samplesPerPixel == 4) {
-                                    buffer.get(); // Alphaチャネルをスキップ
-                                }
-                                int rgb = (r << 16) | (g << 8) | b;
-                                image.setRGB(x, y, rgb);
-                            }
-                        }
-                    }
-                } else {
-                    // グレースケール画像
-                    for (int y = 0; y < rows; y++) {
-                        for (int x = 0; x < columns; x++) {
-                            int pixelValue = buffer.get() & 0xFF;
-                            // 生のピクセル値をそのまま保持（Rescale Slope/Interceptは後で適用）
-                            // MONOCHROME1の場合は反転が必要だが、ここでは生値を保持
-                            int rgb = (pixelValue << 16) | (pixelValue << 8) | pixelValue;
-                            image.setRGB(x, y, rgb);
-                        }
-                    }
-                }
-            } else if (bitsAllocated == 16) {
-                // 16bit画像 - WritableRasterを使って直接データを書き込む
-                java.awt.image.WritableRaster raster = image.getRaster();
-                short[] pixelArray = new short[rows * columns];
-                
-                for (int i = 0; i < pixelArray.length; i++) {
-                    int pixelValue;
-                    if (signed) {
-                        // signed 16bit: -32768 から 32767
-                        pixelValue = buffer.getShort();
-                    } else {
-                        // unsigned 16bit: 0 から 65535
-                        pixelValue = buffer.getShort() & 0xFFFF;
-                    }
-                    
-                    // BitsStoredでマスク（上位ビットを無視）
-                    if (bitsStored < 16) {
-                        if (signed) {
-                            // signedの場合、符号拡張を考慮
-                            int mask = (1 << bitsStored) - 1;
-                            int signBit = 1 << (bitsStored - 1);
-                            pixelValue = pixelValue & mask;
-                            // 符号ビットが立っている場合は符号拡張
-                            if ((pixelValue & signBit) != 0) {
-                                pixelValue = pixelValue | (~mask);
-                            }
-                        } else {
-                            pixelValue = pixelValue & ((1 << bitsStored) - 1);
-                        }
-                    }
-                    
-                    // 生のピクセル値を保持（Rescale Slope/Interceptは後で適用）
-                    // signedピクセルの場合、負の値も保持する必要があるため、
-                    // 0-65535の範囲にオフセットして保存
-                    if (signed) {
-                        // signed値を0-65535の範囲にマッピング（オフセット32768を加算）
-                        pixelArray[i] = (short) (pixelValue + 32768);
-                    } else {
-                        pixelArray[i] = (short) pixelValue;
-                    }
-                }
-                
-                // データをラスターに書き込む
-                raster.setDataElements(0, 0, columns, rows, pixelArray);
-            } else {
-                throw new IOException("未対応のビット深度: " + bitsAllocated);
-            }
-            
             return image;
         } catch (Exception e) {
             logger.error("DICOM画像の読み込みに失敗しました", e);
             throw new IOException("DICOMファイルの読み込みに失敗しました: " + e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * 圧縮形式（JPEG Baseline/Lossless、JPEG-LS、JPEG 2000、RLE等）の指定フレームを
+     * スレッドごとにプールしたDICOM用ImageReaderでデコード
+     * グレースケールはreadRasterで格納値のまま（表示用の8bitへの変換なし）取得し、非圧縮の場合と同じ形式に揃える。
+     * カラーは色空間の変換（YBR→RGB）が必要なためreadでRGBとして取得する。
+     * @return デコードした画像、DICOM用ImageReaderがない場合やデコードに失敗した場合はnull
+     */
+    private static BufferedImage decodeCompressedFrame(File dicomFile, int frameIndex, int samplesPerPixel,
+                                                       int bitsStored, boolean signed) {
+        ImageReader reader = DicomImageReaderPool.acquire();
+        if (reader == null) {
+            return null;
+        }
+        boolean failed = false;
+        try (ImageInputStream input = ImageIO.createImageInputStream(dicomFile)) {
+            reader.setInput(input);
+            ImageReadParam param = reader.getDefaultReadParam();
+            if (samplesPerPixel == 1) {
+                Raster raster = reader.readRaster(frameIndex, param);
+                return PixelDecoder.fromGrayRaster(raster, bitsStored, signed);
+            }
+            return PixelDecoder.toRgb(reader.read(frameIndex, param));
+        } catch (Exception e) {
+            logger.warn("圧縮画像のデコードに失敗: {} (フレーム: {}) - {}", dicomFile.getName(), frameIndex, e.getMessage());
+            failed = true;
+            return null;
+        } finally {
+            reader.setInput(null);
+            if (failed) {
+                DicomImageReaderPool.discard();
+            }
+        }
+    }
+
+    /**
+     * カプセル化（圧縮）されたPixelDataの指定フレームのみを読み込み、ImageIOでデコード（DICOM用ImageReaderで読めない場合のフォールバック）
+     * フレームの位置を特定できない場合は、先頭フレームに限りファイル全体をImageIOで読み込む
+     * @return デコードした画像、デコードできない場合はnull
+     */
+    private static BufferedImage decodeEncapsulatedFrame(File dicomFile, long pixelDataOffset, long pixelDataLength,
+                                                         int frameIndex, int numberOfFrames) {
+        if (pixelDataOffset >= 0 && pixelDataLength < 0) {
+            try (FileChannel channel = FileChannel.open(dicomFile.toPath(), StandardOpenOption.READ)) {
+                byte[] frame = EncapsulatedFrames.readFrame(channel, pixelDataOffset, frameIndex, numberOfFrames);
+                BufferedImage decodedImage = ImageIO.read(new ByteArrayInputStream(frame));
+                if (decodedImage != null) {
+                    return decodedImage;
+                }
+                logger.warn("フレームのデコードに対応するImageReaderがありません: {} (フレーム: {})",
+                    dicomFile.getName(), frameIndex);
+            } catch (Exception e) {
+                logger.warn("フレームの読み込みに失敗: {} (フレーム: {}) - {}", dicomFile.getName(), frameIndex, e.getMessage());
+            }
+        }
+        if (frameIndex == 0) {
+            try {
+                return ImageIO.read(dicomFile);
+            } catch (Exception e) {
+                logger.warn("ImageIOによる画像デコードに失敗: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ファイル内のPixelDataの領域を位置指定の読み込みで取得
+     * 読み込み先は現在のスレッドのダイレクトバッファ（内容は次の読み込みまで有効、デコード後は参照しないこと）で、
+     * ファイルはこのメソッドを抜けた時点で閉じられる（削除・移動を妨げない）
+     * @param offset PixelDataの値の先頭位置（ファイル先頭からのバイト数）
+     * @param length 読み込むバイト数
+     */
+    private static ByteBuffer readPixelData(File dicomFile, long offset, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(dicomFile.toPath(), StandardOpenOption.READ)) {
+            long available = channel.size() - offset;
+            if (available <= 0) {
+                throw new IOException("PixelDataの位置がファイルの範囲外です（位置: " + offset
+                    + ", ファイルサイズ: " + channel.size() + " バイト）");
+            }
+            int size = (int) Math.min(length, available);
+            ByteBuffer buffer = pixelBuffer(size);
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, offset + buffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+    
+    /**
+     * 指定サイズの読み込み用バッファを取得（上限以下はスレッドごとのダイレクトバッファを拡張しながら使い回す）
+     */
+    private static ByteBuffer pixelBuffer(int size) {
+        if (size > MAX_REUSED_BUFFER_BYTES) {
+            return ByteBuffer.allocate(size);
+        }
+        ByteBuffer buffer = PIXEL_BUFFERS.get();
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect(size);
+            PIXEL_BUFFERS.set(buffer);
+        }
+        buffer.clear().limit(size);
+        return buffer;
+    }
+
+    /**
+     * データセット全体を読み込んでPixelDataを取得（PixelDataの位置が特定できない場合のフォールバック）
+     * @return ピクセルデータ、取得できない場合はnull
+     */
+    private static byte[] readPixelDataBytes(File dicomFile) {
+        try (DicomInputStream dis = new DicomInputStream(dicomFile)) {
+            @SuppressWarnings("deprecation")
+            Attributes attrs = dis.readDataset(-1, -1);
+            if (!attrs.contains(Tag.PixelData)) {
+                logger.warn("AttributesにPixelDataタグが含まれていません");
+                return null;
+            }
+            return attrs.getBytes(Tag.PixelData);
+        } catch (Exception e) {
+            logger.warn("ピクセルデータの取得に失敗: {}", e.getMessage());
+            return null;
+        }
+    }
+}
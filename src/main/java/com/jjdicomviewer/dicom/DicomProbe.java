@@ -0,0 +1,131 @@
+package com.jjdicomviewer.dicom;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * DICOMファイルの簡易判定結果と、開いたままの入力ストリームを保持するクラス
+ *
+ * ファイル先頭の数KBのみを読み込んで判定し、ストリームは先頭に巻き戻した状態で保持する。
+ * 判定に使用したストリームをそのまま {@link DicomReader#readStudy(DicomProbe)} へ渡すことで、
+ * 1回のインポートにつきファイルを1回だけ開いて読み込む。
+ *
+ * 判定方法:
+ * - 128バイトのプリアンブル + "DICM" マジック
+ * - プリアンブルなし（RAW形式）の場合は先頭要素のタグ（グループ0002/0008）とVR/長さの妥当性
+ */
+public final class DicomProbe implements Closeable {
+
+    // 判定時に読み込む最大バイト数
+    static final int PROBE_SIZE = 4096;
+
+    private static final int PREAMBLE_LENGTH = 128;
+
+    private final Path file;
+    private final long fileSize;
+    private final BufferedInputStream inputStream;
+    private final boolean dicom;
+
+    private DicomProbe(Path file, long fileSize, BufferedInputStream inputStream, boolean dicom) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.inputStream = inputStream;
+        this.dicom = dicom;
+    }
+
+    /**
+     * ファイルを開いて先頭を判定
+     * 返されたDicomProbeは呼び出し側でcloseすること
+     */
+    public static DicomProbe open(Path file) throws IOException {
+        long fileSize = Files.size(file);
+        InputStream raw = Files.newInputStream(file);
+        try {
+            BufferedInputStream in = new BufferedInputStream(raw, PROBE_SIZE * 2);
+            in.mark(PROBE_SIZE);
+            byte[] head = in.readNBytes(PROBE_SIZE);
+            in.reset();
+            return new DicomProbe(file, fileSize, in, looksLikeDicom(head, head.length));
+        } catch (IOException | RuntimeException e) {
+            raw.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 先頭バイト列がDICOMファイルらしいかどうかを判定
+     */
+    static boolean looksLikeDicom(byte[] head, int length) {
+        if (length >= PREAMBLE_LENGTH + 4
+                && head[PREAMBLE_LENGTH] == 'D'
+                && head[PREAMBLE_LENGTH + 1] == 'I'
+                && head[PREAMBLE_LENGTH + 2] == 'C'
+                && head[PREAMBLE_LENGTH + 3] == 'M') {
+            return true;
+        }
+        // プリアンブルなし（RAW形式）：Little Endian / Big Endianの両方で先頭要素を確認
+        return looksLikeRawElement(head, length, false) || looksLikeRawElement(head, length, true);
+    }
+
+    private static boolean looksLikeRawElement(byte[] head, int length, boolean bigEndian) {
+        if (length < 8) {
+            return false;
+        }
+        int group = readUnsignedShort(head, 0, bigEndian);
+        if (group != 0x0002 && group != 0x0008) {
+            return false;
+        }
+        // Explicit VR：VRは英大文字2文字
+        if (isUpperAscii(head[4]) && isUpperAscii(head[5])) {
+            return true;
+        }
+        // Implicit VR（Little Endianのみ）：4バイトの値長が先頭要素として妥当な大きさであること
+        if (bigEndian) {
+            return false;
+        }
+        long valueLength = ((head[7] & 0xFFL) << 24) | ((head[6] & 0xFFL) << 16)
+            | ((head[5] & 0xFFL) << 8) | (head[4] & 0xFFL);
+        return valueLength <= 0xFFFF;
+    }
+
+    private static int readUnsignedShort(byte[] b, int offset, boolean bigEndian) {
+        return bigEndian
+            ? ((b[offset] & 0xFF) << 8) | (b[offset + 1] & 0xFF)
+            : ((b[offset + 1] & 0xFF) << 8) | (b[offset] & 0xFF);
+    }
+
+    private static boolean isUpperAscii(byte b) {
+        return b >= 'A' && b <= 'Z';
+    }
+
+    /**
+     * DICOMファイルと判定されたかどうか
+     */
+    public boolean isDicom() {
+        return dicom;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * ファイル先頭に位置付けられた入力ストリーム（mark/reset対応）を取得
+     */
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+}
@@ -5,6 +5,8 @@ import com.jjdicomviewer.core.Series;
 import com.jjdicomviewer.core.Study;
 import org.dcm4che3.data.Attributes;
 import org.dcm4che3.data.Tag;
+import org.dcm4che3.data.VR;
+import org.dcm4che3.io.BulkDataDescriptor;
 import org.dcm4che3.io.DicomInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +28,27 @@ public class DicomReader {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmmss");
     
+    // ヘッダー読み込み時に読み飛ばす要素のサイズしきい値（バイト）
+    private static final int SKIP_VALUE_THRESHOLD = 1024;
+    
+    /**
+     * メタデータ読み込み用のバルクデータ判定
+     * 標準のバルクデータ（オーバーレイ、波形等）に加え、一定サイズ以上のプライベート要素・バイナリ要素を読み飛ばす
+     * シーケンス（SQ）と長さ未定義の要素は対象外（ROI情報等のシーケンスは読み込む）
+     */
+    private static final BulkDataDescriptor HEADER_BULK_DATA = (itemPointer, privateCreator, tag, vr, length) -> {
+        if (BulkDataDescriptor.DEFAULT.isBulkData(itemPointer, privateCreator, tag, vr, length)) {
+            return true;
+        }
+        if (vr == VR.SQ || length < SKIP_VALUE_THRESHOLD) {
+            return false;
+        }
+        boolean isPrivate = ((tag >>> 16) & 1) != 0;
+        boolean isBinary = vr == VR.OB || vr == VR.OW || vr == VR.OF || vr == VR.OD
+                || vr == VR.OL || vr == VR.OV || vr == VR.UN;
+        return isPrivate || isBinary;
+    };
+    
     /**
      * 安全に文字列を取得（文字エンコーディングエラーが発生した場合はバイト列からデコードを試みる）
      * 日本語を含む可能性が高いフィールドについては、getString()で成功しても検証を行う
@@ -313,11 +336,28 @@ public class DicomReader {
         }
         return true;
     }
-    
+
+    /**
+     * 数値の多値属性（DS等）を取得
+     * @param count 必要な値の数
+     * @return 値の配列、属性がない・値の数が不足している・取得に失敗した場合はnull
+     */
+    private double[] safeGetDoubles(Attributes attrs, int tag, int count) {
+        try {
+            double[] values = attrs.getDoubles(tag);
+            if (values == null || values.length < count) {
+                return null;
+            }
+            return values.length == count ? values : java.util.Arrays.copyOf(values, count);
+        } catch (Exception e) {
+            logger.warn("数値属性の取得に失敗: tag={}, エラー: {}", String.format("%08X", tag), e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * DICOMファイルを読み込み、Studyオブジェクトを返す
      */
-    @SuppressWarnings("deprecation")
     public Study readStudy(Path dicomFile) throws IOException {
         logger.info("DICOMファイルを読み込み開始: {}", dicomFile.getFileName());
         
@@ -337,12 +377,30 @@ public class DicomReader {
         
         logger.debug("ファイルサイズ: {} バイト", fileSize);
         
-        try (DicomInputStream dis = new DicomInputStream(dicomFile.toFile())) {
+        try (DicomProbe probe = DicomProbe.open(dicomFile)) {
+            return readStudy(probe);
+        }
+    }
+    
+    /**
+     * 判定済みのDicomProbeからStudyオブジェクトを読み込む
+     * ファイルを開き直さず、判定時に開いたストリームをそのまま使用する
+     */
+    @SuppressWarnings("deprecation")
+    public Study readStudy(DicomProbe probe) throws IOException {
+        Path dicomFile = probe.getFile();
+        long fileSize = probe.getFileSize();
+        
+        try (DicomInputStream dis = new DicomInputStream(probe.getInputStream())) {
             logger.debug("DicomInputStreamを作成しました。readDatasetを実行します...");
             
+            // メタデータのみ読み込む（PixelDataの手前で停止し、大きなプライベート要素・バルクデータは読み飛ばす）
+            dis.setIncludeBulkData(DicomInputStream.IncludeBulkData.NO);
+            dis.setBulkDataDescriptor(HEADER_BULK_DATA);
+            
             Attributes attrs = null;
             try {
-                attrs = dis.readDataset(-1, -1);
+                attrs = dis.readDataset(-1, Tag.PixelData);
                 logger.debug("readDatasetが完了しました。Attributesのサイズ: {}", attrs != null ? attrs.size() : 0);
             } catch (Exception e) {
                 logger.error("readDataset()でエラーが発生しました。ファイル: {}, ファイルサイズ: {} バイト, エラー: {}",
@@ -507,6 +565,31 @@ public class DicomReader {
                 instance.setRescaleIntercept(0.0);
             }
 
+            // フレーム数（マルチフレームの場合のみ）
+            int numberOfFrames = attrs.getInt(Tag.NumberOfFrames, 1);
+            if (numberOfFrames > 1) {
+                instance.setNumberOfFrames(numberOfFrames);
+            }
+
+            // シネ再生のフレームレート（CineRate、FrameTime）
+            int cineRate = attrs.getInt(Tag.CineRate, 0);
+            if (cineRate > 0) {
+                instance.setCineRate(cineRate);
+            }
+            double[] frameTime = safeGetDoubles(attrs, Tag.FrameTime, 1);
+            if (frameTime != null && frameTime[0] > 0) {
+                instance.setFrameTime(frameTime[0]);
+            }
+
+            // 空間情報（ボリューム構築時のスライスの並び順と間隔に使用）
+            instance.setImagePositionPatient(safeGetDoubles(attrs, Tag.ImagePositionPatient, 3));
+            instance.setImageOrientationPatient(safeGetDoubles(attrs, Tag.ImageOrientationPatient, 6));
+            instance.setPixelSpacing(safeGetDoubles(attrs, Tag.PixelSpacing, 2));
+            double[] sliceThickness = safeGetDoubles(attrs, Tag.SliceThickness, 1);
+            if (sliceThickness != null) {
+                instance.setSliceThickness(sliceThickness[0]);
+            }
+            
             // ROI情報（SequenceOfUltrasoundRegions）を取得
             Rectangle roiBounds = extractUltrasoundRoi(attrs, instance);
             if (roiBounds != null) {
@@ -544,13 +627,11 @@ public class DicomReader {
     }
     
     /**
-     * DICOMファイルが有効かどうかをチェック
+     * DICOMファイルかどうかをチェック（ファイル先頭の数KBのみで判定）
      */
-    @SuppressWarnings("deprecation")
     public boolean isValidDicomFile(Path file) {
-        try (DicomInputStream dis = new DicomInputStream(file.toFile())) {
-            Attributes attrs = dis.readDataset(-1, -1);
-            return attrs.contains(Tag.SOPClassUID) && attrs.contains(Tag.SOPInstanceUID);
+        try (DicomProbe probe = DicomProbe.open(file)) {
+            return probe.isDicom();
         } catch (Exception e) {
             logger.debug("DICOMファイルの検証に失敗: {}", file, e);
             return false;
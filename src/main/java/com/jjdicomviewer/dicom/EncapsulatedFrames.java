@@ -0,0 +1,156 @@
+package com.jjdicomviewer.dicom;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * カプセル化（圧縮）されたPixelDataから1フレーム分の圧縮データを読み込む
+ *
+ * PixelDataの値は Item（Basic Offset Table）、Item（フラグメント）...、Sequence Delimitation Item で構成される。
+ * Basic Offset Tableがある場合はフレームの先頭のフラグメントへ直接移動し、そのフレームのフラグメントのみを読み込む。
+ * ない場合はフラグメントのヘッダーのみを順に読み（値は読み飛ばす）、フレームの境界を判定する。
+ * カプセル化形式のItemのタグと長さは常にリトルエンディアン。
+ */
+final class EncapsulatedFrames {
+
+    private static final int ITEM = 0xFFFEE000;
+    private static final int ITEM_HEADER_LENGTH = 8;
+
+    private EncapsulatedFrames() {
+    }
+
+    /**
+     * 1フレーム分の圧縮データを読み込む（複数のフラグメントに分割されている場合は連結する）
+     * @param pixelDataOffset PixelDataの値の先頭位置（Basic Offset TableのItemの位置）
+     * @param frameIndex フレーム番号（0始まり）
+     * @param numberOfFrames フレーム数
+     */
+    static byte[] readFrame(FileChannel channel, long pixelDataOffset, int frameIndex, int numberOfFrames)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ITEM_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        readItemHeader(channel, pixelDataOffset, header);
+        if (tagOf(header) != ITEM) {
+            throw new IOException("Basic Offset Tableが見つかりません（位置: " + pixelDataOffset + "）");
+        }
+        long tableLength = lengthOf(header);
+        long firstFragment = pixelDataOffset + ITEM_HEADER_LENGTH + tableLength;
+
+        // Basic Offset Table（各フレームの先頭のフラグメントの、最初のフラグメントからの相対位置）
+        if (tableLength >= 4L * numberOfFrames) {
+            ByteBuffer table = ByteBuffer.allocate(4 * numberOfFrames).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, table, pixelDataOffset + ITEM_HEADER_LENGTH);
+            long start = firstFragment + (table.getInt(4 * frameIndex) & 0xFFFFFFFFL);
+            long end = frameIndex + 1 < numberOfFrames
+                ? firstFragment + (table.getInt(4 * (frameIndex + 1)) & 0xFFFFFFFFL)
+                : Long.MAX_VALUE;
+            return readFragments(channel, start, end);
+        }
+        if (numberOfFrames == 1) {
+            return readFragments(channel, firstFragment, Long.MAX_VALUE);
+        }
+
+        // Basic Offset Tableがない場合はフラグメントの一覧からフレームの境界を判定
+        List<long[]> fragments = listFragments(channel, firstFragment);
+        if (fragments.size() == numberOfFrames) {
+            long[] fragment = fragments.get(frameIndex);
+            return readFragments(channel, fragment[0], fragment[0] + ITEM_HEADER_LENGTH + fragment[1]);
+        }
+        // フラグメント数とフレーム数が一致しない場合は、JPEGのSOI/JPEG 2000のSOCマーカーで始まるフラグメントをフレームの先頭とする
+        List<Long> frameStarts = new ArrayList<>();
+        ByteBuffer marker = ByteBuffer.allocate(2);
+        for (long[] fragment : fragments) {
+            marker.clear();
+            if (fragment[1] >= 2) {
+                readFully(channel, marker, fragment[0] + ITEM_HEADER_LENGTH);
+                int value = marker.getShort(0) & 0xFFFF;
+                if (value == 0xFFD8 || value == 0xFF4F) {
+                    frameStarts.add(fragment[0]);
+                }
+            }
+        }
+        if (frameStarts.size() != numberOfFrames) {
+            throw new IOException("フレームの位置を特定できません（フレーム数: " + numberOfFrames
+                + ", フラグメント数: " + fragments.size() + "）");
+        }
+        long end = frameIndex + 1 < numberOfFrames ? frameStarts.get(frameIndex + 1) : Long.MAX_VALUE;
+        return readFragments(channel, frameStarts.get(frameIndex), end);
+    }
+
+    /**
+     * 指定範囲のフラグメントの値を連結して読み込む（Sequence Delimitation Itemまたはファイル末尾で終了）
+     */
+    private static byte[] readFragments(FileChannel channel, long start, long end) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(ITEM_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        long position = start;
+        while (position < end && position + ITEM_HEADER_LENGTH <= channel.size()) {
+            readItemHeader(channel, position, header);
+            if (tagOf(header) != ITEM) {
+                // Sequence Delimitation Item
+                break;
+            }
+            long length = lengthOf(header);
+            if (length > Integer.MAX_VALUE - frame.size()) {
+                throw new IOException("フラグメントが大きすぎます: " + length + " バイト");
+            }
+            ByteBuffer value = ByteBuffer.allocate((int) length);
+            readFully(channel, value, position + ITEM_HEADER_LENGTH);
+            frame.write(value.array(), 0, value.capacity());
+            position += ITEM_HEADER_LENGTH + length;
+        }
+        if (frame.size() == 0) {
+            throw new IOException("フレームのデータが見つかりません（位置: " + start + "）");
+        }
+        return frame.toByteArray();
+    }
+
+    /**
+     * フラグメントの一覧（Itemの位置と値の長さ）
+     */
+    private static List<long[]> listFragments(FileChannel channel, long start) throws IOException {
+        List<long[]> fragments = new ArrayList<>();
+        ByteBuffer header = ByteBuffer.allocate(ITEM_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        long position = start;
+        while (position + ITEM_HEADER_LENGTH <= channel.size()) {
+            readItemHeader(channel, position, header);
+            if (tagOf(header) != ITEM) {
+                // Sequence Delimitation Item
+                break;
+            }
+            long length = lengthOf(header);
+            fragments.add(new long[] {position, length});
+            position += ITEM_HEADER_LENGTH + length;
+        }
+        return fragments;
+    }
+
+    private static void readItemHeader(FileChannel channel, long position, ByteBuffer header) throws IOException {
+        header.clear();
+        readFully(channel, header, position);
+    }
+
+    private static int tagOf(ByteBuffer header) {
+        return ((header.getShort(0) & 0xFFFF) << 16) | (header.getShort(2) & 0xFFFF);
+    }
+
+    private static long lengthOf(ByteBuffer header) {
+        return header.getInt(4) & 0xFFFFFFFFL;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long current = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, current);
+            if (read < 0) {
+                throw new EOFException("ファイルの末尾に達しました（位置: " + current + "）");
+            }
+            current += read;
+        }
+    }
+}
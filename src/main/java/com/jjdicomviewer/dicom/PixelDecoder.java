@@ -0,0 +1,206 @@
+package com.jjdicomviewer.dicom;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 非圧縮ピクセルデータをBufferedImageのDataBufferへ一括デコードするクラス
+ * setRGB等の画素単位のメソッド呼び出しやカラーモデル変換を行わず、バッキング配列へ直接書き込む
+ *
+ * 出力形式（ImageViewerPanelのウィンドウ/レベル処理が前提とする形式）:
+ * - 8bitグレースケール: TYPE_BYTE_GRAY（格納値そのまま）
+ * - 8bit RGB/RGBA: TYPE_INT_RGB（Alphaは破棄）
+ * - 16bitグレースケール: TYPE_USHORT_GRAY（BitsStoredでマスク、signedは符号拡張後に+32768オフセット）
+ * 圧縮形式をImageReaderでデコードした結果も {@link #fromGrayRaster} / {@link #toRgb} で同じ形式に揃える。
+ */
+final class PixelDecoder {
+
+    private PixelDecoder() {
+    }
+
+    /**
+     * 1フレーム分のピクセルデータをデコード
+     * @param buffer ピクセルデータ（現在位置がフレーム先頭、バイトオーダー設定済み）
+     * @return デコードした画像（RAWピクセルデータ、ウィンドウ/レベル未適用）
+     */
+    static BufferedImage decode(ByteBuffer buffer, int columns, int rows, int bitsAllocated, int bitsStored,
+                                int samplesPerPixel, int planarConfiguration, boolean signed) throws IOException {
+        int pixelCount = columns * rows;
+        boolean isColor = samplesPerPixel == 3 || samplesPerPixel == 4;
+
+        if (bitsAllocated == 8) {
+            requireRemaining(buffer, (long) pixelCount * samplesPerPixel);
+            if (isColor) {
+                if (planarConfiguration == 1) {
+                    return decodeRgb8Planar(buffer, columns, rows);
+                }
+                return decodeRgb8Interleaved(buffer, columns, rows, samplesPerPixel);
+            }
+            return decodeGray8(buffer, columns, rows);
+        } else if (bitsAllocated == 16) {
+            if (isColor) {
+                throw new IOException("16bitカラー画像は未対応です");
+            }
+            requireRemaining(buffer, (long) pixelCount * 2);
+            return decodeGray16(buffer, columns, rows, bitsStored, signed);
+        }
+        throw new IOException("未対応のビット深度: " + bitsAllocated);
+    }
+
+    /**
+     * 1フレーム分のバイト数を計算
+     */
+    static long frameLength(int columns, int rows, int bitsAllocated, int samplesPerPixel) {
+        return (long) columns * rows * samplesPerPixel * (bitsAllocated / 8);
+    }
+
+    private static void requireRemaining(ByteBuffer buffer, long required) throws IOException {
+        if (buffer.remaining() < required) {
+            throw new IOException("ピクセルデータが不足しています（必要: " + required
+                + " バイト, 実際: " + buffer.remaining() + " バイト）");
+        }
+    }
+
+    /**
+     * 8bitグレースケール：格納値をそのままDataBufferByteへ一括コピー
+     */
+    private static BufferedImage decodeGray8(ByteBuffer buffer, int columns, int rows) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] dst = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        buffer.get(dst, 0, columns * rows);
+        return image;
+    }
+
+    /**
+     * 8bit RGB/RGBA（Interleaved形式: RGBRGB...）：行単位でまとめて読み込み、0xRRGGBBへパック
+     */
+    private static BufferedImage decodeRgb8Interleaved(ByteBuffer buffer, int columns, int rows, int samplesPerPixel) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        int[] dst = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        byte[] row = new byte[columns * samplesPerPixel];
+
+        for (int y = 0; y < rows; y++) {
+            buffer.get(row, 0, row.length);
+            int base = y * columns;
+            for (int x = 0, j = 0; x < columns; x++, j += samplesPerPixel) {
+                dst[base + x] = ((row[j] & 0xFF) << 16) | ((row[j + 1] & 0xFF) << 8) | (row[j + 2] & 0xFF);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * 8bit RGB/RGBA（Planar形式: RRR... GGG... BBB...）：各プレーンを行単位でまとめて読み込み、0xRRGGBBへパック
+     * Alphaプレーンが存在する場合は読み飛ばす
+     */
+    private static BufferedImage decodeRgb8Planar(ByteBuffer buffer, int columns, int rows) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        int[] dst = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        int planeSize = columns * rows;
+        int start = buffer.position();
+        byte[] red = new byte[columns];
+        byte[] green = new byte[columns];
+        byte[] blue = new byte[columns];
+
+        for (int y = 0; y < rows; y++) {
+            int offset = start + y * columns;
+            buffer.get(offset, red, 0, columns);
+            buffer.get(offset + planeSize, green, 0, columns);
+            buffer.get(offset + 2 * planeSize, blue, 0, columns);
+            int base = y * columns;
+            for (int x = 0; x < columns; x++) {
+                dst[base + x] = ((red[x] & 0xFF) << 16) | ((green[x] & 0xFF) << 8) | (blue[x] & 0xFF);
+            }
+        }
+        return image;
+    }
+
+    /**
+     * 16bitグレースケール：DataBufferUShortへ一括コピー後、BitsStoredのマスク/符号拡張をその場で適用
+     * signedの場合は負の値も保持するため、0-65535の範囲にオフセット（+32768）して保存
+     */
+    private static BufferedImage decodeGray16(ByteBuffer buffer, int columns, int rows, int bitsStored, boolean signed) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_USHORT_GRAY);
+        short[] dst = ((DataBufferUShort) image.getRaster().getDataBuffer()).getData();
+        int pixelCount = columns * rows;
+        buffer.asShortBuffer().get(dst, 0, pixelCount);
+        buffer.position(buffer.position() + pixelCount * 2);
+        applyBitsStored(dst, pixelCount, bitsStored, signed);
+        return image;
+    }
+
+    /**
+     * 16bitの格納値にBitsStoredのマスク/符号拡張をその場で適用
+     */
+    private static void applyBitsStored(short[] dst, int pixelCount, int bitsStored, boolean signed) {
+        int stored = (bitsStored > 0 && bitsStored < 16) ? bitsStored : 16;
+        if (signed) {
+            // 上位ビットを捨てて符号拡張し、+32768オフセット
+            int shift = 32 - stored;
+            for (int i = 0; i < pixelCount; i++) {
+                dst[i] = (short) (((dst[i] << shift) >> shift) + 32768);
+            }
+        } else if (stored < 16) {
+            // BitsStoredでマスク（上位ビットを無視）
+            int mask = (1 << stored) - 1;
+            for (int i = 0; i < pixelCount; i++) {
+                dst[i] = (short) (dst[i] & mask);
+            }
+        }
+    }
+
+    /**
+     * ImageReaderでデコードしたグレースケールのRaster（格納値、ウィンドウ/レベル未適用）を、
+     * 非圧縮の場合と同じ形式（TYPE_BYTE_GRAY/TYPE_USHORT_GRAY）に変換
+     */
+    static BufferedImage fromGrayRaster(Raster raster, int bitsStored, boolean signed) throws IOException {
+        int columns = raster.getWidth();
+        int rows = raster.getHeight();
+        int pixelCount = columns * rows;
+        Object data = raster.getDataElements(raster.getMinX(), raster.getMinY(), columns, rows, null);
+
+        if (data instanceof byte[]) {
+            BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_BYTE_GRAY);
+            byte[] dst = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+            System.arraycopy(data, 0, dst, 0, pixelCount);
+            return image;
+        }
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_USHORT_GRAY);
+        short[] dst = ((DataBufferUShort) image.getRaster().getDataBuffer()).getData();
+        if (data instanceof short[]) {
+            System.arraycopy(data, 0, dst, 0, pixelCount);
+        } else if (data instanceof int[]) {
+            int[] src = (int[]) data;
+            for (int i = 0; i < pixelCount; i++) {
+                dst[i] = (short) src[i];
+            }
+        } else {
+            throw new IOException("未対応のRasterのデータ型: " + raster.getTransferType());
+        }
+        applyBitsStored(dst, pixelCount, bitsStored, signed);
+        return image;
+    }
+
+    /**
+     * ImageReaderでデコードしたカラー画像をTYPE_INT_RGBに変換（既にTYPE_INT_RGBの場合はそのまま返す）
+     */
+    static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        int columns = source.getWidth();
+        int rows = source.getHeight();
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_RGB);
+        int[] dst = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        source.getRGB(0, 0, columns, rows, dst, 0, columns);
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] &= 0xFFFFFF;
+        }
+        return image;
+    }
+}
@@ -0,0 +1,218 @@
+package com.jjdicomviewer.dicom;
+
+import com.jjdicomviewer.core.Instance;
+import com.jjdicomviewer.core.Series;
+import com.jjdicomviewer.image.ImageGeometry;
+import com.jjdicomviewer.image.SeriesVolume;
+import com.jjdicomviewer.image.SliceCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * シリーズのボリューム（SeriesVolume）をバックグラウンドで構築する
+ *
+ * {@link #load(Series, long)} はバッファを確保したボリュームを直ちに返し、スライスは専用スレッドで順次デコードして書き込む。
+ * スライスは全InstanceにImagePositionPatientとImageOrientationPatientがある場合は法線方向の位置順、
+ * ない場合はInstanceNumber順に並べる。
+ * グレースケール（SamplesPerPixel=1）のシングルフレームで、全スライスの行数・列数が同じシリーズのみ対応する。
+ */
+public class SeriesVolumeLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeriesVolumeLoader.class);
+
+    private final DicomLoader dicomLoader;
+    // デコード済みのスライスを再利用するキャッシュ（nullの場合は常にデコード）
+    private final SliceCache sliceCache;
+    private final ExecutorService executor;
+
+    public SeriesVolumeLoader(DicomLoader dicomLoader, SliceCache sliceCache) {
+        this.dicomLoader = dicomLoader;
+        this.sliceCache = sliceCache;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "volume-loader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * ボリュームを作成し、バックグラウンドでの読み込みを開始
+     * @param maxBytes ボリュームのサイズの上限（バイト）
+     * @return ボリューム、対応していないシリーズまたは上限を超える場合はnull
+     */
+    public SeriesVolume load(Series series, long maxBytes) {
+        if (series == null || series.getInstanceList() == null || series.getInstanceList().isEmpty()) {
+            return null;
+        }
+        List<Instance> slices = orderSlices(series.getInstanceList());
+        Instance first = slices.get(0);
+        int width = first.getColumns() != null ? first.getColumns() : 0;
+        int height = first.getRows() != null ? first.getRows() : 0;
+        for (Instance instance : slices) {
+            boolean grayscale = instance.getSamplesPerPixel() == null || instance.getSamplesPerPixel() == 1;
+            if (!grayscale || instance.getFrameCount() > 1 || instance.getColumns() == null || instance.getColumns() != width
+                    || instance.getRows() == null || instance.getRows() != height) {
+                logger.debug("ボリュームに対応していないシリーズです: {}", series.getSeriesInstanceUID());
+                return null;
+            }
+        }
+        long bytes = SeriesVolume.requiredBytes(width, height, slices.size());
+        if (width == 0 || height == 0 || bytes > maxBytes || bytes > Integer.MAX_VALUE) {
+            logger.info("ボリュームを作成しません: {} ({}x{}x{}, {}MB)", series.getSeriesInstanceUID(),
+                width, height, slices.size(), bytes / (1024 * 1024));
+            return null;
+        }
+
+        String[] sopInstanceUIDs = new String[slices.size()];
+        double[] slopes = new double[slices.size()];
+        double[] intercepts = new double[slices.size()];
+        for (int z = 0; z < slices.size(); z++) {
+            Instance instance = slices.get(z);
+            sopInstanceUIDs[z] = instance.getSopInstanceUID();
+            slopes[z] = instance.getRescaleSlope() != null ? instance.getRescaleSlope() : 1.0;
+            intercepts[z] = instance.getRescaleIntercept() != null ? instance.getRescaleIntercept() : 0.0;
+        }
+        boolean signed = first.getBitsAllocated() != null && first.getBitsAllocated() == 16
+            && first.getPixelRepresentation() != null && first.getPixelRepresentation() != 0;
+        ImageGeometry geometry = new ImageGeometry(first.getPixelSpacing(), sliceSpacing(slices),
+            first.getImagePositionPatient(), first.getImageOrientationPatient());
+
+        SeriesVolume volume;
+        try {
+            volume = new SeriesVolume(series.getSeriesInstanceUID(), width, height, signed, geometry,
+                sopInstanceUIDs, slopes, intercepts);
+        } catch (OutOfMemoryError e) {
+            logger.warn("ボリュームのメモリを確保できません: {} ({}MB)", series.getSeriesInstanceUID(), bytes / (1024 * 1024));
+            return null;
+        }
+        executor.execute(() -> fill(volume, slices));
+        return volume;
+    }
+
+    /**
+     * スライスを順次デコードしてボリュームに書き込む（読み込み用スレッド）
+     */
+    private void fill(SeriesVolume volume, List<Instance> slices) {
+        long start = System.nanoTime();
+        short[] values = new short[volume.getWidth() * volume.getHeight()];
+        for (int z = 0; z < slices.size(); z++) {
+            if (volume.isReleased()) {
+                logger.debug("ボリュームが解放されたため読み込みを中断します: {}", volume.getSeriesInstanceUID());
+                return;
+            }
+            Instance instance = slices.get(z);
+            try {
+                BufferedImage image = sliceCache != null ? sliceCache.peek(instance.getSopInstanceUID()) : null;
+                if (image == null) {
+                    Path filePath = instance.getFilePath();
+                    if (filePath == null || !Files.exists(filePath)) {
+                        logger.warn("ボリュームのスライスのファイルが見つかりません: {}", filePath);
+                        continue;
+                    }
+                    image = dicomLoader.loadDicomImage(filePath.toFile());
+                }
+                if (image == null || image.getWidth() != volume.getWidth() || image.getHeight() != volume.getHeight()
+                        || image.getRaster().getNumBands() != 1) {
+                    logger.warn("ボリュームのスライスの形式が一致しません: {}", instance.getSopInstanceUID());
+                    continue;
+                }
+                copyStoredValues(image, values);
+                volume.writeSlice(z, values);
+            } catch (IllegalStateException e) {
+                // 書き込み中に解放された
+                return;
+            } catch (Exception e) {
+                logger.warn("ボリュームのスライスの読み込みに失敗しました: {} - {}", instance.getSopInstanceUID(), e.getMessage());
+            }
+        }
+        logger.info("ボリュームを読み込みました: {} ({}x{}x{}, {}ms)", volume.getSeriesInstanceUID(),
+            volume.getWidth(), volume.getHeight(), volume.getDepth(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * 画像の格納値を16bitの配列にコピー（8bitの場合は拡張）
+     */
+    private static void copyStoredValues(BufferedImage image, short[] dst) {
+        Raster raster = image.getRaster();
+        int count = image.getWidth() * image.getHeight();
+        DataBuffer buffer = raster.getDataBuffer();
+        if (buffer instanceof DataBufferUShort && buffer.getSize() == count && buffer.getOffset() == 0
+                && raster.getSampleModelTranslateX() == 0 && raster.getSampleModelTranslateY() == 0) {
+            System.arraycopy(((DataBufferUShort) buffer).getData(), 0, dst, 0, count);
+            return;
+        }
+        int[] samples = raster.getSamples(0, 0, image.getWidth(), image.getHeight(), 0, (int[]) null);
+        for (int i = 0; i < count; i++) {
+            dst[i] = (short) samples[i];
+        }
+    }
+
+    /**
+     * スライスを空間的な順序に並べる
+     */
+    static List<Instance> orderSlices(List<Instance> instances) {
+        List<Instance> ordered = new ArrayList<>(instances);
+        ordered.sort(Comparator.comparingInt(i -> i.getInstanceNumber() != null ? i.getInstanceNumber() : 0));
+        double[] normal = ImageGeometry.normalOf(ordered.get(0).getImageOrientationPatient());
+        if (normal == null) {
+            return ordered;
+        }
+        for (Instance instance : ordered) {
+            if (instance.getImagePositionPatient() == null
+                    || !Arrays.equals(instance.getImageOrientationPatient(), ordered.get(0).getImageOrientationPatient())) {
+                return ordered;
+            }
+        }
+        ordered.sort(Comparator.comparingDouble(i -> ImageGeometry.project(i.getImagePositionPatient(), normal)));
+        return ordered;
+    }
+
+    /**
+     * スライス間隔（隣接スライスの位置の差の中央値、位置がない場合はSliceThickness）
+     */
+    static double sliceSpacing(List<Instance> slices) {
+        double[] normal = ImageGeometry.normalOf(slices.get(0).getImageOrientationPatient());
+        if (normal != null && slices.size() > 1) {
+            double[] gaps = new double[slices.size() - 1];
+            boolean complete = true;
+            for (int z = 1; z < slices.size() && complete; z++) {
+                double[] previous = slices.get(z - 1).getImagePositionPatient();
+                double[] current = slices.get(z).getImagePositionPatient();
+                complete = previous != null && current != null;
+                if (complete) {
+                    gaps[z - 1] = Math.abs(ImageGeometry.project(current, normal) - ImageGeometry.project(previous, normal));
+                }
+            }
+            if (complete) {
+                Arrays.sort(gaps);
+                double median = gaps[gaps.length / 2];
+                if (median > 0) {
+                    return median;
+                }
+            }
+        }
+        Double thickness = slices.get(0).getSliceThickness();
+        return thickness != null && thickness > 0 ? thickness : 1.0;
+    }
+
+    /**
+     * 読み込み用スレッドを停止
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
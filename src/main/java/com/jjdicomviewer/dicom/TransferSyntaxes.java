@@ -0,0 +1,34 @@
+package com.jjdicomviewer.dicom;
+
+import java.nio.ByteOrder;
+
+/**
+ * Transfer Syntax UIDの判定
+ * 非圧縮（ネイティブ）形式はPixelDataがそのままファイルに格納されているため、直接読み込める
+ */
+final class TransferSyntaxes {
+
+    static final String IMPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2";
+    static final String EXPLICIT_VR_LITTLE_ENDIAN = "1.2.840.10008.1.2.1";
+    static final String EXPLICIT_VR_BIG_ENDIAN = "1.2.840.10008.1.2.2";
+
+    private TransferSyntaxes() {
+    }
+
+    /**
+     * 非圧縮（ネイティブ）形式かどうか
+     * Deflated Explicit VR Little Endian（1.2.840.10008.1.2.1.99）はデータセット全体が圧縮されているため含まない
+     */
+    static boolean isNative(String transferSyntaxUID) {
+        return IMPLICIT_VR_LITTLE_ENDIAN.equals(transferSyntaxUID)
+            || EXPLICIT_VR_LITTLE_ENDIAN.equals(transferSyntaxUID)
+            || EXPLICIT_VR_BIG_ENDIAN.equals(transferSyntaxUID);
+    }
+
+    /**
+     * ピクセルデータのバイトオーダー（Explicit VR Big Endianのみビッグエンディアン）
+     */
+    static ByteOrder byteOrder(String transferSyntaxUID) {
+        return EXPLICIT_VR_BIG_ENDIAN.equals(transferSyntaxUID) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+    }
+}
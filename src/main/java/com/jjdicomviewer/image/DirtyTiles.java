@@ -0,0 +1,92 @@
+package com.jjdicomviewer.image;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 表示用画像をタイルに分割し、描画済み（現在のウィンドウ/レベルで変換済み）かどうかを管理する
+ *
+ * 表示範囲のうち未描画のタイルのみを変換することで、拡大表示中のW/L変更は表示範囲の大きさの処理で済み、
+ * パン操作では新たに表示された範囲のみを変換する（一度変換したタイルは範囲外に出ても保持する）。
+ */
+public class DirtyTiles {
+
+    public static final int TILE_SIZE = 256;
+
+    private int width;
+    private int height;
+    private int tilesX;
+    private int tilesY;
+    private final BitSet rendered = new BitSet();
+
+    /**
+     * 画像のサイズを設定し、すべてのタイルを未描画にする
+     */
+    public void reset(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        rendered.clear();
+    }
+
+    /**
+     * すべてのタイルを未描画にする（W/Lの変更時など）
+     */
+    public void invalidateAll() {
+        rendered.clear();
+    }
+
+    /**
+     * 指定範囲と重なる未描画のタイルを取得し、描画済みとする
+     * タイルの行ごとに、未描画のタイルを含む列範囲を1つの矩形にまとめて返す（間の描画済みタイルは再描画される）
+     * @param visible 画像座標での表示範囲
+     * @return 描画が必要な画像座標の矩形（画像の範囲内）
+     */
+    public List<Rectangle> takeDirtyRegions(Rectangle visible) {
+        List<Rectangle> regions = new ArrayList<>();
+        Rectangle area = visible.intersection(new Rectangle(0, 0, width, height));
+        if (area.isEmpty()) {
+            return regions;
+        }
+        int firstColumn = area.x / TILE_SIZE;
+        int lastColumn = (area.x + area.width - 1) / TILE_SIZE;
+        int firstRow = area.y / TILE_SIZE;
+        int lastRow = (area.y + area.height - 1) / TILE_SIZE;
+
+        for (int ty = firstRow; ty <= lastRow; ty++) {
+            int from = -1;
+            int to = -1;
+            for (int tx = firstColumn; tx <= lastColumn; tx++) {
+                int index = ty * tilesX + tx;
+                if (!rendered.get(index)) {
+                    if (from < 0) {
+                        from = tx;
+                    }
+                    to = tx;
+                    rendered.set(index);
+                }
+            }
+            if (from >= 0) {
+                int x = from * TILE_SIZE;
+                int y = ty * TILE_SIZE;
+                regions.add(new Rectangle(x, y,
+                    Math.min(width, (to + 1) * TILE_SIZE) - x, Math.min(height, y + TILE_SIZE) - y));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * 描画済みのタイル数（確認用）
+     */
+    public int getRenderedTileCount() {
+        return rendered.cardinality();
+    }
+
+    public int getTileCount() {
+        return tilesX * tilesY;
+    }
+}
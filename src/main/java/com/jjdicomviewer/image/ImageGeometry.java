@@ -0,0 +1,107 @@
+package com.jjdicomviewer.image;
+
+/**
+ * ボリュームの空間情報（患者座標系、単位はmm）
+ * ボクセル座標 (x, y, z) は列・行・スライスの番号で、患者座標は
+ * origin + x * columnSpacing * rowDirection + y * rowSpacing * columnDirection + z * sliceSpacing * normal となる。
+ */
+public final class ImageGeometry {
+
+    private final double columnSpacing;
+    private final double rowSpacing;
+    private final double sliceSpacing;
+    private final double[] origin;
+    private final double[] rowDirection;
+    private final double[] columnDirection;
+    private final double[] normal;
+
+    /**
+     * @param pixelSpacing PixelSpacing（行間隔・列間隔、nullの場合は1.0mm）
+     * @param sliceSpacing スライス間隔（0以下の場合は1.0mm）
+     * @param origin 先頭スライスのImagePositionPatient（nullの場合は原点）
+     * @param orientation ImageOrientationPatient（nullの場合はアキシャル）
+     */
+    public ImageGeometry(double[] pixelSpacing, double sliceSpacing, double[] origin, double[] orientation) {
+        this.rowSpacing = pixelSpacing != null && pixelSpacing.length >= 2 && pixelSpacing[0] > 0 ? pixelSpacing[0] : 1.0;
+        this.columnSpacing = pixelSpacing != null && pixelSpacing.length >= 2 && pixelSpacing[1] > 0 ? pixelSpacing[1] : 1.0;
+        this.sliceSpacing = sliceSpacing > 0 ? sliceSpacing : 1.0;
+        this.origin = origin != null && origin.length >= 3 ? origin.clone() : new double[] {0, 0, 0};
+        if (orientation != null && orientation.length >= 6) {
+            this.rowDirection = new double[] {orientation[0], orientation[1], orientation[2]};
+            this.columnDirection = new double[] {orientation[3], orientation[4], orientation[5]};
+        } else {
+            this.rowDirection = new double[] {1, 0, 0};
+            this.columnDirection = new double[] {0, 1, 0};
+        }
+        this.normal = normalOf(rowDirection, columnDirection);
+    }
+
+    /**
+     * ImageOrientationPatientからスライスの法線（行方向×列方向）を計算
+     * @return 法線ベクトル、orientationがnullの場合はnull
+     */
+    public static double[] normalOf(double[] orientation) {
+        if (orientation == null || orientation.length < 6) {
+            return null;
+        }
+        return normalOf(new double[] {orientation[0], orientation[1], orientation[2]},
+            new double[] {orientation[3], orientation[4], orientation[5]});
+    }
+
+    private static double[] normalOf(double[] row, double[] column) {
+        return new double[] {
+            row[1] * column[2] - row[2] * column[1],
+            row[2] * column[0] - row[0] * column[2],
+            row[0] * column[1] - row[1] * column[0]
+        };
+    }
+
+    /**
+     * 位置の法線方向の成分（スライスの並び替え・間隔の計算用）
+     */
+    public static double project(double[] position, double[] normal) {
+        return position[0] * normal[0] + position[1] * normal[1] + position[2] * normal[2];
+    }
+
+    /**
+     * ボクセル座標を患者座標に変換
+     */
+    public double[] toPatient(double x, double y, double z) {
+        double[] p = new double[3];
+        for (int i = 0; i < 3; i++) {
+            p[i] = origin[i]
+                + x * columnSpacing * rowDirection[i]
+                + y * rowSpacing * columnDirection[i]
+                + z * sliceSpacing * normal[i];
+        }
+        return p;
+    }
+
+    public double getColumnSpacing() {
+        return columnSpacing;
+    }
+
+    public double getRowSpacing() {
+        return rowSpacing;
+    }
+
+    public double getSliceSpacing() {
+        return sliceSpacing;
+    }
+
+    public double[] getOrigin() {
+        return origin.clone();
+    }
+
+    public double[] getRowDirection() {
+        return rowDirection.clone();
+    }
+
+    public double[] getColumnDirection() {
+        return columnDirection.clone();
+    }
+
+    public double[] getNormal() {
+        return normal.clone();
+    }
+}
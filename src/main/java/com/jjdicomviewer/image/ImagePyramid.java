@@ -0,0 +1,178 @@
+package com.jjdicomviewer.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RAWピクセルデータ（ウィンドウ/レベル未適用）の縮小画像のピラミッド
+ *
+ * レベル0は元画像、レベルkは縦横1/2^kに縮小した画像で、各レベルは1つ上のレベルの2x2画素の平均から作成する。
+ * 縮小表示時は表示倍率に最も近い（縮小率がそれ以上の）レベルに対してW/Lの適用と描画を行うことで、
+ * 元画像の全画素の処理を避け、大きな縮小率のバイリニア補間によるエイリアシングも抑える。
+ * レベルは初めて要求されたときに作成する。
+ *
+ * 対応する形式はデコード済み画像の形式（TYPE_USHORT_GRAY、TYPE_BYTE_GRAY、TYPE_INT_RGB）のみで、
+ * それ以外の画像はレベル0のみとなる。格納値の平均を取るため、signedの+32768オフセットもそのまま扱える。
+ */
+public class ImagePyramid {
+
+    // 縮小画像の短辺の最小値（これより小さいレベルは作成しない）
+    private static final int MIN_LEVEL_SIZE = 64;
+
+    private final BufferedImage base;
+    private final RowBandRenderer renderer;
+    private final List<BufferedImage> levels = new ArrayList<>();
+    private final int maxLevel;
+
+    /**
+     * @param base 元画像（レベル0）
+     * @param renderer 縮小処理を行バンドに分割して並列に行うためのRenderer
+     */
+    public ImagePyramid(BufferedImage base, RowBandRenderer renderer) {
+        this.base = base;
+        this.renderer = renderer;
+        levels.add(base);
+        int level = 0;
+        if (isSupported(base)) {
+            int shortSide = Math.min(base.getWidth(), base.getHeight());
+            while ((shortSide >> (level + 1)) >= MIN_LEVEL_SIZE) {
+                level++;
+            }
+        }
+        this.maxLevel = level;
+    }
+
+    /**
+     * 縮小画像を作成できる形式かどうか（バッキング配列を直接参照できる標準的なRasterのみ）
+     */
+    static boolean isSupported(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        if (raster.getParent() != null || raster.getDataBuffer().getOffset() != 0) {
+            return false;
+        }
+        switch (image.getType()) {
+            case BufferedImage.TYPE_USHORT_GRAY:
+            case BufferedImage.TYPE_BYTE_GRAY:
+                return raster.getSampleModel() instanceof ComponentSampleModel
+                    && ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == image.getWidth();
+            case BufferedImage.TYPE_INT_RGB:
+                return raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                    && ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == image.getWidth();
+            default:
+                return false;
+        }
+    }
+
+    public BufferedImage getBase() {
+        return base;
+    }
+
+    public int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * 表示倍率に対応するレベル（縮小率が表示倍率以上となる最小の画像、拡大表示時は0）
+     * @param scale 元画像の1画素あたりの表示画素数
+     */
+    public int levelFor(double scale) {
+        if (!(scale > 0) || scale >= 1.0) {
+            return 0;
+        }
+        int level = (int) Math.floor(Math.log(1.0 / scale) / Math.log(2.0));
+        return Math.max(0, Math.min(maxLevel, level));
+    }
+
+    /**
+     * 指定したレベルの画像を取得（未作成の場合は上のレベルから順に作成する）
+     */
+    public synchronized BufferedImage getLevel(int level) {
+        int target = Math.max(0, Math.min(maxLevel, level));
+        while (levels.size() <= target) {
+            levels.add(downsample(levels.get(levels.size() - 1)));
+        }
+        return levels.get(target);
+    }
+
+    /**
+     * 2x2画素の平均で縦横1/2に縮小（奇数の場合の端の画素は存在する画素のみで平均する）
+     */
+    private BufferedImage downsample(BufferedImage source) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        int width = (sourceWidth + 1) / 2;
+        int height = (sourceHeight + 1) / 2;
+        BufferedImage image = new BufferedImage(width, height, source.getType());
+
+        switch (source.getType()) {
+            case BufferedImage.TYPE_USHORT_GRAY: {
+                short[] src = ((DataBufferUShort) source.getRaster().getDataBuffer()).getData();
+                short[] dst = ((DataBufferUShort) image.getRaster().getDataBuffer()).getData();
+                renderer.render(width, height, (fromRow, toRow) -> {
+                    for (int y = fromRow; y < toRow; y++) {
+                        int row0 = 2 * y * sourceWidth;
+                        int row1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+                        for (int x = 0; x < width; x++) {
+                            int x0 = 2 * x;
+                            int x1 = Math.min(x0 + 1, sourceWidth - 1);
+                            int sum = (src[row0 + x0] & 0xFFFF) + (src[row0 + x1] & 0xFFFF)
+                                + (src[row1 + x0] & 0xFFFF) + (src[row1 + x1] & 0xFFFF);
+                            dst[y * width + x] = (short) ((sum + 2) >> 2);
+                        }
+                    }
+                });
+                break;
+            }
+            case BufferedImage.TYPE_BYTE_GRAY: {
+                byte[] src = ((DataBufferByte) source.getRaster().getDataBuffer()).getData();
+                byte[] dst = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                renderer.render(width, height, (fromRow, toRow) -> {
+                    for (int y = fromRow; y < toRow; y++) {
+                        int row0 = 2 * y * sourceWidth;
+                        int row1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+                        for (int x = 0; x < width; x++) {
+                            int x0 = 2 * x;
+                            int x1 = Math.min(x0 + 1, sourceWidth - 1);
+                            int sum = (src[row0 + x0] & 0xFF) + (src[row0 + x1] & 0xFF)
+                                + (src[row1 + x0] & 0xFF) + (src[row1 + x1] & 0xFF);
+                            dst[y * width + x] = (byte) ((sum + 2) >> 2);
+                        }
+                    }
+                });
+                break;
+            }
+            default: {
+                // TYPE_INT_RGB: チャンネルごとに平均
+                int[] src = ((DataBufferInt) source.getRaster().getDataBuffer()).getData();
+                int[] dst = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                renderer.render(width, height, (fromRow, toRow) -> {
+                    for (int y = fromRow; y < toRow; y++) {
+                        int row0 = 2 * y * sourceWidth;
+                        int row1 = Math.min(2 * y + 1, sourceHeight - 1) * sourceWidth;
+                        for (int x = 0; x < width; x++) {
+                            int x0 = 2 * x;
+                            int x1 = Math.min(x0 + 1, sourceWidth - 1);
+                            dst[y * width + x] = averageRgb(src[row0 + x0], src[row0 + x1], src[row1 + x0], src[row1 + x1]);
+                        }
+                    }
+                });
+                break;
+            }
+        }
+        return image;
+    }
+
+    private static int averageRgb(int a, int b, int c, int d) {
+        int r = (((a >> 16) & 0xFF) + ((b >> 16) & 0xFF) + ((c >> 16) & 0xFF) + ((d >> 16) & 0xFF) + 2) >> 2;
+        int g = (((a >> 8) & 0xFF) + ((b >> 8) & 0xFF) + ((c >> 8) & 0xFF) + ((d >> 8) & 0xFF) + 2) >> 2;
+        int bl = ((a & 0xFF) + (b & 0xFF) + (c & 0xFF) + (d & 0xFF) + 2) >> 2;
+        return (r << 16) | (g << 8) | bl;
+    }
+}
@@ -0,0 +1,122 @@
+package com.jjdicomviewer.image;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 画像を行単位の帯（バンド）に分割し、ForkJoinPoolで並列に処理する
+ *
+ * 各バンドは出力配列の別々の範囲にのみ書き込むため、結果は逐次処理と同一になる。
+ * 作業用配列（カラーモデル変換用など、{@link #scratch(int)}）はスレッドごとに保持して使い回し、描画のたびには確保しない。
+ * スレッド数が1の場合、または画素数が少ない場合は呼び出し元のスレッドで逐次処理する。
+ */
+public class RowBandRenderer {
+
+    // これより画素数が少ない画像・バンドは分割しない（タスクの生成・同期のコストの方が大きいため）
+    private static final int MIN_BAND_PIXELS = 1 << 16;
+
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final ThreadLocal<int[]> scratch = new ThreadLocal<>();
+
+    /**
+     * バンドの処理
+     */
+    public interface BandTask {
+        /**
+         * 行 fromRow 〜 toRow - 1 を処理
+         */
+        void render(int fromRow, int toRow);
+    }
+
+    /**
+     * @param threads 並列数（1の場合は常に逐次処理）
+     */
+    public RowBandRenderer(int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = this.threads > 1 ? new ForkJoinPool(this.threads, RowBandRenderer::newWorker, null, false) : null;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("wl-render-" + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * width x height の画像を行バンドに分割して処理（すべてのバンドの完了まで待機する）
+     */
+    public void render(int width, int height, BandTask task) {
+        long pixels = (long) width * height;
+        if (pool == null || pixels < 2L * MIN_BAND_PIXELS) {
+            task.render(0, height);
+            return;
+        }
+        // 並列数の4倍程度に分割し、コア間の負荷の偏りを吸収する
+        long bandPixels = Math.max(MIN_BAND_PIXELS, pixels / (threads * 4L));
+        int bandRows = (int) Math.max(1, bandPixels / width);
+        pool.invoke(new BandAction(0, height, bandRows, task));
+    }
+
+    /**
+     * 現在のスレッド専用の作業用配列を取得（必要な場合のみ確保・拡張し、以降は使い回す）
+     * BandTaskの処理中に呼び出すこと。内容は不定。
+     * @param length 必要な要素数
+     */
+    public int[] scratch(int length) {
+        int[] buffer = scratch.get();
+        if (buffer == null || buffer.length < length) {
+            buffer = new int[length];
+            scratch.set(buffer);
+        }
+        return buffer;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * ワーカースレッドを停止
+     */
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * 行範囲を二分割しながらバンドの大きさまで分割するタスク
+     */
+    private static final class BandAction extends RecursiveAction {
+        private final int fromRow;
+        private final int toRow;
+        private final int bandRows;
+        private final BandTask task;
+
+        BandAction(int fromRow, int toRow, int bandRows, BandTask task) {
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+            this.task = task;
+        }
+
+        @Override
+        protected void compute() {
+            int rows = toRow - fromRow;
+            if (rows <= bandRows) {
+                task.render(fromRow, toRow);
+                return;
+            }
+            int middle = fromRow + rows / 2;
+            invokeAll(new BandAction(fromRow, middle, bandRows, task),
+                new BandAction(middle, toRow, bandRows, task));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.jjdicomviewer.image;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * シリーズ全体のピクセルデータを保持するボリューム
+ *
+ * 全スライスの格納値を1つの連続した16bitバッファ（ByteBuffer.allocateDirect、Javaヒープ外）に保持する。
+ * 格納値はデコード済み画像（TYPE_USHORT_GRAY）と同じ形式で、signedの場合は+32768オフセット済み。
+ * 8bitの画像は16bitに拡張して格納する。
+ *
+ * スライスはバックグラウンドで順次読み込まれるため、参照前に {@link #isSliceLoaded(int)} を確認すること。
+ * 不要になったら {@link #release()} を呼び出すこと（以降のアクセスはIllegalStateException）。
+ * ダイレクトバッファのメモリは参照がなくなった後にGC（Cleaner）で解放される。
+ */
+public class SeriesVolume {
+
+    private final String seriesInstanceUID;
+    private final int width;
+    private final int height;
+    private final int depth;
+    private final boolean signed;
+    private final ImageGeometry geometry;
+    private final String[] sopInstanceUIDs;
+    private final double[] rescaleSlopes;
+    private final double[] rescaleIntercepts;
+
+    private volatile ByteBuffer buffer;
+    // スライスごとの読み込み完了フラグ（書き込み完了後に設定し、読み込み側への可視性を保証する）
+    private final AtomicIntegerArray loadedSlices;
+    private final AtomicInteger loadedSliceCount = new AtomicInteger();
+    private final List<SliceLoadListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param sopInstanceUIDs スライス順のSOPInstanceUID
+     * @param rescaleSlopes スライスごとのRescale Slope
+     * @param rescaleIntercepts スライスごとのRescale Intercept
+     */
+    public SeriesVolume(String seriesInstanceUID, int width, int height, boolean signed, ImageGeometry geometry,
+                        String[] sopInstanceUIDs, double[] rescaleSlopes, double[] rescaleIntercepts) {
+        long bytes = requiredBytes(width, height, sopInstanceUIDs.length);
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ボリュームが大きすぎます: " + bytes + " バイト");
+        }
+        this.seriesInstanceUID = seriesInstanceUID;
+        this.width = width;
+        this.height = height;
+        this.depth = sopInstanceUIDs.length;
+        this.signed = signed;
+        this.geometry = geometry;
+        this.sopInstanceUIDs = sopInstanceUIDs.clone();
+        this.rescaleSlopes = rescaleSlopes.clone();
+        this.rescaleIntercepts = rescaleIntercepts.clone();
+        this.buffer = ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+        this.loadedSlices = new AtomicIntegerArray(depth);
+    }
+
+    /**
+     * ボリュームに必要なバッファのサイズ（バイト）
+     */
+    public static long requiredBytes(int width, int height, int depth) {
+        return (long) width * height * depth * Short.BYTES;
+    }
+
+    /**
+     * スライスの読み込み完了の通知先
+     */
+    public interface SliceLoadListener {
+        /**
+         * スライスの読み込みが完了したときに読み込み用スレッドから呼び出される
+         */
+        void onSliceLoaded(SeriesVolume volume, int z);
+    }
+
+    public void addSliceLoadListener(SliceLoadListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeSliceLoadListener(SliceLoadListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * スライスの格納値を書き込み、読み込み完了とする
+     * @param values width * height 個の格納値
+     */
+    public void writeSlice(int z, short[] values) {
+        if (values.length < width * height) {
+            throw new IllegalArgumentException("スライスのサイズが不正です: " + values.length);
+        }
+        sliceBuffer(z).put(values, 0, width * height);
+        if (loadedSlices.getAndSet(z, 1) == 0) {
+            loadedSliceCount.incrementAndGet();
+        }
+        for (SliceLoadListener listener : listeners) {
+            listener.onSliceLoaded(this, z);
+        }
+    }
+
+    /**
+     * スライスの格納値をコピー
+     * @param dst width * height 個以上の配列
+     */
+    public void readSlice(int z, short[] dst) {
+        sliceBuffer(z).get(dst, 0, width * height);
+    }
+
+    /**
+     * スライスの読み取り専用ビュー（コピーなし）
+     */
+    public ShortBuffer getSlice(int z) {
+        return sliceBuffer(z).asReadOnlyBuffer();
+    }
+
+    private ShortBuffer sliceBuffer(int z) {
+        if (z < 0 || z >= depth) {
+            throw new IndexOutOfBoundsException("スライス番号が範囲外です: " + z);
+        }
+        int sliceBytes = width * height * Short.BYTES;
+        ByteBuffer view = checkBuffer().duplicate().order(ByteOrder.nativeOrder());
+        view.position(z * sliceBytes).limit((z + 1) * sliceBytes);
+        return view.slice().order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+
+    /**
+     * ボクセルの格納値（0〜65535）
+     */
+    public int getStoredValue(int x, int y, int z) {
+        int index = (z * height + y) * width + x;
+        return checkBuffer().getShort(index * Short.BYTES) & 0xFFFF;
+    }
+
+    /**
+     * ボクセルのモダリティ値（Rescale Slope/Intercept適用後の値、CTの場合はHU）
+     */
+    public double getValue(int x, int y, int z) {
+        int stored = getStoredValue(x, y, z);
+        int raw = signed ? stored - 32768 : stored;
+        return raw * rescaleSlopes[z] + rescaleIntercepts[z];
+    }
+
+    private ByteBuffer checkBuffer() {
+        ByteBuffer current = buffer;
+        if (current == null) {
+            throw new IllegalStateException("ボリュームは解放済みです: " + seriesInstanceUID);
+        }
+        return current;
+    }
+
+    /**
+     * バッファへの参照を破棄（読み込み中の場合は読み込みも中断される）
+     */
+    public void release() {
+        buffer = null;
+        listeners.clear();
+    }
+
+    public boolean isReleased() {
+        return buffer == null;
+    }
+
+    public boolean isSliceLoaded(int z) {
+        return z >= 0 && z < depth && loadedSlices.get(z) != 0;
+    }
+
+    public int getLoadedSliceCount() {
+        return loadedSliceCount.get();
+    }
+
+    public boolean isFullyLoaded() {
+        return loadedSliceCount.get() == depth;
+    }
+
+    public String getSeriesInstanceUID() {
+        return seriesInstanceUID;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public ImageGeometry getGeometry() {
+        return geometry;
+    }
+
+    public String getSopInstanceUID(int z) {
+        return sopInstanceUIDs[z];
+    }
+
+    /**
+     * SOPInstanceUIDのスライス番号
+     * @return スライス番号、含まれない場合は-1
+     */
+    public int indexOf(String sopInstanceUID) {
+        for (int z = 0; z < depth; z++) {
+            if (sopInstanceUID != null && sopInstanceUID.equals(sopInstanceUIDs[z])) {
+                return z;
+            }
+        }
+        return -1;
+    }
+
+    public double getRescaleSlope(int z) {
+        return rescaleSlopes[z];
+    }
+
+    public double getRescaleIntercept(int z) {
+        return rescaleIntercepts[z];
+    }
+
+    public long getSizeBytes() {
+        return requiredBytes(width, height, depth);
+    }
+}
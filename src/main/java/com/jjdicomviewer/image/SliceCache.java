@@ -0,0 +1,130 @@
+package com.jjdicomviewer.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * デコード済みスライス（RAWピクセルデータのBufferedImage）のLRUキャッシュ
+ * SOPInstanceUIDをキーとし、ピクセルデータの合計サイズが上限を超えたら最も長く使用されていないスライスから破棄する。
+ *
+ * スライス読み込み用スレッドと先読みスレッドから使用されるため、すべての操作は同期化されている。
+ * キャッシュした画像は複数のスライス表示で共有されるため、呼び出し側で変更しないこと。
+ */
+public class SliceCache {
+
+    private final long capacityBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long sizeBytes = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param capacityBytes キャッシュの上限（バイト、0の場合はキャッシュしない）
+     */
+    public SliceCache(long capacityBytes) {
+        this.capacityBytes = Math.max(0, capacityBytes);
+    }
+
+    /**
+     * キャッシュからスライスを取得（ヒット/ミスを記録する）
+     * @return キャッシュされた画像、ない場合はnull
+     */
+    public synchronized BufferedImage get(String sopInstanceUID) {
+        Entry entry = entries.get(sopInstanceUID);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.image;
+    }
+
+    /**
+     * キャッシュからスライスを取得（ヒット/ミスは記録せず、LRUの順序も変更しない）
+     * ボリュームの構築等、表示以外の用途で使用する
+     * @return キャッシュされた画像、ない場合はnull
+     */
+    public synchronized BufferedImage peek(String sopInstanceUID) {
+        Entry entry = entries.get(sopInstanceUID);
+        return entry != null ? entry.image : null;
+    }
+
+    /**
+     * キャッシュにスライスがあるかどうか（ヒット/ミスは記録せず、LRUの順序も変更しない）
+     */
+    public synchronized boolean contains(String sopInstanceUID) {
+        return entries.containsKey(sopInstanceUID);
+    }
+
+    /**
+     * スライスをキャッシュに追加し、上限を超えた分を古いスライスから破棄
+     */
+    public synchronized void put(String sopInstanceUID, BufferedImage image) {
+        if (sopInstanceUID == null || image == null) {
+            return;
+        }
+        long imageBytes = estimateBytes(image);
+        if (imageBytes > capacityBytes) {
+            return;
+        }
+        Entry previous = entries.put(sopInstanceUID, new Entry(image, imageBytes));
+        if (previous != null) {
+            sizeBytes -= previous.bytes;
+        }
+        sizeBytes += imageBytes;
+
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (sizeBytes > capacityBytes && it.hasNext()) {
+            Map.Entry<String, Entry> eldest = it.next();
+            if (eldest.getKey().equals(sopInstanceUID)) {
+                continue;
+            }
+            sizeBytes -= eldest.getValue().bytes;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * すべてのスライスを破棄（統計はリセットしない）
+     */
+    public synchronized void clear() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * キャッシュの状況のスナップショットを取得
+     */
+    public synchronized SliceCacheStats getStats() {
+        return new SliceCacheStats(hits, misses, evictions, entries.size(), sizeBytes, capacityBytes);
+    }
+
+    /**
+     * 画像のピクセルデータのサイズ（バイト）を概算
+     */
+    static long estimateBytes(BufferedImage image) {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long elementBytes = DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return (long) buffer.getSize() * buffer.getNumBanks() * elementBytes;
+    }
+
+    private static final class Entry {
+        final BufferedImage image;
+        final long bytes;
+
+        Entry(BufferedImage image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.jjdicomviewer.image;
+
+/**
+ * スライスキャッシュのヒット/ミス/破棄回数と使用量のスナップショット
+ */
+public final class SliceCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int entryCount;
+    private final long sizeBytes;
+    private final long capacityBytes;
+
+    SliceCacheStats(long hits, long misses, long evictions, int entryCount, long sizeBytes, long capacityBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entryCount = entryCount;
+        this.sizeBytes = sizeBytes;
+        this.capacityBytes = capacityBytes;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public long getCapacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * ヒット率（0.0〜1.0）
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests > 0 ? (double) hits / requests : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hit: %d, miss: %d (ヒット率 %.1f%%), 破棄: %d, %d枚 %.1f/%.1fMB",
+            hits, misses, getHitRatio() * 100, evictions, entryCount,
+            sizeBytes / (1024.0 * 1024.0), capacityBytes / (1024.0 * 1024.0));
+    }
+}
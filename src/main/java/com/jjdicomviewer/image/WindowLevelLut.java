@@ -0,0 +1,168 @@
+package com.jjdicomviewer.image;
+
+/**
+ * ウィンドウ/レベル（VOI）ルックアップテーブル
+ * 格納ピクセル値をキーに、表示用のグレー値（0xRRGGBB形式）を事前計算する
+ *
+ * テーブルはウィンドウセンター/幅、Rescale Slope/Intercept、MONOCHROME1反転のいずれかが
+ * 変更された場合のみ再構築される。W/L変更時のコストは「テーブル再構築1回 + 配列の線形走査1回」となる。
+ */
+public class WindowLevelLut {
+
+    private final int size;
+    private final double indexScale;
+    private final double indexOffset;
+    private final int[] table;
+
+    // テーブル構築時のパラメータ（変更検知用）
+    private boolean built = false;
+    private double builtCenter;
+    private double builtWidth;
+    private double builtSlope;
+    private double builtIntercept;
+    private boolean builtInverted;
+
+    /**
+     * @param size テーブルのエントリ数（格納値の範囲: 0 〜 size-1）
+     * @param indexScale 格納値から生ピクセル値への倍率
+     * @param indexOffset 格納値から生ピクセル値へのオフセット（生値 = 格納値 * indexScale + indexOffset）
+     */
+    public WindowLevelLut(int size, double indexScale, double indexOffset) {
+        this.size = size;
+        this.indexScale = indexScale;
+        this.indexOffset = indexOffset;
+        this.table = new int[size];
+    }
+
+    /**
+     * 16bitグレースケール用（TYPE_USHORT_GRAY、signedの場合は+32768オフセット済みの格納値）
+     */
+    public static WindowLevelLut forUnsignedShort(boolean signed) {
+        return new WindowLevelLut(65536, 1.0, signed ? -32768.0 : 0.0);
+    }
+
+    /**
+     * 8bit値用（8bitグレースケール、またはカラー画像の各チャンネル）
+     */
+    public static WindowLevelLut forByte() {
+        return new WindowLevelLut(256, 1.0, 0.0);
+    }
+
+    /**
+     * RGB合計値（R+G+B: 0〜765）用
+     * 生ピクセル値を (R+G+B)/3 として扱う
+     */
+    public static WindowLevelLut forRgbSum() {
+        return new WindowLevelLut(766, 1.0 / 3.0, 0.0);
+    }
+
+    /**
+     * パラメータが変更されている場合のみテーブルを再構築
+     * @return テーブルを再構築した場合はtrue
+     */
+    public boolean update(double windowCenter, double windowWidth,
+                          double rescaleSlope, double rescaleIntercept, boolean inverted) {
+        if (built
+                && builtCenter == windowCenter
+                && builtWidth == windowWidth
+                && builtSlope == rescaleSlope
+                && builtIntercept == rescaleIntercept
+                && builtInverted == inverted) {
+            return false;
+        }
+
+        double ww = Math.max(0.1, windowWidth);
+        double windowMin = windowCenter - ww / 2.0;
+        double windowMax = windowCenter + ww / 2.0;
+
+        for (int i = 0; i < size; i++) {
+            double rawPixelValue = i * indexScale + indexOffset;
+            double rescaledValue = rawPixelValue * rescaleSlope + rescaleIntercept;
+            double normalizedValue = (rescaledValue < windowMin) ? 0.0
+                    : (rescaledValue > windowMax) ? 1.0
+                    : (rescaledValue - windowMin) / ww;
+            int grayValue = (int) Math.round(Math.max(0, Math.min(255, normalizedValue * 255)));
+            if (inverted) {
+                grayValue = 255 - grayValue;
+            }
+            table[i] = (grayValue << 16) | (grayValue << 8) | grayValue;
+        }
+
+        builtCenter = windowCenter;
+        builtWidth = windowWidth;
+        builtSlope = rescaleSlope;
+        builtIntercept = rescaleIntercept;
+        builtInverted = inverted;
+        built = true;
+        return true;
+    }
+
+    /**
+     * 16bit格納値の配列にテーブルを適用
+     * @param src 格納値（TYPE_USHORT_GRAYのデータ配列）
+     * @param dst 出力先（TYPE_INT_RGBのデータ配列）
+     * @param from 開始インデックス（含む）
+     * @param to 終了インデックス（含まない）
+     */
+    public void applyUnsignedShort(short[] src, int[] dst, int from, int to) {
+        final int[] lut = table;
+        for (int i = from; i < to; i++) {
+            dst[i] = lut[src[i] & 0xFFFF];
+        }
+    }
+
+    /**
+     * 8bit格納値の配列にテーブルを適用
+     */
+    public void applyByte(byte[] src, int[] dst, int from, int to) {
+        final int[] lut = table;
+        for (int i = from; i < to; i++) {
+            dst[i] = lut[src[i] & 0xFF];
+        }
+    }
+
+    /**
+     * RGB画素（0xRRGGBB）の配列に合計値テーブルを適用（グレースケール扱い）
+     */
+    public void applyRgbSum(int[] src, int[] dst, int from, int to) {
+        applyRgbSum(src, from, dst, from, to);
+    }
+
+    /**
+     * RGB画素の配列に合計値テーブルを適用（入力の開始位置が出力と異なる場合）
+     * @param srcFrom dst[from]に対応する入力の位置
+     */
+    public void applyRgbSum(int[] src, int srcFrom, int[] dst, int from, int to) {
+        final int[] lut = table;
+        for (int i = from, j = srcFrom; i < to; i++, j++) {
+            int rgb = src[j];
+            dst[i] = lut[((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)];
+        }
+    }
+
+    /**
+     * RGB画素（0xRRGGBB）の配列に各チャンネル独立でテーブルを適用（カラー画像）
+     */
+    public void applyRgbChannels(int[] src, int[] dst, int from, int to) {
+        applyRgbChannels(src, from, dst, from, to);
+    }
+
+    /**
+     * RGB画素の配列に各チャンネル独立でテーブルを適用（入力の開始位置が出力と異なる場合）
+     * @param srcFrom dst[from]に対応する入力の位置
+     */
+    public void applyRgbChannels(int[] src, int srcFrom, int[] dst, int from, int to) {
+        final int[] lut = table;
+        for (int i = from, j = srcFrom; i < to; i++, j++) {
+            int rgb = src[j];
+            int r = lut[(rgb >> 16) & 0xFF] & 0xFF;
+            int g = lut[(rgb >> 8) & 0xFF] & 0xFF;
+            int b = lut[rgb & 0xFF] & 0xFF;
+            dst[i] = (r << 16) | (g << 8) | b;
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
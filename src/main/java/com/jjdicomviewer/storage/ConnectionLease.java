@@ -0,0 +1,63 @@
+package com.jjdicomviewer.storage;
+
+import java.sql.Connection;
+
+/**
+ * DatabaseManagerから貸し出されたデータベース接続
+ * try-with-resourcesで使用し、closeで接続をプールへ返却する（接続自体は閉じない）
+ *
+ * 同じスレッドが接続を保持したまま再度取得した場合は同じ接続を共有し、
+ * 最も外側のcloseで返却される。
+ */
+public final class ConnectionLease implements AutoCloseable {
+
+    private final DatabaseManager owner;
+    private final Connection connection;
+    private final boolean writer;
+    // このスレッドが直前に保持していた接続（返却時に復元する）
+    private final ConnectionLease previous;
+    // 同一スレッド内での入れ子の取得数
+    private int depth;
+
+    ConnectionLease(DatabaseManager owner, Connection connection, boolean writer, ConnectionLease previous) {
+        this.owner = owner;
+        this.connection = connection;
+        this.writer = writer;
+        this.previous = previous;
+    }
+
+    /**
+     * 貸し出された接続を取得
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * 書き込み用接続かどうか
+     */
+    public boolean isWriter() {
+        return writer;
+    }
+
+    ConnectionLease previous() {
+        return previous;
+    }
+
+    /**
+     * 同一スレッド内での入れ子の取得
+     */
+    ConnectionLease nest() {
+        depth++;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (depth > 0) {
+            depth--;
+            return;
+        }
+        owner.release(this);
+    }
+}
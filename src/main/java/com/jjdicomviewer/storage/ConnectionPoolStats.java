@@ -0,0 +1,69 @@
+package com.jjdicomviewer.storage;
+
+/**
+ * 接続プールの競合状況（取得回数と待ち時間）のスナップショット
+ */
+public final class ConnectionPoolStats {
+
+    private final long writerCheckouts;
+    private final long writerWaitNanos;
+    private final long writerMaxWaitNanos;
+    private final long readerCheckouts;
+    private final long readerWaitNanos;
+    private final long readerMaxWaitNanos;
+
+    ConnectionPoolStats(long writerCheckouts, long writerWaitNanos, long writerMaxWaitNanos,
+                        long readerCheckouts, long readerWaitNanos, long readerMaxWaitNanos) {
+        this.writerCheckouts = writerCheckouts;
+        this.writerWaitNanos = writerWaitNanos;
+        this.writerMaxWaitNanos = writerMaxWaitNanos;
+        this.readerCheckouts = readerCheckouts;
+        this.readerWaitNanos = readerWaitNanos;
+        this.readerMaxWaitNanos = readerMaxWaitNanos;
+    }
+
+    public long getWriterCheckouts() {
+        return writerCheckouts;
+    }
+
+    public long getWriterWaitNanos() {
+        return writerWaitNanos;
+    }
+
+    public long getWriterMaxWaitNanos() {
+        return writerMaxWaitNanos;
+    }
+
+    public long getReaderCheckouts() {
+        return readerCheckouts;
+    }
+
+    public long getReaderWaitNanos() {
+        return readerWaitNanos;
+    }
+
+    public long getReaderMaxWaitNanos() {
+        return readerMaxWaitNanos;
+    }
+
+    /**
+     * 書き込み用接続の平均待ち時間（ミリ秒）
+     */
+    public double getAverageWriterWaitMillis() {
+        return writerCheckouts > 0 ? writerWaitNanos / 1_000_000.0 / writerCheckouts : 0.0;
+    }
+
+    /**
+     * 読み込み用接続の平均待ち時間（ミリ秒）
+     */
+    public double getAverageReaderWaitMillis() {
+        return readerCheckouts > 0 ? readerWaitNanos / 1_000_000.0 / readerCheckouts : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("writer: %d回 (平均待ち %.3fms, 最大 %.3fms), reader: %d回 (平均待ち %.3fms, 最大 %.3fms)",
+            writerCheckouts, getAverageWriterWaitMillis(), writerMaxWaitNanos / 1_000_000.0,
+            readerCheckouts, getAverageReaderWaitMillis(), readerMaxWaitNanos / 1_000_000.0);
+    }
+}
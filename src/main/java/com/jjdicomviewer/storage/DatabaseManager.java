@@ -6,12 +6,26 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * SQLiteデータベース管理クラス
+ *
+ * 書き込み用の接続1つと、読み込み専用の接続N個（AppConfigのreadConnections）を保持する。
+ * 接続は {@link #acquireWriter()} / {@link #acquireReader()} で取得し、closeで返却する。
+ * - 書き込み用接続はロックで排他し、同時に1スレッドのみが使用する
+ * - 読み込み専用接続はプールから貸し出す（WALモードでは書き込み中もブロックされない）
+ * - 同じスレッドが接続を保持したまま再度取得した場合は同じ接続を共有する
+ *   （書き込み中のスレッドが読み込む場合は、未コミットの変更が見える書き込み用接続を使用）
  */
 public class DatabaseManager {
     
@@ -20,6 +34,22 @@ public class DatabaseManager {
     private Connection connection;
     private final Path dbPath;
     
+    // 書き込み用接続の排他ロック
+    private final ReentrantLock writerLock = new ReentrantLock(true);
+    // 読み込み専用接続
+    private final List<Connection> readerConnections = new ArrayList<>();
+    private BlockingQueue<Connection> idleReaders;
+    // スレッドごとに保持中の接続
+    private final ThreadLocal<ConnectionLease> currentLease = new ThreadLocal<>();
+    
+    // 競合状況の計測値
+    private final AtomicLong writerCheckouts = new AtomicLong();
+    private final AtomicLong writerWaitNanos = new AtomicLong();
+    private final AtomicLong writerMaxWaitNanos = new AtomicLong();
+    private final AtomicLong readerCheckouts = new AtomicLong();
+    private final AtomicLong readerWaitNanos = new AtomicLong();
+    private final AtomicLong readerMaxWaitNanos = new AtomicLong();
+    
     public DatabaseManager() {
         // AppConfigからデータベースパスを取得
         AppConfig appConfig = AppConfig.getInstance();
@@ -42,11 +72,12 @@ public class DatabaseManager {
                 java.nio.file.Files.createDirectories(dbPath.getParent());
             }
             
-            String url = "jdbc:sqlite:" + dbPath.toString();
-            connection = DriverManager.getConnection(url);
+            connection = openConnection();
             
             createTables();
-            logger.info("データベースを初期化しました: {}", dbPath);
+            StudySearchIndex.rebuildIfNeeded(connection);
+            openReaderConnections();
+            logger.info("データベースを初期化しました: {} (読み込み専用接続: {})", dbPath, readerConnections.size());
         } catch (SQLException e) {
             logger.error("データベースの初期化に失敗しました", e);
             throw new RuntimeException("データベースの初期化に失敗しました", e);
@@ -56,6 +87,151 @@ public class DatabaseManager {
         }
     }
     
+    /**
+     * 接続を開き、パフォーマンス設定（PRAGMA）を適用
+     */
+    private Connection openConnection() throws SQLException {
+        String url = "jdbc:sqlite:" + dbPath.toString();
+        Connection conn = DriverManager.getConnection(url);
+        try {
+            applySettings(conn, AppConfig.getInstance().getDatabaseSettings());
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return conn;
+    }
+    
+    /**
+     * PRAGMAを適用
+     * ジャーナルモード等の文字列値は英字のみ許可（設定ファイルの値をそのままSQLに埋め込むため）
+     */
+    private void applySettings(Connection conn, AppConfig.DatabaseSettings settings) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + Math.max(0, settings.getBusyTimeoutMs()));
+            stmt.execute("PRAGMA foreign_keys = " + (settings.isForeignKeys() ? "ON" : "OFF"));
+            if (isKeyword(settings.getJournalMode())) {
+                stmt.execute("PRAGMA journal_mode = " + settings.getJournalMode());
+            }
+            if (isKeyword(settings.getSynchronous())) {
+                stmt.execute("PRAGMA synchronous = " + settings.getSynchronous());
+            }
+            if (isKeyword(settings.getTempStore())) {
+                stmt.execute("PRAGMA temp_store = " + settings.getTempStore());
+            }
+            if (settings.getCacheSizeKb() > 0) {
+                // 負の値はKB単位の指定
+                stmt.execute("PRAGMA cache_size = -" + settings.getCacheSizeKb());
+            }
+            stmt.execute("PRAGMA mmap_size = " + Math.max(0L, settings.getMmapSizeMb()) * 1024L * 1024L);
+        }
+        logger.debug("データベース設定を適用しました: journal_mode={}, synchronous={}, cache_size={}KB, mmap_size={}MB, temp_store={}, foreign_keys={}",
+            settings.getJournalMode(), settings.getSynchronous(), settings.getCacheSizeKb(),
+            settings.getMmapSizeMb(), settings.getTempStore(), settings.isForeignKeys());
+    }
+    
+    private static boolean isKeyword(String value) {
+        return value != null && value.matches("[A-Za-z]+");
+    }
+    
+    /**
+     * 読み込み専用接続を作成（テーブル作成後に呼び出す）
+     */
+    private void openReaderConnections() throws SQLException {
+        int count = Math.max(1, AppConfig.getInstance().getDatabaseSettings().getReadConnections());
+        idleReaders = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            Connection reader = openConnection();
+            try (Statement stmt = reader.createStatement()) {
+                // 誤って書き込みが行われないよう、読み込み専用に設定
+                stmt.execute("PRAGMA query_only = ON");
+            }
+            readerConnections.add(reader);
+            idleReaders.add(reader);
+        }
+    }
+    
+    /**
+     * 書き込み用接続を取得（他のスレッドが使用中の場合は返却されるまで待機）
+     * 取得した接続はtry-with-resourcesで返却すること
+     */
+    public ConnectionLease acquireWriter() throws SQLException {
+        ConnectionLease held = currentLease.get();
+        if (held != null && held.isWriter()) {
+            return held.nest();
+        }
+        
+        long start = System.nanoTime();
+        writerLock.lock();
+        recordCheckout(writerCheckouts, writerWaitNanos, writerMaxWaitNanos, System.nanoTime() - start);
+        try {
+            ConnectionLease lease = new ConnectionLease(this, getConnection(), true, held);
+            currentLease.set(lease);
+            return lease;
+        } catch (RuntimeException e) {
+            writerLock.unlock();
+            throw e;
+        }
+    }
+    
+    /**
+     * 読み込み用接続を取得（すべて使用中の場合は返却されるまで待機）
+     * このスレッドが既に接続を保持している場合は、その接続を共有する
+     * 取得した接続はtry-with-resourcesで返却すること
+     */
+    public ConnectionLease acquireReader() throws SQLException {
+        ConnectionLease held = currentLease.get();
+        if (held != null) {
+            return held.nest();
+        }
+        
+        long start = System.nanoTime();
+        Connection reader;
+        try {
+            reader = idleReaders.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("読み込み用接続の取得が中断されました", e);
+        }
+        recordCheckout(readerCheckouts, readerWaitNanos, readerMaxWaitNanos, System.nanoTime() - start);
+        
+        ConnectionLease lease = new ConnectionLease(this, reader, false, null);
+        currentLease.set(lease);
+        return lease;
+    }
+    
+    /**
+     * 接続を返却（ConnectionLease#closeから呼び出される）
+     */
+    void release(ConnectionLease lease) {
+        if (lease.previous() != null) {
+            currentLease.set(lease.previous());
+        } else {
+            currentLease.remove();
+        }
+        
+        if (lease.isWriter()) {
+            writerLock.unlock();
+        } else {
+            idleReaders.offer(lease.getConnection());
+        }
+    }
+    
+    private static void recordCheckout(AtomicLong checkouts, AtomicLong totalWait, AtomicLong maxWait, long waitNanos) {
+        checkouts.incrementAndGet();
+        totalWait.addAndGet(waitNanos);
+        maxWait.accumulateAndGet(waitNanos, Math::max);
+    }
+    
+    /**
+     * 接続プールの競合状況（取得回数と待ち時間）を取得
+     */
+    public ConnectionPoolStats getPoolStats() {
+        return new ConnectionPoolStats(
+            writerCheckouts.get(), writerWaitNanos.get(), writerMaxWaitNanos.get(),
+            readerCheckouts.get(), readerWaitNanos.get(), readerMaxWaitNanos.get());
+    }
+    
     /**
      * テーブルを作成
      */
@@ -75,6 +251,7 @@ public class DatabaseManager {
                     study_description TEXT,
                     accession_number TEXT,
                     referring_physician_name TEXT,
+                    fts_rowid INTEGER,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
                 )
@@ -119,31 +296,88 @@ public class DatabaseManager {
                     window_width TEXT,
                     rescale_slope REAL,
                     rescale_intercept REAL,
+                    pixel_representation INTEGER,
+                    image_position_patient TEXT,
+                    image_orientation_patient TEXT,
+                    pixel_spacing TEXT,
+                    slice_thickness REAL,
+                    number_of_frames INTEGER,
+                    cine_rate INTEGER,
+                    frame_time REAL,
                     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                     FOREIGN KEY (series_instance_uid) REFERENCES series(series_instance_uid) ON DELETE CASCADE
                 )
             """);
+            // 既存のデータベースに後から追加した列を追加
+            addColumnIfMissing(stmt, "studies", "fts_rowid", "INTEGER");
+            addColumnIfMissing(stmt, "instances", "pixel_representation", "INTEGER");
+            addColumnIfMissing(stmt, "instances", "image_position_patient", "TEXT");
+            addColumnIfMissing(stmt, "instances", "image_orientation_patient", "TEXT");
+            addColumnIfMissing(stmt, "instances", "pixel_spacing", "TEXT");
+            addColumnIfMissing(stmt, "instances", "slice_thickness", "REAL");
+            addColumnIfMissing(stmt, "instances", "number_of_frames", "INTEGER");
+            addColumnIfMissing(stmt, "instances", "cine_rate", "INTEGER");
+            addColumnIfMissing(stmt, "instances", "frame_time", "REAL");
+            
+            // ストレージ内のファイルの索引（SOPInstanceUID -> ファイルパス、StorageIndexで使用）
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS storage_index (
+                    sop_instance_uid TEXT PRIMARY KEY,
+                    study_instance_uid TEXT,
+                    series_instance_uid TEXT,
+                    file_path TEXT NOT NULL,
+                    file_size INTEGER,
+                    indexed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
             
             // インデックスの作成
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_studies_patient_id ON studies(patient_id)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_studies_study_date ON studies(study_date)");
+            // スタディ一覧の並び順（StudyRepositoryのORDER BYと同じ式）
+            stmt.execute("""
+                CREATE INDEX IF NOT EXISTS idx_studies_list_order ON studies(
+                    COALESCE(DATE(created_at), ''), COALESCE(study_date, ''),
+                    COALESCE(study_time, ''), study_instance_uid)
+            """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_studies_accession_number ON studies(accession_number)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_series_study_uid ON series(study_instance_uid)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_series_modality ON series(modality, study_instance_uid)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_instances_series_uid ON instances(series_instance_uid)");
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_instances_file_path ON instances(file_path)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_storage_index_study_uid ON storage_index(study_instance_uid)");
+            
+            // 検索用インデックス
+            StudySearchIndex.createSchema(stmt);
             
             logger.info("データベーステーブルを作成しました");
         }
     }
     
     /**
-     * データベース接続を取得
+     * 列が存在しない場合は追加（旧バージョンで作成されたデータベースの移行用）
+     */
+    private void addColumnIfMissing(Statement stmt, String table, String column, String type) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type);
+        logger.info("列を追加しました: {}.{}", table, column);
+    }
+    
+    /**
+     * 書き込み用のデータベース接続を取得
+     * 排他制御は行わないため、通常は {@link #acquireWriter()} / {@link #acquireReader()} を使用すること
      */
     public Connection getConnection() {
         try {
             if (connection == null || connection.isClosed()) {
-                String url = "jdbc:sqlite:" + dbPath.toString();
-                connection = DriverManager.getConnection(url);
+                connection = openConnection();
             }
             return connection;
         } catch (SQLException e) {
@@ -156,6 +390,16 @@ public class DatabaseManager {
      * データベース接続を閉じる
      */
     public void close() {
+        logger.info("データベース接続プールの統計: {}", getPoolStats());
+        for (Connection reader : readerConnections) {
+            try {
+                reader.close();
+            } catch (SQLException e) {
+                logger.error("読み込み専用接続のクローズに失敗しました", e);
+            }
+        }
+        readerConnections.clear();
+        
         try {
             if (connection != null && !connection.isClosed()) {
                 connection.close();
@@ -0,0 +1,229 @@
+package com.jjdicomviewer.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ストレージ内のDICOMファイルの索引（SOPInstanceUID -> ファイルパス）
+ *
+ * インポート時のコピーと {@link com.jjdicomviewer.core.StorageReconciler} による
+ * ストレージの走査で更新され、ファイルが移動された場合に1回の検索で新しいパスを解決できる。
+ * instancesテーブルとは独立しており（外部キーなし）、ストレージ上に実在するファイルを表す。
+ */
+public class StorageIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageIndex.class);
+
+    // executeBatchをまとめて実行する行数
+    private static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_SQL = """
+        INSERT INTO storage_index (sop_instance_uid, study_instance_uid, series_instance_uid, file_path, file_size, indexed_at)
+        VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT(sop_instance_uid) DO UPDATE SET
+            study_instance_uid = excluded.study_instance_uid,
+            series_instance_uid = excluded.series_instance_uid,
+            file_path = excluded.file_path,
+            file_size = excluded.file_size,
+            indexed_at = CURRENT_TIMESTAMP
+        WHERE file_path IS NOT excluded.file_path OR file_size IS NOT excluded.file_size
+    """;
+
+    private final DatabaseManager dbManager;
+
+    public StorageIndex(DatabaseManager dbManager) {
+        this.dbManager = dbManager;
+    }
+
+    /**
+     * 索引に登録されたファイルパスを取得
+     * @return ファイルパス、未登録の場合はnull
+     */
+    public Path findPath(String sopInstanceUID) throws SQLException {
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "SELECT file_path FROM storage_index WHERE sop_instance_uid = ?")) {
+            stmt.setString(1, sopInstanceUID);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? Paths.get(rs.getString(1)) : null;
+            }
+        }
+    }
+
+    /**
+     * 複数のエントリをまとめて取得（ストレージの走査で変更のないファイルの書き込みを省くために使用）
+     * @return SOPInstanceUID -> エントリ（未登録のものは含まない）
+     */
+    public Map<String, Entry> findAll(Collection<String> sopInstanceUIDs) throws SQLException {
+        if (sopInstanceUIDs.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Entry> entries = new HashMap<>();
+        String placeholders = String.join(", ", Collections.nCopies(sopInstanceUIDs.size(), "?"));
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "SELECT * FROM storage_index WHERE sop_instance_uid IN (" + placeholders + ")")) {
+            int index = 1;
+            for (String sopInstanceUID : sopInstanceUIDs) {
+                stmt.setString(index++, sopInstanceUID);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Entry entry = mapEntry(rs);
+                    entries.put(entry.getSopInstanceUID(), entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * エントリを登録（既に存在する場合はパスとサイズを更新）
+     * 1トランザクションでバッチ実行する
+     */
+    public void putAll(Collection<Entry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            Connection conn = lease.getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT_SQL)) {
+                conn.setAutoCommit(false);
+                int pending = 0;
+                for (Entry entry : entries) {
+                    stmt.setString(1, entry.getSopInstanceUID());
+                    stmt.setString(2, entry.getStudyInstanceUID());
+                    stmt.setString(3, entry.getSeriesInstanceUID());
+                    stmt.setString(4, entry.getFilePath().toString());
+                    stmt.setLong(5, entry.getFileSize());
+                    stmt.addBatch();
+                    if (++pending >= BATCH_SIZE) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * エントリを削除
+     */
+    public void removeAll(Collection<String> sopInstanceUIDs) throws SQLException {
+        if (sopInstanceUIDs.isEmpty()) {
+            return;
+        }
+        try (ConnectionLease lease = dbManager.acquireWriter();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "DELETE FROM storage_index WHERE sop_instance_uid = ?")) {
+            for (String sopInstanceUID : sopInstanceUIDs) {
+                stmt.setString(1, sopInstanceUID);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Studyのエントリをすべて削除（ストレージからファイルを削除した場合に使用）
+     */
+    public void removeStudy(String studyInstanceUID) throws SQLException {
+        try (ConnectionLease lease = dbManager.acquireWriter();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "DELETE FROM storage_index WHERE study_instance_uid = ?")) {
+            stmt.setString(1, studyInstanceUID);
+            int deleted = stmt.executeUpdate();
+            logger.debug("ストレージ索引からStudyを削除しました: {} ({}件)", studyInstanceUID, deleted);
+        }
+    }
+
+    /**
+     * エントリをSOPInstanceUID順に取得（キーセットページング、索引の整合性確認用）
+     * @param afterSopInstanceUID 前のページの最後のSOPInstanceUID（先頭ページの場合はnull）
+     * @param limit 取得件数
+     */
+    public List<Entry> findPage(String afterSopInstanceUID, int limit) throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "SELECT * FROM storage_index WHERE sop_instance_uid > ? ORDER BY sop_instance_uid LIMIT ?")) {
+            stmt.setString(1, afterSopInstanceUID != null ? afterSopInstanceUID : "");
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapEntry(rs));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry mapEntry(ResultSet rs) throws SQLException {
+        return new Entry(rs.getString("sop_instance_uid"), rs.getString("study_instance_uid"),
+            rs.getString("series_instance_uid"), Paths.get(rs.getString("file_path")),
+            rs.getLong("file_size"));
+    }
+
+    /**
+     * 索引のエントリ
+     */
+    public static final class Entry {
+        private final String sopInstanceUID;
+        private final String studyInstanceUID;
+        private final String seriesInstanceUID;
+        private final Path filePath;
+        private final long fileSize;
+
+        public Entry(String sopInstanceUID, String studyInstanceUID, String seriesInstanceUID,
+                     Path filePath, long fileSize) {
+            this.sopInstanceUID = sopInstanceUID;
+            this.studyInstanceUID = studyInstanceUID;
+            this.seriesInstanceUID = seriesInstanceUID;
+            this.filePath = filePath;
+            this.fileSize = fileSize;
+        }
+
+        public String getSopInstanceUID() {
+            return sopInstanceUID;
+        }
+
+        public String getStudyInstanceUID() {
+            return studyInstanceUID;
+        }
+
+        public String getSeriesInstanceUID() {
+            return seriesInstanceUID;
+        }
+
+        public Path getFilePath() {
+            return filePath;
+        }
+
+        public long getFileSize() {
+            return fileSize;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.jjdicomviewer.storage;
+
+import com.jjdicomviewer.core.Study;
+
+import java.util.List;
+
+/**
+ * スタディ一覧の1ページ分の取得結果
+ */
+public final class StudyPage {
+
+    private final List<Study> studies;
+    private final StudyPageCursor nextCursor;
+
+    StudyPage(List<Study> studies, StudyPageCursor nextCursor) {
+        this.studies = studies;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Study> getStudies() {
+        return studies;
+    }
+
+    /**
+     * 次のページを取得するためのカーソル（最終ページの場合はnull）
+     */
+    public StudyPageCursor getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.jjdicomviewer.storage;
+
+/**
+ * スタディ一覧のキーセットページング用カーソル
+ * ページ末尾のStudyの並び替えキー（DB上の値そのもの）を保持し、次のページはこのキーより後ろから取得する
+ */
+public final class StudyPageCursor {
+
+    private final String createdDate;
+    private final String studyDate;
+    private final String studyTime;
+    private final String studyInstanceUID;
+
+    StudyPageCursor(String createdDate, String studyDate, String studyTime, String studyInstanceUID) {
+        this.createdDate = createdDate;
+        this.studyDate = studyDate;
+        this.studyTime = studyTime;
+        this.studyInstanceUID = studyInstanceUID;
+    }
+
+    String getCreatedDate() {
+        return createdDate;
+    }
+
+    String getStudyDate() {
+        return studyDate;
+    }
+
+    String getStudyTime() {
+        return studyTime;
+    }
+
+    String getStudyInstanceUID() {
+        return studyInstanceUID;
+    }
+}
@@ -11,7 +11,11 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Study/Series/Instanceのデータベース操作を行うリポジトリ
@@ -22,6 +26,81 @@ public class StudyRepository {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HHmmss");
     
+    // executeBatchをまとめて実行する行数
+    private static final int BATCH_SIZE = 500;
+    
+    // 外部キー制約（ON DELETE CASCADE）が有効なため、INSERT OR REPLACEではなくUPSERTで更新する
+    // （REPLACEは既存行を削除するため、配下のSeries/Instanceまで削除されてしまう）
+    // created_atは従来どおり再インポート時に更新する（スタディ一覧の並び順を維持）
+    private static final String INSERT_STUDY_SQL = """
+        INSERT INTO studies (
+            study_instance_uid, patient_id, patient_name, patient_birth_date,
+            patient_sex, study_date, study_time, study_description,
+            accession_number, referring_physician_name, updated_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT(study_instance_uid) DO UPDATE SET
+            patient_id = excluded.patient_id,
+            patient_name = excluded.patient_name,
+            patient_birth_date = excluded.patient_birth_date,
+            patient_sex = excluded.patient_sex,
+            study_date = excluded.study_date,
+            study_time = excluded.study_time,
+            study_description = excluded.study_description,
+            accession_number = excluded.accession_number,
+            referring_physician_name = excluded.referring_physician_name,
+            created_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP
+    """;
+    
+    private static final String INSERT_SERIES_SQL = """
+        INSERT INTO series (
+            series_instance_uid, study_instance_uid, series_number,
+            modality, series_date, series_time, series_description,
+            body_part_examined, patient_position, instance_count, updated_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT(series_instance_uid) DO UPDATE SET
+            study_instance_uid = excluded.study_instance_uid,
+            series_number = excluded.series_number,
+            modality = excluded.modality,
+            series_date = excluded.series_date,
+            series_time = excluded.series_time,
+            series_description = excluded.series_description,
+            body_part_examined = excluded.body_part_examined,
+            patient_position = excluded.patient_position,
+            instance_count = excluded.instance_count,
+            created_at = CURRENT_TIMESTAMP,
+            updated_at = CURRENT_TIMESTAMP
+    """;
+    
+    private static final String INSERT_INSTANCE_SQL = """
+        INSERT OR REPLACE INTO instances (
+            sop_instance_uid, series_instance_uid, instance_number,
+            sop_class_uid, file_path, file_size, transfer_syntax_uid,
+            rows, columns, bits_allocated, bits_stored, samples_per_pixel,
+            photometric_interpretation, window_center, window_width,
+            rescale_slope, rescale_intercept, pixel_representation,
+            image_position_patient, image_orientation_patient, pixel_spacing, slice_thickness,
+            number_of_frames, cine_rate, frame_time, updated_at
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+    """;
+    
+    // Seriesのinstance_countを保存済みのInstanceから数え直す（同じStudyを複数回に分けて保存した場合のため）
+    private static final String UPDATE_INSTANCE_COUNT_SQL = """
+        UPDATE series SET instance_count =
+            (SELECT COUNT(*) FROM instances i WHERE i.series_instance_uid = series.series_instance_uid)
+        WHERE study_instance_uid = ?
+    """;
+    
+    // スタディ一覧の並び順（DB登録日、検査日、検査時刻の降順）
+    // idx_studies_list_orderと同じ式を使用し、インデックスで並び替える（study_instance_uidは同順位の決定用）
+    private static final String STUDY_LIST_ORDER =
+        " ORDER BY COALESCE(DATE(created_at), '') DESC, COALESCE(study_date, '') DESC,"
+        + " COALESCE(study_time, '') DESC, study_instance_uid DESC";
+    
+    private static final String STUDY_PAGE_SELECT =
+        "SELECT *, COALESCE(DATE(created_at), '') AS sort_created_date, COALESCE(study_date, '') AS sort_study_date,"
+        + " COALESCE(study_time, '') AS sort_study_time FROM studies";
+    
     private final DatabaseManager dbManager;
     
     public StudyRepository(DatabaseManager dbManager) {
@@ -30,39 +109,88 @@ public class StudyRepository {
     
     /**
      * Studyを保存（既に存在する場合は更新）
+     * Study・Series・Instanceを1トランザクションで保存する
      */
     public void saveStudy(Study study) throws SQLException {
-        Connection conn = dbManager.getConnection();
+        saveStudies(List.of(study));
+    }
+    
+    /**
+     * 複数のStudyを保存（既に存在する場合は更新）
+     * Studyごとに書き込み用接続を取得し、1トランザクションでバッチ実行する。
+     * インポート中も他の書き込み（削除やパスの更新）がStudyの間に実行できるよう、接続はコミットごとに返却する。
+     * 保存に失敗した場合はそのStudyのトランザクションをロールバックして例外をスローする。
+     */
+    public void saveStudies(List<Study> studies) throws SQLException {
+        for (Study study : studies) {
+            try (ConnectionLease lease = dbManager.acquireWriter()) {
+                Connection conn = lease.getConnection();
+                boolean autoCommit = conn.getAutoCommit();
+                
+                try (PreparedStatement studyStmt = conn.prepareStatement(INSERT_STUDY_SQL);
+                     PreparedStatement seriesStmt = conn.prepareStatement(INSERT_SERIES_SQL);
+                     PreparedStatement instanceStmt = conn.prepareStatement(INSERT_INSTANCE_SQL);
+                     PreparedStatement countStmt = conn.prepareStatement(UPDATE_INSTANCE_COUNT_SQL)) {
+                    conn.setAutoCommit(false);
+                    int instanceCount = writeStudy(study, studyStmt, seriesStmt, instanceStmt, countStmt);
+                    conn.commit();
+                    logger.debug("Studyを保存しました: {} (Series数: {}, Instance数: {})", 
+                        study.getStudyInstanceUID(), study.getSeriesList().size(), instanceCount);
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(conn, e);
+                    logger.error("Studyの保存に失敗したためロールバックしました: {}", study.getStudyInstanceUID());
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(autoCommit);
+                }
+            }
+        }
+    }
+    
+    /**
+     * 1件のStudyとそのSeries・Instanceをバッチで書き込む（コミットは呼び出し側で行う）
+     * @return 書き込んだInstance数
+     */
+    private int writeStudy(Study study, PreparedStatement studyStmt, PreparedStatement seriesStmt,
+                           PreparedStatement instanceStmt, PreparedStatement countStmt) throws SQLException {
+        bindStudy(studyStmt, study);
+        studyStmt.executeUpdate();
         
-        try (PreparedStatement stmt = conn.prepareStatement("""
-            INSERT OR REPLACE INTO studies (
-                study_instance_uid, patient_id, patient_name, patient_birth_date,
-                patient_sex, study_date, study_time, study_description,
-                accession_number, referring_physician_name, updated_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-        """)) {
-            stmt.setString(1, study.getStudyInstanceUID());
-            stmt.setString(2, study.getPatientID());
-            stmt.setString(3, study.getPatientName());
-            stmt.setString(4, study.getPatientBirthDate() != null ? 
-                study.getPatientBirthDate().format(DATE_FORMATTER) : null);
-            stmt.setString(5, study.getPatientSex());
-            stmt.setString(6, study.getStudyDate() != null ? 
-                study.getStudyDate().format(DATE_FORMATTER) : null);
-            stmt.setString(7, study.getStudyTime() != null ? 
-                study.getStudyTime().format(TIME_FORMATTER) : null);
-            stmt.setString(8, study.getStudyDescription());
-            stmt.setString(9, study.getAccessionNumber());
-            stmt.setString(10, study.getReferringPhysicianName());
-            
-            stmt.executeUpdate();
-            
-            // SeriesとInstanceも保存
-            for (Series series : study.getSeriesList()) {
-                saveSeries(series);
+        for (Series series : study.getSeriesList()) {
+            bindSeries(seriesStmt, series);
+            seriesStmt.addBatch();
+        }
+        seriesStmt.executeBatch();
+        
+        int instanceCount = 0;
+        int pending = 0;
+        for (Series series : study.getSeriesList()) {
+            for (Instance instance : series.getInstanceList()) {
+                bindInstance(instanceStmt, instance);
+                instanceStmt.addBatch();
+                instanceCount++;
+                if (++pending >= BATCH_SIZE) {
+                    instanceStmt.executeBatch();
+                    pending = 0;
+                }
             }
-            
-            logger.debug("Studyを保存しました: {}", study.getStudyInstanceUID());
+        }
+        if (pending > 0) {
+            instanceStmt.executeBatch();
+        }
+        countStmt.setString(1, study.getStudyInstanceUID());
+        countStmt.executeUpdate();
+        
+        StudySearchIndex.reindexStudy(studyStmt.getConnection(), study.getStudyInstanceUID());
+        return instanceCount;
+    }
+    
+    private void rollbackQuietly(Connection conn, Exception cause) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            logger.error("ロールバックに失敗しました", e);
+            cause.addSuppressed(e);
         }
     }
     
@@ -70,28 +198,9 @@ public class StudyRepository {
      * Seriesを保存
      */
     public void saveSeries(Series series) throws SQLException {
-        Connection conn = dbManager.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement("""
-            INSERT OR REPLACE INTO series (
-                series_instance_uid, study_instance_uid, series_number,
-                modality, series_date, series_time, series_description,
-                body_part_examined, patient_position, instance_count, updated_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-        """)) {
-            stmt.setString(1, series.getSeriesInstanceUID());
-            stmt.setString(2, series.getStudyInstanceUID());
-            stmt.setInt(3, series.getSeriesNumber() != null ? series.getSeriesNumber() : 0);
-            stmt.setString(4, series.getModality());
-            stmt.setString(5, series.getSeriesDate() != null ? 
-                series.getSeriesDate().format(DATE_FORMATTER) : null);
-            stmt.setString(6, series.getSeriesTime() != null ? 
-                series.getSeriesTime().format(TIME_FORMATTER) : null);
-            stmt.setString(7, series.getSeriesDescription());
-            stmt.setString(8, series.getBodyPartExamined());
-            stmt.setString(9, series.getPatientPosition());
-            stmt.setInt(10, series.getInstanceCount());
-            
+        try (ConnectionLease lease = dbManager.acquireWriter();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(INSERT_SERIES_SQL)) {
+            bindSeries(stmt, series);
             stmt.executeUpdate();
             
             // Instanceも保存
@@ -107,50 +216,114 @@ public class StudyRepository {
      * Instanceを保存
      */
     public void saveInstance(Instance instance) throws SQLException {
-        Connection conn = dbManager.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement("""
-            INSERT OR REPLACE INTO instances (
-                sop_instance_uid, series_instance_uid, instance_number,
-                sop_class_uid, file_path, file_size, transfer_syntax_uid,
-                rows, columns, bits_allocated, bits_stored, samples_per_pixel,
-                photometric_interpretation, window_center, window_width,
-                rescale_slope, rescale_intercept, updated_at
-            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
-        """)) {
-            stmt.setString(1, instance.getSopInstanceUID());
-            stmt.setString(2, instance.getSeriesInstanceUID());
-            stmt.setInt(3, instance.getInstanceNumber() != null ? instance.getInstanceNumber() : 0);
-            stmt.setString(4, instance.getSopClassUID());
-            stmt.setString(5, instance.getFilePath().toString());
-            stmt.setLong(6, instance.getFileSize());
-            stmt.setString(7, instance.getTransferSyntaxUID());
-            stmt.setInt(8, instance.getRows() != null ? instance.getRows() : 0);
-            stmt.setInt(9, instance.getColumns() != null ? instance.getColumns() : 0);
-            stmt.setInt(10, instance.getBitsAllocated() != null ? instance.getBitsAllocated() : 0);
-            stmt.setInt(11, instance.getBitsStored() != null ? instance.getBitsStored() : 0);
-            stmt.setInt(12, instance.getSamplesPerPixel() != null ? instance.getSamplesPerPixel() : 1);
-            stmt.setString(13, instance.getPhotometricInterpretation());
-            stmt.setString(14, instance.getWindowCenter());
-            stmt.setString(15, instance.getWindowWidth());
-            stmt.setDouble(16, instance.getRescaleSlope() != null ? instance.getRescaleSlope() : 1.0);
-            stmt.setDouble(17, instance.getRescaleIntercept() != null ? instance.getRescaleIntercept() : 0.0);
-            
+        try (ConnectionLease lease = dbManager.acquireWriter();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(INSERT_INSTANCE_SQL)) {
+            bindInstance(stmt, instance);
             stmt.executeUpdate();
             
             logger.debug("Instanceを保存しました: {}", instance.getSopInstanceUID());
         }
     }
     
+    private void bindStudy(PreparedStatement stmt, Study study) throws SQLException {
+        stmt.setString(1, study.getStudyInstanceUID());
+        stmt.setString(2, study.getPatientID());
+        stmt.setString(3, study.getPatientName());
+        stmt.setString(4, study.getPatientBirthDate() != null ? 
+            study.getPatientBirthDate().format(DATE_FORMATTER) : null);
+        stmt.setString(5, study.getPatientSex());
+        stmt.setString(6, study.getStudyDate() != null ? 
+            study.getStudyDate().format(DATE_FORMATTER) : null);
+        stmt.setString(7, study.getStudyTime() != null ? 
+            study.getStudyTime().format(TIME_FORMATTER) : null);
+        stmt.setString(8, study.getStudyDescription());
+        stmt.setString(9, study.getAccessionNumber());
+        stmt.setString(10, study.getReferringPhysicianName());
+    }
+    
+    private void bindSeries(PreparedStatement stmt, Series series) throws SQLException {
+        stmt.setString(1, series.getSeriesInstanceUID());
+        stmt.setString(2, series.getStudyInstanceUID());
+        stmt.setInt(3, series.getSeriesNumber() != null ? series.getSeriesNumber() : 0);
+        stmt.setString(4, series.getModality());
+        stmt.setString(5, series.getSeriesDate() != null ? 
+            series.getSeriesDate().format(DATE_FORMATTER) : null);
+        stmt.setString(6, series.getSeriesTime() != null ? 
+            series.getSeriesTime().format(TIME_FORMATTER) : null);
+        stmt.setString(7, series.getSeriesDescription());
+        stmt.setString(8, series.getBodyPartExamined());
+        stmt.setString(9, series.getPatientPosition());
+        stmt.setInt(10, series.getInstanceCount());
+    }
+    
+    private void bindInstance(PreparedStatement stmt, Instance instance) throws SQLException {
+        stmt.setString(1, instance.getSopInstanceUID());
+        stmt.setString(2, instance.getSeriesInstanceUID());
+        stmt.setInt(3, instance.getInstanceNumber() != null ? instance.getInstanceNumber() : 0);
+        stmt.setString(4, instance.getSopClassUID());
+        stmt.setString(5, instance.getFilePath().toString());
+        stmt.setLong(6, instance.getFileSize());
+        stmt.setString(7, instance.getTransferSyntaxUID());
+        stmt.setInt(8, instance.getRows() != null ? instance.getRows() : 0);
+        stmt.setInt(9, instance.getColumns() != null ? instance.getColumns() : 0);
+        stmt.setInt(10, instance.getBitsAllocated() != null ? instance.getBitsAllocated() : 0);
+        stmt.setInt(11, instance.getBitsStored() != null ? instance.getBitsStored() : 0);
+        stmt.setInt(12, instance.getSamplesPerPixel() != null ? instance.getSamplesPerPixel() : 1);
+        stmt.setString(13, instance.getPhotometricInterpretation());
+        stmt.setString(14, instance.getWindowCenter());
+        stmt.setString(15, instance.getWindowWidth());
+        stmt.setDouble(16, instance.getRescaleSlope() != null ? instance.getRescaleSlope() : 1.0);
+        stmt.setDouble(17, instance.getRescaleIntercept() != null ? instance.getRescaleIntercept() : 0.0);
+        stmt.setObject(18, instance.getPixelRepresentation());
+        stmt.setString(19, formatDoubles(instance.getImagePositionPatient()));
+        stmt.setString(20, formatDoubles(instance.getImageOrientationPatient()));
+        stmt.setString(21, formatDoubles(instance.getPixelSpacing()));
+        stmt.setObject(22, instance.getSliceThickness());
+        stmt.setObject(23, instance.getNumberOfFrames());
+        stmt.setObject(24, instance.getCineRate());
+        stmt.setObject(25, instance.getFrameTime());
+    }
+    
+    // 多値の数値をDICOMと同じ'\'区切りの文字列に変換
+    private static String formatDoubles(double[] values) {
+        if (values == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append('\\');
+            }
+            sb.append(values[i]);
+        }
+        return sb.toString();
+    }
+    
+    // '\'区切りの文字列を多値の数値に変換（不正な値の場合はnull）
+    private static double[] parseDoubles(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        String[] parts = value.split("\\\\");
+        double[] values = new double[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                values[i] = Double.parseDouble(parts[i]);
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return values;
+    }
+    
     /**
      * すべてのStudyを取得
      */
     public List<Study> findAllStudies() throws SQLException {
         List<Study> studies = new ArrayList<>();
-        Connection conn = dbManager.getConnection();
-        
-        try (Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT * FROM studies ORDER BY DATE(created_at) DESC, study_date DESC, study_time DESC")) {
+        try (ConnectionLease lease = dbManager.acquireReader();
+             Statement stmt = lease.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM studies" + STUDY_LIST_ORDER)) {
             
             while (rs.next()) {
                 Study study = mapStudyFromResultSet(rs);
@@ -162,21 +335,225 @@ public class StudyRepository {
     }
     
     /**
-     * StudyInstanceUIDでSeriesを取得
+     * Study数を取得
+     */
+    public int countStudies() throws SQLException {
+        try (ConnectionLease lease = dbManager.acquireReader();
+             Statement stmt = lease.getConnection().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM studies")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+    
+    /**
+     * スタディ一覧の1ページを取得（キーセットページング）
+     * @param after 前のページのカーソル（先頭ページの場合はnull）
+     * @param limit 取得件数
+     */
+    public StudyPage findStudyPage(StudyPageCursor after, int limit) throws SQLException {
+        if (after == null) {
+            return findStudyPageAt(0, limit);
+        }
+        
+        // 先頭キーの範囲条件でインデックスを検索し、行値比較でカーソル位置以降に絞り込む
+        String sql = STUDY_PAGE_SELECT
+            + " WHERE COALESCE(DATE(created_at), '') <= ?"
+            + " AND (COALESCE(DATE(created_at), ''), COALESCE(study_date, ''), COALESCE(study_time, ''), study_instance_uid)"
+            + " < (?, ?, ?, ?)"
+            + STUDY_LIST_ORDER + " LIMIT ?";
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(sql)) {
+            stmt.setString(1, after.getCreatedDate());
+            stmt.setString(2, after.getCreatedDate());
+            stmt.setString(3, after.getStudyDate());
+            stmt.setString(4, after.getStudyTime());
+            stmt.setString(5, after.getStudyInstanceUID());
+            stmt.setInt(6, limit);
+            return readStudyPage(stmt, limit);
+        }
+    }
+    
+    /**
+     * スタディ一覧の指定位置から1ページを取得（OFFSET指定）
+     * スクロールバーのドラッグ等で前のページのカーソルがない位置へ移動する場合に使用
+     */
+    public StudyPage findStudyPageAt(int offset, int limit) throws SQLException {
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                STUDY_PAGE_SELECT + STUDY_LIST_ORDER + " LIMIT ? OFFSET ?")) {
+            stmt.setInt(1, limit);
+            stmt.setInt(2, Math.max(0, offset));
+            return readStudyPage(stmt, limit);
+        }
+    }
+    
+    private StudyPage readStudyPage(PreparedStatement stmt, int limit) throws SQLException {
+        List<Study> studies = new ArrayList<>();
+        StudyPageCursor last = null;
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                studies.add(mapStudyFromResultSet(rs));
+                last = new StudyPageCursor(rs.getString("sort_created_date"), rs.getString("sort_study_date"),
+                    rs.getString("sort_study_time"), rs.getString("study_instance_uid"));
+            }
+        }
+        return new StudyPage(studies, studies.size() < limit ? null : last);
+    }
+    
+    /**
+     * 条件に一致するStudyを検索（スタディ一覧と同じ並び順）
+     * フリーテキストは空白区切りの各語をAND条件とし、3文字以上の語は全文検索インデックス（部分一致）で、
+     * 1〜2文字の語は患者名（姓・名）と患者IDの前方一致で検索する。
+     * @param criteria 検索条件
+     * @param limit 取得件数の上限
+     */
+    public List<Study> searchStudies(StudySearchCriteria criteria, int limit) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM studies WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+        
+        if (criteria.getText() != null) {
+            List<String> ftsTokens = new ArrayList<>();
+            for (String token : StudySearchIndex.tokenize(criteria.getText())) {
+                if (token.length() >= StudySearchIndex.MIN_FTS_LENGTH) {
+                    ftsTokens.add(token);
+                } else {
+                    sql.append(" AND (study_instance_uid IN (SELECT study_instance_uid FROM study_name_keys")
+                        .append(" WHERE name_key >= ? AND name_key < ?)")
+                        .append(" OR (patient_id >= ? AND patient_id < ?))");
+                    addPrefixRange(params, token);
+                    addPrefixRange(params, token.toUpperCase(java.util.Locale.ROOT));
+                }
+            }
+            if (!ftsTokens.isEmpty()) {
+                sql.append(" AND study_instance_uid IN (SELECT study_instance_uid FROM studies_fts WHERE studies_fts MATCH ?)");
+                params.add(StudySearchIndex.toMatchExpression(ftsTokens));
+            }
+        }
+        if (criteria.getPatientID() != null && !criteria.getPatientID().isBlank()) {
+            sql.append(" AND patient_id >= ? AND patient_id < ?");
+            addPrefixRange(params, criteria.getPatientID().trim());
+        }
+        if (criteria.getAccessionNumber() != null && !criteria.getAccessionNumber().isBlank()) {
+            sql.append(" AND accession_number >= ? AND accession_number < ?");
+            addPrefixRange(params, criteria.getAccessionNumber().trim());
+        }
+        if (criteria.getStudyDateFrom() != null) {
+            sql.append(" AND study_date >= ?");
+            params.add(criteria.getStudyDateFrom().format(DATE_FORMATTER));
+        }
+        if (criteria.getStudyDateTo() != null) {
+            sql.append(" AND study_date <= ?");
+            params.add(criteria.getStudyDateTo().format(DATE_FORMATTER));
+        }
+        if (criteria.getModality() != null && !criteria.getModality().isBlank()) {
+            sql.append(" AND study_instance_uid IN (SELECT study_instance_uid FROM series WHERE modality = ?)");
+            params.add(criteria.getModality().trim().toUpperCase(java.util.Locale.ROOT));
+        }
+        sql.append(STUDY_LIST_ORDER).append(" LIMIT ?");
+        params.add(limit);
+        
+        List<Study> studies = new ArrayList<>();
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    studies.add(mapStudyFromResultSet(rs));
+                }
+            }
+        }
+        return studies;
+    }
+    
+    // 前方一致の範囲条件（prefix <= value < prefix + U+FFFF）のパラメータを追加
+    private static void addPrefixRange(List<Object> params, String prefix) {
+        params.add(prefix);
+        params.add(prefix + '\uFFFF');
+    }
+    
+    /**
+     * StudyInstanceUIDでSeriesを取得（Instanceも含む）
+     * Series用とInstance用の2クエリで読み込む（Seriesごとのクエリは発行しない）
      */
     public List<Series> findSeriesByStudyUID(String studyInstanceUID) throws SQLException {
         List<Series> seriesList = new ArrayList<>();
-        Connection conn = dbManager.getConnection();
+        Map<String, Series> seriesByUID = new HashMap<>();
+        Map<String, Set<String>> sopUIDsBySeries = new HashMap<>(); // 重複チェック用
         
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "SELECT * FROM series WHERE study_instance_uid = ? ORDER BY series_number")) {
+        try (ConnectionLease lease = dbManager.acquireReader()) {
+            Connection conn = lease.getConnection();
+            
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT * FROM series WHERE study_instance_uid = ? ORDER BY series_number")) {
+                stmt.setString(1, studyInstanceUID);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Series series = mapSeriesFromResultSet(rs);
+                        series.setInstanceList(new ArrayList<>());
+                        seriesList.add(series);
+                        seriesByUID.put(series.getSeriesInstanceUID(), series);
+                    }
+                }
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement("""
+                    SELECT i.* FROM instances i
+                    JOIN series s ON s.series_instance_uid = i.series_instance_uid
+                    WHERE s.study_instance_uid = ?
+                    ORDER BY i.series_instance_uid, i.instance_number
+                    """)) {
+                stmt.setString(1, studyInstanceUID);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Instance instance = mapInstanceFromResultSet(rs);
+                        Series series = seriesByUID.get(instance.getSeriesInstanceUID());
+                        if (series == null) {
+                            continue;
+                        }
+                        
+                        // 重複チェック（同じSOPInstanceUIDが既に存在する場合はスキップ）
+                        String sopUID = instance.getSopInstanceUID();
+                        if (sopUID != null && !sopUID.isEmpty()
+                                && !sopUIDsBySeries.computeIfAbsent(series.getSeriesInstanceUID(), k -> new HashSet<>()).add(sopUID)) {
+                            logger.warn("重複するSOPInstanceUIDを検出してスキップ: {} (SeriesInstanceUID: {})", 
+                                sopUID, series.getSeriesInstanceUID());
+                            continue;
+                        }
+                        series.getInstanceList().add(instance);
+                    }
+                }
+            }
+        }
+        
+        return seriesList;
+    }
+    
+    /**
+     * StudyInstanceUIDでSeriesの概要を取得（Instanceは読み込まない）
+     * Instance数は登録済みのInstanceを集計した値を設定する。
+     * Instanceは選択時に {@link #findInstancesBySeriesUID(String)} で読み込むこと。
+     */
+    public List<Series> findSeriesSummariesByStudyUID(String studyInstanceUID) throws SQLException {
+        List<Series> seriesList = new ArrayList<>();
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement("""
+                SELECT s.*, COUNT(i.sop_instance_uid) AS stored_instance_count
+                FROM series s
+                LEFT JOIN instances i ON i.series_instance_uid = s.series_instance_uid
+                WHERE s.study_instance_uid = ?
+                GROUP BY s.series_instance_uid
+                ORDER BY s.series_number
+                """)) {
             stmt.setString(1, studyInstanceUID);
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
                     Series series = mapSeriesFromResultSet(rs);
-                    // Instanceも読み込む
-                    series.setInstanceList(findInstancesBySeriesUID(series.getSeriesInstanceUID()));
+                    series.setInstanceCount(rs.getInt("stored_instance_count"));
                     seriesList.add(series);
                 }
             }
@@ -191,9 +568,8 @@ public class StudyRepository {
     public List<Instance> findInstancesBySeriesUID(String seriesInstanceUID) throws SQLException {
         List<Instance> instanceList = new ArrayList<>();
         java.util.Set<String> sopInstanceUIDs = new java.util.HashSet<>(); // 重複チェック用
-        Connection conn = dbManager.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
                 "SELECT * FROM instances WHERE series_instance_uid = ? ORDER BY instance_number")) {
             stmt.setString(1, seriesInstanceUID);
             
@@ -311,15 +687,27 @@ public class StudyRepository {
         return series;
     }
     
+    /**
+     * Instanceのファイルパスを更新（ストレージ内で移動されたファイルの再解決時に使用）
+     */
+    public void updateInstanceFilePath(String sopInstanceUID, java.nio.file.Path filePath) throws SQLException {
+        try (ConnectionLease lease = dbManager.acquireWriter();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
+                "UPDATE instances SET file_path = ?, updated_at = CURRENT_TIMESTAMP WHERE sop_instance_uid = ?")) {
+            stmt.setString(1, filePath.toString());
+            stmt.setString(2, sopInstanceUID);
+            stmt.executeUpdate();
+        }
+    }
+    
     /**
      * Studyを削除（関連するSeriesとInstanceも自動的に削除される - CASCADE）
      * 削除前に、削除対象のファイルパスを取得して返す（ファイル削除用）
      */
     public List<java.nio.file.Path> getFilePathsForStudy(String studyInstanceUID) throws SQLException {
         List<java.nio.file.Path> filePaths = new ArrayList<>();
-        Connection conn = dbManager.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(
+        try (ConnectionLease lease = dbManager.acquireReader();
+             PreparedStatement stmt = lease.getConnection().prepareStatement(
                 "SELECT file_path FROM instances WHERE series_instance_uid IN " +
                 "(SELECT series_instance_uid FROM series WHERE study_instance_uid = ?)")) {
             stmt.setString(1, studyInstanceUID);
@@ -341,13 +729,29 @@ public class StudyRepository {
      * Studyを削除（関連するSeriesとInstanceも自動的に削除される - CASCADE）
      */
     public void deleteStudy(String studyInstanceUID) throws SQLException {
-        Connection conn = dbManager.getConnection();
-        
-        try (PreparedStatement stmt = conn.prepareStatement(
-                "DELETE FROM studies WHERE study_instance_uid = ?")) {
-            stmt.setString(1, studyInstanceUID);
-            int deleted = stmt.executeUpdate();
-            logger.info("Studyをデータベースから削除しました: {} (削除件数: {})", studyInstanceUID, deleted);
+        try (ConnectionLease lease = dbManager.acquireWriter()) {
+            Connection conn = lease.getConnection();
+            boolean autoCommit = conn.getAutoCommit();
+            
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "DELETE FROM studies WHERE study_instance_uid = ?")) {
+                conn.setAutoCommit(false);
+                int deleted;
+                try {
+                    // 検索インデックス（FTS）は外部キーで削除されないため先に削除
+                    StudySearchIndex.removeStudy(conn, studyInstanceUID);
+                    stmt.setString(1, studyInstanceUID);
+                    deleted = stmt.executeUpdate();
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    rollbackQuietly(conn, e);
+                    logger.error("Studyの削除に失敗したためロールバックしました: {}", studyInstanceUID);
+                    throw e;
+                }
+                logger.info("Studyをデータベースから削除しました: {} (削除件数: {})", studyInstanceUID, deleted);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
         }
     }
     
@@ -371,6 +775,19 @@ public class StudyRepository {
         instance.setWindowWidth(rs.getString("window_width"));
         instance.setRescaleSlope(rs.getDouble("rescale_slope"));
         instance.setRescaleIntercept(rs.getDouble("rescale_intercept"));
+        int pixelRepresentation = rs.getInt("pixel_representation");
+        instance.setPixelRepresentation(rs.wasNull() ? null : pixelRepresentation);
+        instance.setImagePositionPatient(parseDoubles(rs.getString("image_position_patient")));
+        instance.setImageOrientationPatient(parseDoubles(rs.getString("image_orientation_patient")));
+        instance.setPixelSpacing(parseDoubles(rs.getString("pixel_spacing")));
+        double sliceThickness = rs.getDouble("slice_thickness");
+        instance.setSliceThickness(rs.wasNull() ? null : sliceThickness);
+        int numberOfFrames = rs.getInt("number_of_frames");
+        instance.setNumberOfFrames(rs.wasNull() ? null : numberOfFrames);
+        int cineRate = rs.getInt("cine_rate");
+        instance.setCineRate(rs.wasNull() ? null : cineRate);
+        double frameTime = rs.getDouble("frame_time");
+        instance.setFrameTime(rs.wasNull() ? null : frameTime);
         
         return instance;
     }
@@ -0,0 +1,82 @@
+package com.jjdicomviewer.storage;
+
+import java.time.LocalDate;
+
+/**
+ * スタディ検索条件
+ * 未設定（nullまたは空文字）の条件は絞り込みに使用しない。設定された条件はすべてAND条件となる。
+ */
+public class StudySearchCriteria {
+
+    // フリーテキスト（患者名（漢字・カナ・ローマ字）、患者ID、受付番号、検査・シリーズ記述の部分一致）
+    private String text;
+    // 患者ID（前方一致）
+    private String patientID;
+    // 受付番号（前方一致）
+    private String accessionNumber;
+    // 検査日の範囲（両端を含む）
+    private LocalDate studyDateFrom;
+    private LocalDate studyDateTo;
+    // モダリティ（いずれかのシリーズが一致）
+    private String modality;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getPatientID() {
+        return patientID;
+    }
+
+    public void setPatientID(String patientID) {
+        this.patientID = patientID;
+    }
+
+    public String getAccessionNumber() {
+        return accessionNumber;
+    }
+
+    public void setAccessionNumber(String accessionNumber) {
+        this.accessionNumber = accessionNumber;
+    }
+
+    public LocalDate getStudyDateFrom() {
+        return studyDateFrom;
+    }
+
+    public void setStudyDateFrom(LocalDate studyDateFrom) {
+        this.studyDateFrom = studyDateFrom;
+    }
+
+    public LocalDate getStudyDateTo() {
+        return studyDateTo;
+    }
+
+    public void setStudyDateTo(LocalDate studyDateTo) {
+        this.studyDateTo = studyDateTo;
+    }
+
+    public String getModality() {
+        return modality;
+    }
+
+    public void setModality(String modality) {
+        this.modality = modality;
+    }
+
+    /**
+     * 条件が1つも設定されていないかどうか
+     */
+    public boolean isEmpty() {
+        return isBlank(text) && isBlank(patientID) && isBlank(accessionNumber)
+            && studyDateFrom == null && studyDateTo == null && isBlank(modality);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
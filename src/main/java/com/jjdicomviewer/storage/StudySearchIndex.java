@@ -0,0 +1,260 @@
+package com.jjdicomviewer.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * スタディ検索用インデックス
+ *
+ * - studies_fts: FTS5（trigramトークナイザ）による部分一致検索用テーブル
+ *   （study_instance_uidで結合する。studiesの暗黙のrowidはVACUUMで振り直されることがあるため使わず、
+ *   削除用にFTS側のrowidをstudies.fts_rowidに保存する）
+ * - study_name_keys: 患者名の前方一致検索用テーブル（trigramで検索できない1〜2文字の入力用）
+ *
+ * 格納値と検索語は同じ正規化（NFKC、カタカナ→ひらがな、小文字化）を行い、
+ * 全角/半角、カタカナ/ひらがな、大文字/小文字の違いを無視して検索できるようにする。
+ * 患者名（PN）は「ローマ字=漢字=かな」の各表記と、姓・名それぞれを検索キーとする。
+ */
+final class StudySearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudySearchIndex.class);
+
+    // trigramトークナイザで検索できる最小文字数
+    static final int MIN_FTS_LENGTH = 3;
+
+    // インデックスの形式のバージョン（PRAGMA user_version、変更時は再構築される）
+    private static final int INDEX_VERSION = 2;
+
+    private static final String SELECT_INDEX_SOURCE = """
+        SELECT s.study_instance_uid, s.patient_name, s.patient_id, s.accession_number,
+               s.study_description,
+               (SELECT group_concat(se.series_description, ' ') FROM series se
+                WHERE se.study_instance_uid = s.study_instance_uid) AS series_descriptions
+        FROM studies s
+        """;
+
+    private static final String CREATE_FTS_TABLE = """
+        CREATE VIRTUAL TABLE IF NOT EXISTS studies_fts USING fts5(
+            study_instance_uid UNINDEXED,
+            patient_name, patient_id, accession_number, description,
+            tokenize = 'trigram'
+        )
+        """;
+
+    private StudySearchIndex() {
+    }
+
+    /**
+     * 検索用テーブルを作成
+     */
+    static void createSchema(Statement stmt) throws SQLException {
+        stmt.execute(CREATE_FTS_TABLE);
+        stmt.execute("""
+            CREATE TABLE IF NOT EXISTS study_name_keys (
+                name_key TEXT NOT NULL,
+                study_instance_uid TEXT NOT NULL,
+                PRIMARY KEY (name_key, study_instance_uid),
+                FOREIGN KEY (study_instance_uid) REFERENCES studies(study_instance_uid) ON DELETE CASCADE
+            ) WITHOUT ROWID
+        """);
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_study_name_keys_study_uid ON study_name_keys(study_instance_uid)");
+    }
+
+    /**
+     * インデックスが未作成または旧形式の場合は、既存のスタディから再構築
+     */
+    static void rebuildIfNeeded(Connection conn) throws SQLException {
+        int version;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            version = rs.next() ? rs.getInt(1) : 0;
+        }
+        if (version >= INDEX_VERSION) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            try (Statement stmt = conn.createStatement()) {
+                // 列構成が変わっている可能性があるため作り直す
+                stmt.execute("DROP TABLE IF EXISTS studies_fts");
+                stmt.execute(CREATE_FTS_TABLE);
+                stmt.execute("DELETE FROM study_name_keys");
+                stmt.execute("UPDATE studies SET fts_rowid = NULL");
+            }
+            int count;
+            try (PreparedStatement stmt = conn.prepareStatement(SELECT_INDEX_SOURCE)) {
+                count = insertRows(conn, stmt);
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("PRAGMA user_version = " + INDEX_VERSION);
+            }
+            conn.commit();
+            logger.info("検索インデックスを再構築しました: {}件 ({}ms)", count, (System.nanoTime() - start) / 1_000_000);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * 1件のスタディのインデックスを更新（保存済みのStudy・Seriesの内容から作成）
+     */
+    static void reindexStudy(Connection conn, String studyInstanceUID) throws SQLException {
+        removeStudy(conn, studyInstanceUID);
+        try (PreparedStatement stmt = conn.prepareStatement(SELECT_INDEX_SOURCE + " WHERE s.study_instance_uid = ?")) {
+            stmt.setString(1, studyInstanceUID);
+            insertRows(conn, stmt);
+        }
+    }
+
+    /**
+     * 1件のスタディをインデックスから削除（studiesの行を削除する前に呼び出すこと）
+     */
+    static void removeStudy(Connection conn, String studyInstanceUID) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM studies_fts WHERE rowid = (SELECT fts_rowid FROM studies WHERE study_instance_uid = ?)")) {
+            stmt.setString(1, studyInstanceUID);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "DELETE FROM study_name_keys WHERE study_instance_uid = ?")) {
+            stmt.setString(1, studyInstanceUID);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static int insertRows(Connection conn, PreparedStatement source) throws SQLException {
+        int count = 0;
+        try (ResultSet rs = source.executeQuery();
+             PreparedStatement ftsStmt = conn.prepareStatement(
+                "INSERT INTO studies_fts (study_instance_uid, patient_name, patient_id, accession_number, description) VALUES (?, ?, ?, ?, ?)");
+             PreparedStatement rowidStmt = conn.prepareStatement(
+                "UPDATE studies SET fts_rowid = last_insert_rowid() WHERE study_instance_uid = ?");
+             PreparedStatement keyStmt = conn.prepareStatement(
+                "INSERT OR IGNORE INTO study_name_keys (name_key, study_instance_uid) VALUES (?, ?)")) {
+            while (rs.next()) {
+                String studyUID = rs.getString("study_instance_uid");
+                Set<String> nameKeys = nameKeys(rs.getString("patient_name"));
+
+                ftsStmt.setString(1, studyUID);
+                ftsStmt.setString(2, String.join(" ", nameKeys));
+                ftsStmt.setString(3, normalize(rs.getString("patient_id")));
+                ftsStmt.setString(4, normalize(rs.getString("accession_number")));
+                ftsStmt.setString(5, normalize(joinNonNull(rs.getString("study_description"),
+                    rs.getString("series_descriptions"))));
+                ftsStmt.executeUpdate();
+                // 採番されたFTS側のrowidを削除用に保存（バッチにすると直前の挿入との対応が崩れるため1件ずつ）
+                rowidStmt.setString(1, studyUID);
+                rowidStmt.executeUpdate();
+
+                for (String key : nameKeys) {
+                    keyStmt.setString(1, key);
+                    keyStmt.setString(2, studyUID);
+                    keyStmt.addBatch();
+                }
+
+                if (++count % 500 == 0) {
+                    keyStmt.executeBatch();
+                }
+            }
+            keyStmt.executeBatch();
+        }
+        return count;
+    }
+
+    /**
+     * 検索用に文字列を正規化（NFKC、カタカナ→ひらがな、小文字化）
+     */
+    static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFKC);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            // カタカナ（ァ〜ヶ）をひらがなに変換
+            if (c >= 'ァ' && c <= 'ヶ') {
+                c = (char) (c - 0x60);
+            }
+            sb.append(c);
+        }
+        return sb.toString().toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * 患者名（PN）から検索キーを作成
+     * 各表記（'='区切り）の姓名を連結したキーと、姓・名それぞれのキー（'^'区切り）を返す
+     */
+    static Set<String> nameKeys(String patientName) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (patientName == null || patientName.isEmpty()) {
+            return keys;
+        }
+        for (String group : patientName.split("=")) {
+            addKey(keys, group.replace("^", ""));
+            for (String component : group.split("\\^")) {
+                addKey(keys, component);
+            }
+        }
+        return keys;
+    }
+
+    private static void addKey(Set<String> keys, String value) {
+        String key = normalize(value).replaceAll("\\s+", "");
+        if (!key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * 検索語を正規化してトークンに分割（空白・'^'・'='区切り）
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split("[\\s^=]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * FTS5のMATCH式を作成（各トークンをフレーズとしてAND結合）
+     */
+    static String toMatchExpression(List<String> tokens) {
+        StringBuilder sb = new StringBuilder();
+        for (String token : tokens) {
+            if (sb.length() > 0) {
+                sb.append(" AND ");
+            }
+            sb.append('"').append(token.replace("\"", "\"\"")).append('"');
+        }
+        return sb.toString();
+    }
+
+    private static String joinNonNull(String a, String b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : a + " " + b;
+    }
+}
@@ -0,0 +1,458 @@
+package com.jjdicomviewer.ui;
+
+import com.jjdicomviewer.core.Instance;
+import com.jjdicomviewer.core.InstanceFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * シネ再生（シリーズのスライス、マルチフレームのフレームを一定のフレームレートで順に表示する）
+ *
+ * 表示するフレームは再生開始からの経過時間で決め、表示時刻までにデコードが間に合わなかったフレームは
+ * 飛ばしてドロップ数に数える（再生速度は遅くならない）。
+ * デコードは専用スレッドで再生順に先行して行い、これから表示するbufferFrames枚分のフレームを保持する
+ * （デコードが遅れている間は、表示時刻を過ぎたが未表示のフレームも最大bufferFrames枚保持する）。
+ * クリップ全体がbufferFrames枚以内であれば、2周目以降はデコードを行わない。
+ * 再生開始時は先行デコードが揃うまで（最大{@value #PREROLL_TIMEOUT_MS}ms）待ってから時刻の計測を始める
+ * （待ち時間を過ぎた場合はデコード済みのフレームから表示する）。
+ *
+ * {@link #play}、{@link #stop}などの操作と表示（{@link FrameDisplay}）はEDTで行う。
+ */
+public class CinePlayer {
+    private static final Logger logger = LoggerFactory.getLogger(CinePlayer.class);
+
+    // 目標フレームレートの範囲
+    private static final double MIN_FPS = 1.0;
+    private static final double MAX_FPS = 120.0;
+    // 先行デコードを待つ最大時間（これを過ぎたら最初のフレームが揃い次第再生を始める）
+    private static final int PREROLL_TIMEOUT_MS = 1000;
+    // 実効フレームレートの計測範囲と、統計情報の通知間隔
+    private static final long FPS_WINDOW_NANOS = 1_000_000_000L;
+    private static final long STATS_INTERVAL_NANOS = 500_000_000L;
+
+    /**
+     * 再生モード
+     */
+    public enum Mode {
+        /** 最後のフレームの次は最初のフレームに戻る */
+        LOOP,
+        /** 最初と最後のフレームで再生方向を反転する */
+        BOUNCE
+    }
+
+    /**
+     * フレームのデコード（デコード用スレッドから呼び出される）
+     */
+    public interface FrameDecoder {
+        /**
+         * @return デコード済み画像、ファイルが見つからない場合はnull
+         */
+        BufferedImage decode(InstanceFrame frame) throws Exception;
+    }
+
+    /**
+     * フレームの表示（EDT）
+     */
+    public interface FrameDisplay {
+        /**
+         * @param index フレーム一覧での位置
+         */
+        void showFrame(int index, InstanceFrame frame, BufferedImage image);
+    }
+
+    /**
+     * 統計情報の通知（EDT、再生中は一定間隔、および再生開始・停止時）
+     */
+    public interface StatsListener {
+        void onStatsUpdated(CineStats stats);
+    }
+
+    private final FrameDecoder decoder;
+    private final FrameDisplay display;
+    private final double defaultFps;
+    private final int bufferFrames;
+    private StatsListener statsListener;
+
+    // フレームの先行デコード用のスレッド
+    private final ExecutorService decodeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "cine-decoder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 表示するフレームの判定用（再生中のみ動作）
+    private final Timer tickTimer;
+
+    // 再生状態（EDTのみで使用）
+    private Mode mode = Mode.LOOP;
+    private Session session;
+    private double targetFps;
+    // 時刻の計測を始めた時刻（先行デコード中は-1）と、その時点の再生位置
+    private long clockStartNanos = -1;
+    private long clockStartPosition;
+    private long prerollStartNanos;
+    // 最後に表示した再生位置（再生位置はフレームを表示する順の通し番号、モードに応じてフレームの位置に変換する）
+    private long shownPosition;
+    private long displayedFrames;
+    private long droppedFrames;
+    private final ArrayDeque<Long> displayTimes = new ArrayDeque<>();
+    private long lastStatsNanos;
+
+    /**
+     * @param decoder フレームのデコード
+     * @param display フレームの表示
+     * @param defaultFps CineRate/FrameTimeがない場合のフレームレート
+     * @param bufferFrames 先行してデコードしておくフレーム数
+     */
+    public CinePlayer(FrameDecoder decoder, FrameDisplay display, double defaultFps, int bufferFrames) {
+        this.decoder = decoder;
+        this.display = display;
+        this.defaultFps = clampFps(defaultFps);
+        this.bufferFrames = Math.max(1, bufferFrames);
+        this.tickTimer = new Timer(10, e -> tick());
+        this.tickTimer.setCoalesce(true);
+    }
+
+    /**
+     * 統計情報の通知先を設定
+     */
+    public void setStatsListener(StatsListener listener) {
+        this.statsListener = listener;
+    }
+
+    /**
+     * フレーム一覧の目標フレームレートを取得
+     * CineRate、FrameTime（フレーム間隔）の順に、最初に値を持つInstanceの値を使用する
+     */
+    public double resolveFps(List<InstanceFrame> frames) {
+        Instance previous = null;
+        for (InstanceFrame frame : frames) {
+            Instance instance = frame.getInstance();
+            if (instance == previous) {
+                continue;
+            }
+            previous = instance;
+            if (instance.getCineRate() != null && instance.getCineRate() > 0) {
+                return clampFps(instance.getCineRate());
+            }
+            if (instance.getFrameTime() != null && instance.getFrameTime() > 0) {
+                return clampFps(1000.0 / instance.getFrameTime());
+            }
+        }
+        return defaultFps;
+    }
+
+    private static double clampFps(double fps) {
+        return Math.max(MIN_FPS, Math.min(MAX_FPS, fps));
+    }
+
+    /**
+     * 再生を開始（再生中の場合は停止してから開始する）
+     * @param frames フレーム一覧（2枚以上）
+     * @param startIndex 最初に表示するフレームの位置
+     */
+    public void play(List<InstanceFrame> frames, int startIndex) {
+        stopSession();
+        if (frames == null || frames.size() < 2) {
+            return;
+        }
+        targetFps = resolveFps(frames);
+        long startPosition = Math.max(0, Math.min(frames.size() - 1, startIndex));
+        session = new Session(frames, mode, startPosition);
+        clockStartNanos = -1;
+        clockStartPosition = startPosition;
+        prerollStartNanos = System.nanoTime();
+        shownPosition = startPosition - 1;
+        displayedFrames = 0;
+        droppedFrames = 0;
+        displayTimes.clear();
+        lastStatsNanos = prerollStartNanos;
+
+        Session started = session;
+        decodeExecutor.execute(() -> decodeLoop(started));
+        // 判定間隔はフレーム間隔の1/4程度（表示時刻からの遅れを抑える）
+        tickTimer.setDelay((int) Math.max(2, Math.min(10, 250 / targetFps)));
+        tickTimer.setInitialDelay(0);
+        tickTimer.start();
+        logger.info("シネ再生を開始: {}フレーム, {}fps, {}, 開始位置={}", frames.size(), targetFps, mode, startIndex);
+        notifyStats();
+    }
+
+    /**
+     * 再生を停止（表示中のフレームはそのまま）
+     */
+    public void stop() {
+        if (session == null) {
+            return;
+        }
+        stopSession();
+        logger.info("シネ再生を停止: {}", getStats());
+        notifyStats();
+    }
+
+    private void stopSession() {
+        tickTimer.stop();
+        if (session != null) {
+            session.active = false;
+            synchronized (session) {
+                session.notifyAll();
+            }
+            session.buffer.clear();
+            session = null;
+        }
+    }
+
+    public boolean isPlaying() {
+        return session != null;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * 再生モードを設定（再生中の場合は表示中のフレームから新しいモードで再生し直す）
+     */
+    public void setMode(Mode mode) {
+        if (mode == null || mode == this.mode) {
+            return;
+        }
+        this.mode = mode;
+        if (session != null) {
+            List<InstanceFrame> frames = session.frames;
+            long position = Math.max(shownPosition, clockStartPosition);
+            play(frames, session.frameIndexAt(position));
+        }
+    }
+
+    public double getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * 現在の統計情報を取得
+     */
+    public CineStats getStats() {
+        Session current = session;
+        return new CineStats(current != null, current != null && clockStartNanos < 0, targetFps,
+            achievedFps(System.nanoTime()),
+            displayedFrames, droppedFrames, current != null ? current.buffer.size() : 0, bufferFrames);
+    }
+
+    /**
+     * デコード用スレッドを停止
+     */
+    public void shutdown() {
+        stopSession();
+        decodeExecutor.shutdownNow();
+    }
+
+    /**
+     * 経過時間から表示するフレームを決めて表示（EDT、tickTimerから呼び出される）
+     */
+    private void tick() {
+        Session current = session;
+        if (current == null) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        if (clockStartNanos < 0) {
+            // 先行デコード待ち：揃ったら、または待ち時間を過ぎたら時刻の計測を始める
+            boolean timedOut = now - prerollStartNanos >= PREROLL_TIMEOUT_MS * 1_000_000L;
+            if (!timedOut && !isPrerollComplete(current)) {
+                maybeNotifyStats(now);
+                return;
+            }
+            clockStartNanos = now;
+            logger.debug("シネ再生の先行デコード完了: {}ms, {}フレーム",
+                (now - prerollStartNanos) / 1_000_000L, current.buffer.size());
+        }
+
+        long duePosition = clockStartPosition + (long) ((now - clockStartNanos) * targetFps / 1e9);
+        if (duePosition > shownPosition) {
+            // 表示時刻を過ぎた位置のうち、デコード済みの最新のフレームを表示する（それより前の未表示の位置はドロップ）
+            long limit = Math.max(shownPosition + 1, duePosition - bufferFrames);
+            for (long position = duePosition; position >= limit; position--) {
+                int index = current.frameIndexAt(position);
+                BufferedImage image = current.buffer.get(index);
+                if (image != null) {
+                    droppedFrames += position - shownPosition - 1;
+                    shownPosition = position;
+                    displayedFrames++;
+                    recordDisplayTime(now);
+                    display.showFrame(index, current.frames.get(index), image);
+                    break;
+                }
+            }
+            // 先行デコードは表示時刻に間に合う位置から行い、表示時刻を過ぎた未表示のフレームは表示されるまで保持する
+            current.setPositions(Math.max(shownPosition + 1, duePosition - bufferFrames),
+                Math.max(shownPosition + 1, duePosition));
+        }
+        maybeNotifyStats(now);
+    }
+
+    /**
+     * 再生開始位置からbufferFrames枚分（クリップがそれより短い場合はクリップ全体）がデコード済みかどうか
+     */
+    private boolean isPrerollComplete(Session current) {
+        for (long position = clockStartPosition; position < clockStartPosition + bufferFrames; position++) {
+            if (!current.isBuffered(position)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void recordDisplayTime(long now) {
+        displayTimes.addLast(now);
+        while (displayTimes.size() > 1 && now - displayTimes.peekFirst() > FPS_WINDOW_NANOS) {
+            displayTimes.removeFirst();
+        }
+    }
+
+    /**
+     * 直近{@link #FPS_WINDOW_NANOS}の表示回数から実効フレームレートを求める（再生開始直後は表示間隔から求める）
+     */
+    private double achievedFps(long now) {
+        while (!displayTimes.isEmpty() && now - displayTimes.peekFirst() > FPS_WINDOW_NANOS) {
+            displayTimes.removeFirst();
+        }
+        if (clockStartNanos >= 0 && now - clockStartNanos >= FPS_WINDOW_NANOS) {
+            return displayTimes.size() * 1e9 / FPS_WINDOW_NANOS;
+        }
+        if (displayTimes.size() < 2) {
+            return 0.0;
+        }
+        long span = displayTimes.peekLast() - displayTimes.peekFirst();
+        return span > 0 ? (displayTimes.size() - 1) * 1e9 / span : 0.0;
+    }
+
+    private void maybeNotifyStats(long now) {
+        if (now - lastStatsNanos >= STATS_INTERVAL_NANOS) {
+            lastStatsNanos = now;
+            notifyStats();
+        }
+    }
+
+    private void notifyStats() {
+        if (statsListener != null) {
+            statsListener.onStatsUpdated(getStats());
+        }
+    }
+
+    /**
+     * 再生順に先行してデコード（デコード用スレッド、セッションが停止されるまで）
+     * 先行デコードの範囲外となったフレームは破棄する
+     */
+    private void decodeLoop(Session current) {
+        int frameCount = current.frames.size();
+        BitSet failed = new BitSet(frameCount);
+        while (current.active) {
+            long keepFrom = current.keepFrom;
+            long from = current.decodeFrom;
+            BitSet window = new BitSet(frameCount);
+            for (long position = keepFrom; position < from; position++) {
+                window.set(current.frameIndexAt(position));
+            }
+            int next = -1;
+            for (long position = from; position < from + bufferFrames; position++) {
+                int index = current.frameIndexAt(position);
+                window.set(index);
+                if (next < 0 && !failed.get(index) && !current.buffer.containsKey(index)) {
+                    next = index;
+                }
+            }
+            current.buffer.keySet().removeIf(index -> !window.get(index));
+
+            if (next < 0) {
+                // すべてデコード済み：再生位置が進むまで待機
+                synchronized (current) {
+                    if (current.active && current.decodeFrom == from) {
+                        try {
+                            current.wait(50);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    }
+                }
+                continue;
+            }
+
+            InstanceFrame frame = current.frames.get(next);
+            try {
+                BufferedImage image = decoder.decode(frame);
+                if (image == null) {
+                    failed.set(next);
+                } else if (current.active) {
+                    current.buffer.put(next, image);
+                }
+            } catch (Exception e) {
+                if (!current.active) {
+                    // 停止時の割り込みによる失敗
+                    return;
+                }
+                logger.warn("シネ再生のフレームのデコードに失敗しました: {} - {}", frame, e.getMessage());
+                failed.set(next);
+            }
+        }
+    }
+
+    /**
+     * 1回の再生（再生ごとに作り直し、停止後のデコード結果が次の再生に混ざらないようにする）
+     */
+    private static final class Session {
+        final List<InstanceFrame> frames;
+        final Mode mode;
+        // デコード済みフレーム（フレームの位置 -> 画像）
+        final Map<Integer, BufferedImage> buffer = new ConcurrentHashMap<>();
+        // 保持する最初の再生位置と、先行デコードを始める再生位置（EDTで更新）
+        volatile long keepFrom;
+        volatile long decodeFrom;
+        volatile boolean active = true;
+
+        Session(List<InstanceFrame> frames, Mode mode, long startPosition) {
+            this.frames = frames;
+            this.mode = mode;
+            this.keepFrom = startPosition;
+            this.decodeFrom = startPosition;
+        }
+
+        /**
+         * 再生位置をフレームの位置に変換
+         */
+        int frameIndexAt(long position) {
+            int frameCount = frames.size();
+            if (mode == Mode.BOUNCE) {
+                long period = 2L * (frameCount - 1);
+                int phase = (int) (position % period);
+                return phase < frameCount ? phase : (int) (period - phase);
+            }
+            return (int) (position % frameCount);
+        }
+
+        boolean isBuffered(long position) {
+            return buffer.containsKey(frameIndexAt(position));
+        }
+
+        void setPositions(long keepFrom, long decodeFrom) {
+            this.keepFrom = keepFrom;
+            if (this.decodeFrom != decodeFrom) {
+                this.decodeFrom = decodeFrom;
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
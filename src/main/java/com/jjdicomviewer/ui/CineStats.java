@@ -0,0 +1,84 @@
+package com.jjdicomviewer.ui;
+
+/**
+ * シネ再生の目標/実効フレームレートとドロップ数のスナップショット
+ */
+public final class CineStats {
+
+    private final boolean playing;
+    private final boolean buffering;
+    private final double targetFps;
+    private final double achievedFps;
+    private final long displayedFrames;
+    private final long droppedFrames;
+    private final int bufferedFrames;
+    private final int bufferCapacity;
+
+    CineStats(boolean playing, boolean buffering, double targetFps, double achievedFps,
+              long displayedFrames, long droppedFrames, int bufferedFrames, int bufferCapacity) {
+        this.playing = playing;
+        this.buffering = buffering;
+        this.targetFps = targetFps;
+        this.achievedFps = achievedFps;
+        this.displayedFrames = displayedFrames;
+        this.droppedFrames = droppedFrames;
+        this.bufferedFrames = bufferedFrames;
+        this.bufferCapacity = bufferCapacity;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * 再生開始前の先行デコード中かどうか
+     */
+    public boolean isBuffering() {
+        return buffering;
+    }
+
+    public double getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * 直近1秒間に表示したフレームから求めたフレームレート
+     */
+    public double getAchievedFps() {
+        return achievedFps;
+    }
+
+    public long getDisplayedFrames() {
+        return displayedFrames;
+    }
+
+    /**
+     * 表示時刻までにデコードが間に合わず、表示せずに飛ばしたフレーム数
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public int getBufferedFrames() {
+        return bufferedFrames;
+    }
+
+    public int getBufferCapacity() {
+        return bufferCapacity;
+    }
+
+    /**
+     * ドロップ率（0.0〜1.0）
+     */
+    public double getDropRatio() {
+        long frames = displayedFrames + droppedFrames;
+        return frames > 0 ? (double) droppedFrames / frames : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("目標 %.1ffps, 実効 %.1ffps, 表示: %d, ドロップ: %d (%.1f%%), バッファ: %d/%d",
+            targetFps, achievedFps, displayedFrames, droppedFrames, getDropRatio() * 100,
+            bufferedFrames, bufferCapacity);
+    }
+}
@@ -2,21 +2,45 @@ package com.jjdicomviewer.ui;
 
 import com.jjdicomviewer.config.AppConfig;
 import com.jjdicomviewer.core.Instance;
+import com.jjdicomviewer.core.InstanceFrame;
 import com.jjdicomviewer.core.Series;
 import com.jjdicomviewer.dicom.DicomLoader;
+import com.jjdicomviewer.dicom.SeriesVolumeLoader;
+import com.jjdicomviewer.image.DirtyTiles;
+import com.jjdicomviewer.image.ImagePyramid;
+import com.jjdicomviewer.image.RowBandRenderer;
+import com.jjdicomviewer.image.SeriesVolume;
+import com.jjdicomviewer.image.SliceCache;
+import com.jjdicomviewer.image.SliceCacheStats;
+import com.jjdicomviewer.image.WindowLevelLut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
 import java.awt.image.RasterFormatException;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.VolatileImage;
+import java.awt.image.WritableRaster;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * DICOM画像表示パネル（Swing版）
@@ -48,6 +72,32 @@ public class ImageViewerPanel extends JPanel {
     private boolean isPanning = false;
     private boolean isWindowLevelAdjusting = false;
     
+    // ウィンドウ/レベル用ルックアップテーブル（パラメータ変更時のみ再構築）
+    private WindowLevelLut shortLut;
+    private boolean shortLutSigned;
+    private WindowLevelLut byteLut;
+    private WindowLevelLut rgbSumLut;
+    // ウィンドウ/レベル適用を行バンドに分割して並列に処理（renderThreads=1の場合は逐次）
+    private final RowBandRenderer bandRenderer = new RowBandRenderer(AppConfig.getInstance().getRenderThreads());
+    // processedImageのタイルごとの描画済み状態と、未描画タイルの変換処理（processImageで更新）
+    private final DirtyTiles dirtyTiles = new DirtyTiles();
+    private RegionTask windowLevelTask;
+    // 元画像の縮小画像のピラミッドと、processedImageの元になっているレベル（0は元画像）
+    private ImagePyramid pyramid;
+    private int displayLevel = 0;
+    
+    // 拡大縮小・補間済みの表示画像（パネルサイズ、オーバーレイのみの再描画や同じ表示状態の再描画ではそのまま転送する）
+    private VolatileImage displayCache;
+    // displayCacheの作成時の表示位置・サイズとprocessedImageの版（processImageのたびに増加）
+    private final Rectangle2D.Double displayCacheBounds = new Rectangle2D.Double();
+    private long displayCacheVersion = -1;
+    private long processedVersion = 0;
+    
+    // 再描画の最小間隔（約60Hzのリフレッシュ間隔、ドラッグ中の連続したイベントは1回の描画にまとめる）
+    private static final int REPAINT_INTERVAL_MS = 16;
+    private final Timer repaintTimer;
+    private long lastPaintNanos;
+    
     // ビット深度（デフォルト16bit）
     private int bitsStored = 16;
     
@@ -62,15 +112,61 @@ public class ImageViewerPanel extends JPanel {
     
     // WW/WL変更コールバック
     private WindowLevelChangeCallback windowLevelChangeCallback;
+    
+    // ファイルが見つからない場合のパス解決
+    private MissingFileResolver missingFileResolver;
+    
+    // スライス読み込み用のスレッド（EDTでファイルI/Oとデコードを行わないため）
+    private final ExecutorService sliceLoader = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "slice-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 未着手の最新の読み込み要求（新しい要求で置き換え、古い要求は読み込まない）
+    private final AtomicReference<SliceRequest> pendingRequest = new AtomicReference<>();
+    // 読み込み要求の世代（最新の世代以外の読み込み結果は表示しない）
+    private final AtomicLong requestGeneration = new AtomicLong();
+    // 表示前に置き換えられた要求のWW/WLリセットを引き継ぐためのフラグ（EDTのみで使用）
+    private boolean windowLevelResetPending = false;
+    
+    // デコード済みスライスのキャッシュ（上限はAppConfig#getSliceCacheMb）
+    private final SliceCache sliceCache =
+        new SliceCache(AppConfig.getInstance().getSliceCacheMb() * 1024L * 1024L);
+    // スクロール方向に先読みするスライス数（逆方向はその1/4）
+    private final int prefetchSlices = AppConfig.getInstance().getPrefetchSlices();
+    // 先読み用のスレッド（表示中のスライスの読み込みを優先するため低優先度）
+    private final ExecutorService slicePrefetcher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "slice-prefetch");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    // 先読み要求の世代（新しいスライスが要求されたら古い先読みを中断する）
+    private final AtomicLong prefetchGeneration = new AtomicLong();
+    // 現在のシリーズのInstance一覧（InstanceNumber順、先読み対象の決定用）
+    private List<InstanceFrame> seriesFrames = List.of();
+    // 直前に要求したスライスの位置（スクロール方向の判定用、EDTのみで使用）
+    private int lastRequestedIndex = -1;
+    
+    // 現在のシリーズのボリューム（ヒープ外、初回のgetSeriesVolume()で作成してバックグラウンドで読み込み、シリーズを閉じたら解放）
+    private final SeriesVolumeLoader volumeLoader;
+    private SeriesVolume seriesVolume;
+    // 現在のシリーズでボリュームの作成を試みたかどうか（対応していないシリーズで繰り返さないため）
+    private boolean seriesVolumeRequested;
 
     public ImageViewerPanel() {
         dicomLoader = new DicomLoader();
+        volumeLoader = new SeriesVolumeLoader(dicomLoader, sliceCache);
         setBackground(Color.BLACK);
         setOpaque(true); // 背景を不透明に設定（重複描画を防ぐ）
         setDoubleBuffered(true); // ダブルバッファリングを有効化（ちらつきを防ぐ）
         setPreferredSize(new Dimension(1024, 768));
         setFocusable(true);
         
+        repaintTimer = new Timer(REPAINT_INTERVAL_MS, e -> repaint());
+        repaintTimer.setRepeats(false);
+        repaintTimer.setCoalesce(true);
+        
         setupMouseListeners();
         setupWheelListener();
     }
@@ -107,7 +203,7 @@ public class ImageViewerPanel extends JPanel {
                     panY += deltaY;
                     lastMouseX = e.getX();
                     lastMouseY = e.getY();
-                    repaint();
+                    requestRepaint();
                 } else if (isWindowLevelAdjusting) {
                     int deltaX = e.getX() - lastMouseX;
                     int deltaY = e.getY() - lastMouseY;
@@ -120,6 +216,20 @@ public class ImageViewerPanel extends JPanel {
         });
     }
     
+    /**
+     * 再描画を要求（前回の描画から{@value #REPAINT_INTERVAL_MS}ms以内の場合は残り時間の経過後にまとめて1回だけ描画する）
+     */
+    private void requestRepaint() {
+        long elapsedMs = (System.nanoTime() - lastPaintNanos) / 1_000_000L;
+        if (elapsedMs >= REPAINT_INTERVAL_MS) {
+            repaintTimer.stop();
+            repaint();
+        } else if (!repaintTimer.isRunning()) {
+            repaintTimer.setInitialDelay((int) (REPAINT_INTERVAL_MS - elapsedMs));
+            repaintTimer.start();
+        }
+    }
+    
     private void setupWheelListener() {
         addMouseWheelListener(e -> {
             if (e.isControlDown()) {
@@ -167,14 +277,39 @@ public class ImageViewerPanel extends JPanel {
     public void setWindowLevelChangeCallback(WindowLevelChangeCallback callback) {
         this.windowLevelChangeCallback = callback;
     }
+    
+    /**
+     * ファイルが見つからない場合のパス解決インターフェース
+     * スライス読み込み用スレッドから呼び出される。スライスの表示を待たせるため、ストレージの走査等の時間のかかる処理は行わないこと
+     */
+    public interface MissingFileResolver {
+        /**
+         * @return 移動先のパス、解決できない場合はnull
+         */
+        Path resolve(Instance instance);
+    }
+    
+    /**
+     * ファイルが見つからない場合のパス解決を設定
+     */
+    public void setMissingFileResolver(MissingFileResolver resolver) {
+        this.missingFileResolver = resolver;
+    }
 
     /**
      * Seriesを読み込んで表示
      */
     public void loadSeries(Series series) {
         if (series == null) {
+            cancelPendingLoad();
+            releaseSeriesVolume();
+            seriesFrames = List.of();
+            lastRequestedIndex = -1;
             originalImage = null;
             processedImage = null;
+            windowLevelTask = null;
+            pyramid = null;
+            releaseDisplayCache();
             currentSeries = null;
             currentInstance = null;
             resetView();
@@ -199,27 +334,260 @@ public class ImageViewerPanel extends JPanel {
             int numB = b.getInstanceNumber() != null ? b.getInstanceNumber() : 0;
             return Integer.compare(numA, numB);
         });
+        seriesFrames = List.copyOf(InstanceFrame.expand(instances));
+        lastRequestedIndex = -1;
+        
+        // シリーズが変わった場合はボリュームを破棄（次にgetSeriesVolume()が呼ばれたときに作り直す）
+        if (isNewSeries) {
+            releaseSeriesVolume();
+        }
         
-        // 最初のインスタンスを読み込む（新しいシリーズの場合はWW/WLをリセット）
-        loadInstance(instances.get(0), isNewSeries);
+        // 最初のフレームを読み込む（新しいシリーズの場合はWW/WLをリセット）
+        loadFrame(seriesFrames.get(0), isNewSeries);
     }
     
     /**
      * Instanceを読み込んで表示
+     * ファイルの読み込みとデコードはスライス読み込み用スレッドで行い、完了後にEDTで表示する。
+     * 読み込み中に新しい要求があった場合は、古い要求の結果は破棄される（最新のスライスのみ表示）。
      * @param instance インスタンス
      * @param resetWindowLevel 新しいシリーズの場合はtrue（WW/WLをリセット）、同一シリーズ内のスクロール時はfalse（WW/WLを維持）
      */
     public void loadInstance(Instance instance, boolean resetWindowLevel) {
-        if (instance == null || instance.getFilePath() == null) {
-            logger.warn("loadInstance: instanceまたはfilePathがnullです");
+        if (instance == null) {
+            logger.warn("loadInstance: instanceがnullです");
+            return;
+        }
+        loadFrame(new InstanceFrame(instance, 0), resetWindowLevel);
+    }
+    
+    /**
+     * Instanceの指定したフレームを読み込んで表示（マルチフレームの場合はそのフレームのみをデコードする）
+     * @param frame フレーム
+     * @param resetWindowLevel 新しいシリーズの場合はtrue（WW/WLをリセット）、同一シリーズ内のスクロール時はfalse（WW/WLを維持）
+     */
+    public void loadFrame(InstanceFrame frame, boolean resetWindowLevel) {
+        if (frame == null || frame.getInstance().getFilePath() == null) {
+            logger.warn("loadFrame: frameまたはfilePathがnullです");
+            return;
+        }
+        Instance instance = frame.getInstance();
+        
+        logger.debug("loadFrame: SOPInstanceUID={}, frame={}, filePath={}, resetWindowLevel={}", 
+            instance.getSopInstanceUID(), frame.getFrameIndex(), instance.getFilePath(), resetWindowLevel);
+        
+        // スクロール方向（先読みの方向）を判定
+        List<InstanceFrame> frames = seriesFrames;
+        int index = frames.indexOf(frame);
+        int direction = index >= lastRequestedIndex ? 1 : -1;
+        lastRequestedIndex = index;
+        
+        windowLevelResetPending |= resetWindowLevel;
+        SliceRequest request = new SliceRequest(frame, windowLevelResetPending, requestGeneration.incrementAndGet(),
+            frames, index, direction);
+        pendingRequest.set(request);
+        sliceLoader.execute(this::runPendingRequest);
+    }
+    
+    /**
+     * 未着手の読み込み要求と読み込み中の要求の結果を破棄
+     */
+    private void cancelPendingLoad() {
+        pendingRequest.set(null);
+        requestGeneration.incrementAndGet();
+        windowLevelResetPending = false;
+    }
+    
+    private boolean isLatest(SliceRequest request) {
+        return request.generation == requestGeneration.get();
+    }
+    
+    /**
+     * 最新の読み込み要求を実行（スライス読み込み用スレッド）
+     */
+    private void runPendingRequest() {
+        SliceRequest request = pendingRequest.getAndSet(null);
+        if (request == null) {
+            // 既に新しい要求の処理で消費されている
             return;
         }
         
-        logger.debug("loadInstance: SOPInstanceUID={}, filePath={}, resetWindowLevel={}", 
-            instance.getSopInstanceUID(), instance.getFilePath(), resetWindowLevel);
+        Instance instance = request.instance;
+        Path filePath = null;
+        BufferedImage image = null;
+        try {
+            filePath = resolveFilePath(instance);
+            
+            // デコード前に新しい要求があれば読み込まない
+            if (filePath != null && isLatest(request)) {
+                String cacheKey = request.frame.getCacheKey();
+                image = sliceCache.get(cacheKey);
+                if (image == null) {
+                    image = dicomLoader.loadDicomImage(filePath.toFile(), request.frame.getFrameIndex());
+                    sliceCache.put(cacheKey, image);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("インスタンスの読み込み中にエラーが発生しました", e);
+        }
+        
+        if (!isLatest(request)) {
+            logger.trace("新しい要求があるため読み込み結果を破棄します: {}", instance.getSopInstanceUID());
+            return;
+        }
+        Path loadedPath = filePath;
+        BufferedImage loadedImage = image;
+        SwingUtilities.invokeLater(() -> showLoadedSlice(request, loadedPath, loadedImage));
+        schedulePrefetch(request);
+    }
+    
+    /**
+     * ファイルパスを検証し、存在しない場合はストレージ索引でパスを解決
+     * @return 読み込むファイルのパス、見つからない場合はnull
+     */
+    private Path resolveFilePath(Instance instance) {
+        Path filePath = instance.getFilePath();
+        if (Files.exists(filePath)) {
+            return filePath;
+        }
+        Path correctedPath = missingFileResolver != null ? missingFileResolver.resolve(instance) : null;
+        if (correctedPath != null && Files.exists(correctedPath)) {
+            return correctedPath;
+        }
+        logger.error("ファイルが見つかりません: {} (SOPInstanceUID: {})", filePath, instance.getSopInstanceUID());
+        return null;
+    }
+    
+    /**
+     * フレームをデコード（呼び出し元のスレッドで実行、シネ再生の先行デコード用）
+     * スライスキャッシュにある場合はそれを返す。シネ再生のフレームでキャッシュを置き換えないよう、キャッシュには追加しない
+     * @return デコード済み画像、ファイルが見つからない場合はnull
+     */
+    public BufferedImage decodeFrame(InstanceFrame frame) throws IOException {
+        Path filePath = resolveFilePath(frame.getInstance());
+        if (filePath == null) {
+            return null;
+        }
+        String cacheKey = frame.getCacheKey();
+        BufferedImage image = cacheKey != null ? sliceCache.get(cacheKey) : null;
+        if (image == null) {
+            image = dicomLoader.loadDicomImage(filePath.toFile(), frame.getFrameIndex());
+        }
+        return image;
+    }
+    
+    /**
+     * デコード済みのフレームを表示（EDT、シネ再生用）
+     * 読み込み中の要求は破棄し、WW/WL・ズーム・パンは維持する
+     * @param index シリーズのフレーム一覧での位置
+     */
+    public void showDecodedFrame(InstanceFrame frame, int index, BufferedImage image) {
+        pendingRequest.set(null);
+        lastRequestedIndex = index;
+        SliceRequest request = new SliceRequest(frame, windowLevelResetPending, requestGeneration.incrementAndGet(),
+            seriesFrames, index, 1);
+        showLoadedSlice(request, frame.getInstance().getFilePath(), image);
+    }
+    
+    /**
+     * 要求されたスライスの周辺の先読みを開始（実行中の先読みは中断される）
+     */
+    private void schedulePrefetch(SliceRequest request) {
+        if (prefetchSlices <= 0 || request.index < 0 || sliceCache.getCapacityBytes() == 0) {
+            return;
+        }
+        long generation = prefetchGeneration.incrementAndGet();
+        slicePrefetcher.execute(() -> prefetch(request, generation));
+    }
+    
+    /**
+     * スクロール方向にprefetchSlices枚、逆方向にその1/4枚をデコードしてキャッシュに追加（先読みスレッド）
+     */
+    private void prefetch(SliceRequest request, long generation) {
+        int behind = Math.max(1, prefetchSlices / 4);
+        int[] offsets = new int[prefetchSlices + behind];
+        for (int i = 0; i < prefetchSlices; i++) {
+            offsets[i] = request.direction * (i + 1);
+        }
+        for (int i = 0; i < behind; i++) {
+            offsets[prefetchSlices + i] = -request.direction * (i + 1);
+        }
+        
+        for (int offset : offsets) {
+            if (generation != prefetchGeneration.get()) {
+                return;
+            }
+            int index = request.index + offset;
+            if (index < 0 || index >= request.seriesFrames.size()) {
+                continue;
+            }
+            InstanceFrame frame = request.seriesFrames.get(index);
+            String cacheKey = frame.getCacheKey();
+            Path filePath = frame.getInstance().getFilePath();
+            if (cacheKey == null || filePath == null || sliceCache.contains(cacheKey) || !Files.exists(filePath)) {
+                continue;
+            }
+            try {
+                sliceCache.put(cacheKey, dicomLoader.loadDicomImage(filePath.toFile(), frame.getFrameIndex()));
+            } catch (Exception e) {
+                logger.debug("スライスの先読みに失敗しました: {} - {}", filePath, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 現在のシリーズのボリュームを取得（読み込み中の場合あり、対応していないシリーズの場合はnull）
+     * ボリュームは最大volumeMemoryMbのメモリを確保するため、シリーズを開いたときではなく初回の呼び出し時に作成する。
+     * EDTから呼び出すこと。
+     */
+    public SeriesVolume getSeriesVolume() {
+        if (!seriesVolumeRequested && currentSeries != null) {
+            seriesVolumeRequested = true;
+            long maxBytes = AppConfig.getInstance().getVolumeMemoryMb() * 1024L * 1024L;
+            seriesVolume = volumeLoader.load(currentSeries, maxBytes);
+        }
+        return seriesVolume;
+    }
+    
+    /**
+     * 現在のシリーズのボリュームを解放
+     */
+    private void releaseSeriesVolume() {
+        seriesVolumeRequested = false;
+        if (seriesVolume != null) {
+            logger.debug("ボリュームを解放します: {} ({}/{}スライス読み込み済み)", seriesVolume.getSeriesInstanceUID(),
+                seriesVolume.getLoadedSliceCount(), seriesVolume.getDepth());
+            seriesVolume.release();
+            seriesVolume = null;
+        }
+    }
+    
+    /**
+     * スライスキャッシュの状況を取得
+     */
+    public SliceCacheStats getSliceCacheStats() {
+        return sliceCache.getStats();
+    }
+    
+    /**
+     * 読み込んだスライスを表示（EDT）
+     */
+    private void showLoadedSlice(SliceRequest request, Path filePath, BufferedImage image) {
+        if (!isLatest(request)) {
+            return;
+        }
+        Instance instance = request.instance;
+        boolean resetWindowLevel = request.resetWindowLevel;
+        windowLevelResetPending = false;
         
         // 現在のインスタンスを保存（リセット時に使用）
         currentInstance = instance;
+        if (filePath == null) {
+            return;
+        }
+        if (!filePath.equals(instance.getFilePath())) {
+            instance.setFilePath(filePath);
+        }
         
         try {
             // ビット深度を取得
@@ -227,20 +595,6 @@ public class ImageViewerPanel extends JPanel {
                 bitsStored = instance.getBitsStored();
             }
             
-            // ファイルパスを検証し、存在しない場合はストレージベースパス配下を検索
-            Path filePath = instance.getFilePath();
-            if (!Files.exists(filePath)) {
-                Path correctedPath = findFileInStorage(instance);
-                if (correctedPath != null && Files.exists(correctedPath)) {
-                    filePath = correctedPath;
-                    instance.setFilePath(correctedPath);
-                } else {
-                    logger.error("ファイルが見つかりません: {} (SOPInstanceUID: {})", filePath, instance.getSopInstanceUID());
-                    return;
-                }
-            }
-            
-            
             // 新しいシリーズの場合はデフォルトのウィンドウ/レベルを設定
             // 同一シリーズ内のスクロール時は現在のWW/WLを維持
             if (resetWindowLevel) {
@@ -254,10 +608,7 @@ public class ImageViewerPanel extends JPanel {
                 panY = 0;
             }
             
-            // 画像を読み込む
-            originalImage = dicomLoader.loadDicomImage(filePath.toFile(), 
-                    windowCenter, windowWidth);
-            originalImage = applyRoiIfAvailable(originalImage);
+            originalImage = applyRoiIfAvailable(image);
             
             if (originalImage != null) {
                 logger.debug("画像読み込み成功: サイズ={}x{}, SOPInstanceUID={}", 
@@ -272,7 +623,7 @@ public class ImageViewerPanel extends JPanel {
                 processImage();
                 
                 if (processedImage != null) {
-                    logger.info("画像処理完了: サイズ={}x{}", 
+                    logger.debug("画像処理完了: サイズ={}x{}", 
                         processedImage.getWidth(), processedImage.getHeight());
                 } else {
                     logger.warn("画像処理後、processedImageがnullです");
@@ -284,43 +635,48 @@ public class ImageViewerPanel extends JPanel {
                     filePath, instance.getSopInstanceUID());
             }
         } catch (Exception e) {
-            logger.error("インスタンスの読み込み中にエラーが発生しました", e);
+            logger.error("インスタンスの表示中にエラーが発生しました", e);
         }
     }
     
     /**
-     * ストレージベースパス配下でファイルを検索
-     * @param instance インスタンス
-     * @return 見つかったファイルのパス、見つからない場合はnull
+     * スライス読み込み用・先読み用スレッドを停止
      */
-    private Path findFileInStorage(Instance instance) {
-        try {
-            AppConfig appConfig = AppConfig.getInstance();
-            Path storageBasePath = appConfig.getStorageBasePath();
-            
-            if (!Files.exists(storageBasePath)) {
-                return null;
-            }
-            
-            String fileName = instance.getSopInstanceUID() + ".dcm";
-            final Path[] foundPath = new Path[1];
-            java.nio.file.FileVisitor<Path> capturingVisitor = new java.nio.file.SimpleFileVisitor<Path>() {
-                @Override
-                public java.nio.file.FileVisitResult visitFile(Path file, java.nio.file.attribute.BasicFileAttributes attrs) {
-                    if (file.getFileName().toString().equals(fileName)) {
-                        foundPath[0] = file;
-                        return java.nio.file.FileVisitResult.TERMINATE;
-                    }
-                    return java.nio.file.FileVisitResult.CONTINUE;
-                }
-            };
-            
-            Files.walkFileTree(storageBasePath, capturingVisitor);
-            
-            return foundPath[0];
-        } catch (Exception e) {
-            logger.error("ストレージベースパス配下のファイル検索中にエラーが発生しました", e);
-            return null;
+    public void shutdown() {
+        cancelPendingLoad();
+        prefetchGeneration.incrementAndGet();
+        releaseSeriesVolume();
+        sliceLoader.shutdownNow();
+        slicePrefetcher.shutdownNow();
+        volumeLoader.shutdown();
+        bandRenderer.shutdown();
+        repaintTimer.stop();
+        releaseDisplayCache();
+        logger.info("スライスキャッシュ: {}", sliceCache.getStats());
+    }
+    
+    /**
+     * スライスの読み込み要求
+     */
+    private static final class SliceRequest {
+        final InstanceFrame frame;
+        final Instance instance;
+        final boolean resetWindowLevel;
+        final long generation;
+        // 要求時のシリーズのフレーム一覧と位置（シリーズ外の場合は-1）、スクロール方向（1または-1）
+        final List<InstanceFrame> seriesFrames;
+        final int index;
+        final int direction;
+        
+        SliceRequest(InstanceFrame frame, boolean resetWindowLevel, long generation,
+                     List<InstanceFrame> seriesFrames, int index, int direction) {
+            this.frame = frame;
+            this.instance = frame.getInstance();
+            this.resetWindowLevel = resetWindowLevel;
+            this.generation = generation;
+            this.seriesFrames = seriesFrames;
+            this.index = index;
+            this.direction = direction;
         }
     }
     
@@ -335,6 +691,7 @@ public class ImageViewerPanel extends JPanel {
      * DICOMファイルを読み込んで表示（後方互換性のため残す）
      */
     public void loadDicomFile(File file) {
+        cancelPendingLoad();
         try {
             originalImage = dicomLoader.loadDicomImage(file);
             
@@ -490,14 +847,18 @@ public class ImageViewerPanel extends JPanel {
     /**
      * ウィンドウ/レベルを適用して画像を処理
      * 生のピクセルデータ（RAWデータ）に対してウィンドウ/レベルを適用
+     * 格納ピクセル値をキーとしたVOIルックアップテーブルを使用し、出力画像のDataBufferIntへ直接書き込む
+     * 変換は表示時に、表示範囲の未描画のタイルのみに対して行う（{@link #renderVisibleTiles}）
      */
     private void processImage() {
         if (originalImage == null) {
             return;
         }
         
-        int width = originalImage.getWidth();
-        int height = originalImage.getHeight();
+        // 表示倍率に応じた縮小レベルの画像（拡大表示時は元画像）に対してW/Lを適用する
+        final BufferedImage source = getDisplaySource();
+        int width = source.getWidth();
+        int height = source.getHeight();
         
         if (width <= 0 || height <= 0) {
             return;
@@ -508,13 +869,9 @@ public class ImageViewerPanel extends JPanel {
         double rescaleSlope = 1.0;
         double rescaleIntercept = 0.0;
         String photometricInterpretation = "MONOCHROME2";
-        int bitsAllocated = 16;
         int samplesPerPixel = 1;
         
         if (currentInstance != null) {
-            if (currentInstance.getBitsAllocated() != null) {
-                bitsAllocated = currentInstance.getBitsAllocated();
-            }
             if (currentInstance.getRescaleSlope() != null) {
                 rescaleSlope = currentInstance.getRescaleSlope();
             }
@@ -534,76 +891,210 @@ public class ImageViewerPanel extends JPanel {
         
         // カラー画像かどうかを判定（すべての画像でWW/WLを適用）
         boolean isColorImage = (samplesPerPixel == 3 || samplesPerPixel == 4 || "RGB".equals(photometricInterpretation));
+        boolean inverted = "MONOCHROME1".equals(photometricInterpretation);
         
-        processedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-        
-        // ウィンドウ/レベルの計算
-        double wc = windowCenter;
-        double ww = Math.max(0.1, windowWidth);
-        double windowMin = wc - ww / 2.0;
-        double windowMax = wc + ww / 2.0;
+        // 出力画像は同じサイズであれば使い回す（W/L変更・スライス移動のたびに確保しない、EDTでのみ参照されるため安全）
+        if (processedImage == null || processedImage.getWidth() != width || processedImage.getHeight() != height) {
+            processedImage = createDisplayImage(width, height);
+            dirtyTiles.reset(width, height);
+        } else {
+            dirtyTiles.invalidateAll();
+        }
+        processedVersion++;
+        final int[] dst = ((DataBufferInt) processedImage.getRaster().getDataBuffer()).getData();
         
-        // BufferedImageから直接ピクセル値を取得
-        java.awt.image.Raster raster = originalImage.getRaster();
-        int imageType = originalImage.getType();
-        int dataType = originalImage.getSampleModel().getDataType();
+        // ここではLUTの更新のみを行い、画素の変換はpaintComponentで表示範囲の未描画タイルに対してのみ行う
+        int imageType = source.getType();
+        int dataType = source.getSampleModel().getDataType();
         boolean isShortType = (imageType == BufferedImage.TYPE_USHORT_GRAY || 
-                              dataType == java.awt.image.DataBuffer.TYPE_USHORT);
-        
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
-                if (isColorImage) {
-                    // カラー画像：各RGBチャンネルにWW/WLを適用
-                    int rgb = originalImage.getRGB(x, y);
-                    int r = (rgb >> 16) & 0xFF;
-                    int g = (rgb >> 8) & 0xFF;
-                    int b = (rgb) & 0xFF;
-                    
-                    double rescaledR = r * rescaleSlope + rescaleIntercept;
-                    double rescaledG = g * rescaleSlope + rescaleIntercept;
-                    double rescaledB = b * rescaleSlope + rescaleIntercept;
-                    
-                    double normalizedR = (rescaledR < windowMin) ? 0.0 : (rescaledR > windowMax) ? 1.0 : (rescaledR - windowMin) / ww;
-                    double normalizedG = (rescaledG < windowMin) ? 0.0 : (rescaledG > windowMax) ? 1.0 : (rescaledG - windowMin) / ww;
-                    double normalizedB = (rescaledB < windowMin) ? 0.0 : (rescaledB > windowMax) ? 1.0 : (rescaledB - windowMin) / ww;
-                    
-                    int grayR = (int) Math.round(Math.max(0, Math.min(255, normalizedR * 255)));
-                    int grayG = (int) Math.round(Math.max(0, Math.min(255, normalizedG * 255)));
-                    int grayB = (int) Math.round(Math.max(0, Math.min(255, normalizedB * 255)));
-                    
-                    if ("MONOCHROME1".equals(photometricInterpretation)) {
-                        grayR = 255 - grayR;
-                        grayG = 255 - grayG;
-                        grayB = 255 - grayB;
+                              dataType == DataBuffer.TYPE_USHORT);
+        
+        if (isColorImage) {
+            // カラー画像：各RGBチャンネルにWW/WLを適用
+            if (byteLut == null) {
+                byteLut = WindowLevelLut.forByte();
+            }
+            byteLut.update(windowCenter, windowWidth, rescaleSlope, rescaleIntercept, inverted);
+            final WindowLevelLut lut = byteLut;
+            final int[] src = getRgbBackingArray(source);
+            windowLevelTask = (x0, x1, fromRow, toRow) -> {
+                if (src != null) {
+                    for (int y = fromRow; y < toRow; y++) {
+                        lut.applyRgbChannels(src, dst, y * width + x0, y * width + x1);
                     }
-                    
-                    processedImage.setRGB(x, y, (grayR << 16) | (grayG << 8) | grayB);
                 } else {
-                    // グレースケール画像
-                    double rawPixelValue;
-                    if (isShortType) {
-                        int sample = raster.getSample(x, y, 0);
-                        rawPixelValue = isSigned ? sample - 32768 : sample;
-                    } else {
-                        int rgb = originalImage.getRGB(x, y);
-                        int r = (rgb >> 16) & 0xFF;
-                        int g = (rgb >> 8) & 0xFF;
-                        int b = (rgb) & 0xFF;
-                        rawPixelValue = (r + g + b) / 3.0;
+                    int[] rgb = readRgbRegion(source, x0, x1, fromRow, toRow);
+                    for (int y = fromRow; y < toRow; y++) {
+                        lut.applyRgbChannels(rgb, (y - fromRow) * (x1 - x0), dst, y * width + x0, y * width + x1);
                     }
-                    
-                    double rescaledValue = rawPixelValue * rescaleSlope + rescaleIntercept;
-                    double normalizedValue = (rescaledValue < windowMin) ? 0.0 : (rescaledValue > windowMax) ? 1.0 : (rescaledValue - windowMin) / ww;
-                    int grayValue = (int) Math.round(Math.max(0, Math.min(255, normalizedValue * 255)));
-                    
-                    if ("MONOCHROME1".equals(photometricInterpretation)) {
-                        grayValue = 255 - grayValue;
+                }
+            };
+        } else if (isShortType) {
+            // 16bitグレースケール画像：格納値（signedは+32768オフセット済み）をそのままキーにする
+            if (shortLut == null || shortLutSigned != isSigned) {
+                shortLut = WindowLevelLut.forUnsignedShort(isSigned);
+                shortLutSigned = isSigned;
+            }
+            shortLut.update(windowCenter, windowWidth, rescaleSlope, rescaleIntercept, inverted);
+            final WindowLevelLut lut = shortLut;
+            final short[] src = getShortPixels(source);
+            windowLevelTask = (x0, x1, fromRow, toRow) -> {
+                for (int y = fromRow; y < toRow; y++) {
+                    lut.applyUnsignedShort(src, dst, y * width + x0, y * width + x1);
+                }
+            };
+        } else if (imageType == BufferedImage.TYPE_BYTE_GRAY) {
+            // 8bitグレースケール画像：格納値をそのままキーにする
+            if (byteLut == null) {
+                byteLut = WindowLevelLut.forByte();
+            }
+            byteLut.update(windowCenter, windowWidth, rescaleSlope, rescaleIntercept, inverted);
+            final WindowLevelLut lut = byteLut;
+            final byte[] src = getBytePixels(source);
+            windowLevelTask = (x0, x1, fromRow, toRow) -> {
+                for (int y = fromRow; y < toRow; y++) {
+                    lut.applyByte(src, dst, y * width + x0, y * width + x1);
+                }
+            };
+        } else {
+            // その他のグレースケール画像：RGB平均値を生ピクセル値として扱う
+            if (rgbSumLut == null) {
+                rgbSumLut = WindowLevelLut.forRgbSum();
+            }
+            rgbSumLut.update(windowCenter, windowWidth, rescaleSlope, rescaleIntercept, inverted);
+            final WindowLevelLut lut = rgbSumLut;
+            final int[] src = getRgbBackingArray(source);
+            windowLevelTask = (x0, x1, fromRow, toRow) -> {
+                if (src != null) {
+                    for (int y = fromRow; y < toRow; y++) {
+                        lut.applyRgbSum(src, dst, y * width + x0, y * width + x1);
+                    }
+                } else {
+                    int[] rgb = readRgbRegion(source, x0, x1, fromRow, toRow);
+                    for (int y = fromRow; y < toRow; y++) {
+                        lut.applyRgbSum(rgb, (y - fromRow) * (x1 - x0), dst, y * width + x0, y * width + x1);
                     }
-                    
-                    processedImage.setRGB(x, y, (grayValue << 16) | (grayValue << 8) | grayValue);
                 }
+            };
+        }
+    }
+    
+    /**
+     * W/L適用後の画像を作成（表示先のGraphicsConfigurationと互換の形式がTYPE_INT_RGBであればそれを使用する）
+     * 画素はバッキング配列に直接書き込むため、互換形式でなければ通常のTYPE_INT_RGBとする
+     */
+    private BufferedImage createDisplayImage(int width, int height) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc != null) {
+            BufferedImage image = gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+            if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+                return image;
             }
         }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+    
+    /**
+     * 現在の縮小レベルの画像を取得（元画像が変わった場合はピラミッドを作り直す、各レベルは初めて使用するときに作成される）
+     */
+    private BufferedImage getDisplaySource() {
+        if (pyramid == null || pyramid.getBase() != originalImage) {
+            pyramid = new ImagePyramid(originalImage, bandRenderer);
+        }
+        displayLevel = Math.min(displayLevel, pyramid.getMaxLevel());
+        return pyramid.getLevel(displayLevel);
+    }
+    
+    /**
+     * 表示範囲のうち未描画のタイルにウィンドウ/レベルを適用（EDT）
+     * 各領域は行バンドに分割して並列に処理する（各画素は独立しているため、結果は逐次処理と同一）
+     * @param visible 画像座標での表示範囲
+     */
+    private void renderVisibleTiles(Rectangle visible) {
+        RegionTask task = windowLevelTask;
+        if (task == null) {
+            return;
+        }
+        for (Rectangle region : dirtyTiles.takeDirtyRegions(visible)) {
+            int x0 = region.x;
+            int x1 = region.x + region.width;
+            int y0 = region.y;
+            bandRenderer.render(region.width, region.height,
+                (fromRow, toRow) -> task.render(x0, x1, y0 + fromRow, y0 + toRow));
+        }
+    }
+    
+    /**
+     * 元画像の矩形領域にウィンドウ/レベルを適用してprocessedImageへ書き込む処理
+     */
+    private interface RegionTask {
+        /**
+         * 列 x0 〜 x1 - 1、行 fromRow 〜 toRow - 1 を変換
+         */
+        void render(int x0, int x1, int fromRow, int toRow);
+    }
+    
+    /**
+     * 画像の16bit格納値を取得（可能であればバッキング配列を直接返す）
+     */
+    private static short[] getShortPixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        WritableRaster raster = image.getRaster();
+        if (raster.getDataBuffer() instanceof DataBufferUShort
+                && raster.getNumBands() == 1
+                && raster.getParent() == null
+                && raster.getSampleModel() instanceof ComponentSampleModel
+                && ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == width
+                && raster.getDataBuffer().getOffset() == 0) {
+            return ((DataBufferUShort) raster.getDataBuffer()).getData();
+        }
+        return (short[]) raster.getDataElements(0, 0, width, height, null);
+    }
+    
+    /**
+     * 画像の8bit格納値を取得（可能であればバッキング配列を直接返す）
+     */
+    private static byte[] getBytePixels(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        WritableRaster raster = image.getRaster();
+        if (raster.getDataBuffer() instanceof DataBufferByte
+                && raster.getNumBands() == 1
+                && raster.getParent() == null
+                && raster.getSampleModel() instanceof ComponentSampleModel
+                && ((ComponentSampleModel) raster.getSampleModel()).getScanlineStride() == width
+                && raster.getDataBuffer().getOffset() == 0) {
+            return ((DataBufferByte) raster.getDataBuffer()).getData();
+        }
+        return (byte[]) raster.getDataElements(0, 0, width, height, null);
+    }
+    
+    /**
+     * 画像のRGB画素（0xRRGGBB）のバッキング配列を取得
+     * @return バッキング配列、直接参照できない形式の場合はnull（{@link #readRgbRegion}で取得する）
+     */
+    private static int[] getRgbBackingArray(BufferedImage image) {
+        int width = image.getWidth();
+        int imageType = image.getType();
+        WritableRaster raster = image.getRaster();
+        if ((imageType == BufferedImage.TYPE_INT_RGB || imageType == BufferedImage.TYPE_INT_ARGB)
+                && raster.getParent() == null
+                && raster.getSampleModel() instanceof SinglePixelPackedSampleModel
+                && ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride() == width
+                && raster.getDataBuffer().getOffset() == 0) {
+            return ((DataBufferInt) raster.getDataBuffer()).getData();
+        }
+        return null;
+    }
+    
+    /**
+     * 画像の矩形領域のRGB画素をスレッドごとの作業用配列に一括取得（カラーモデル変換は1回の呼び出しでまとめて行う）
+     */
+    private int[] readRgbRegion(BufferedImage image, int x0, int x1, int fromRow, int toRow) {
+        int[] region = bandRenderer.scratch((toRow - fromRow) * (x1 - x0));
+        image.getRGB(x0, fromRow, x1 - x0, toRow - fromRow, region, 0, x1 - x0);
+        return region;
     }
     
     /**
@@ -628,6 +1119,7 @@ public class ImageViewerPanel extends JPanel {
             boolean isShortType = (imageType == BufferedImage.TYPE_USHORT_GRAY || 
                                   dataType == java.awt.image.DataBuffer.TYPE_USHORT);
             boolean isSigned = currentInstance.getPixelRepresentation() != null && currentInstance.getPixelRepresentation() != 0;
+            boolean isByteGray = (imageType == BufferedImage.TYPE_BYTE_GRAY);
             
             // 実際のピクセル値の範囲を計算
             double minValue = Double.MAX_VALUE;
@@ -642,6 +1134,9 @@ public class ImageViewerPanel extends JPanel {
                     if (isShortType) {
                         int sample = raster.getSample(x, y, 0);
                         rawPixelValue = isSigned ? sample - 32768 : sample;
+                    } else if (isByteGray) {
+                        // 8bitグレースケールは格納値をそのまま使用
+                        rawPixelValue = raster.getSample(x, y, 0);
                     } else {
                         int rgb = originalImage.getRGB(x, y);
                         int r = (rgb >> 16) & 0xFF;
@@ -712,7 +1207,7 @@ public class ImageViewerPanel extends JPanel {
             windowCenter += deltaCenter * 2;
             windowWidth = Math.max(1, windowWidth + deltaWidth * 2);
         }
-        reloadImageWithWindowLevel();
+        reapplyWindowLevel();
         notifyWindowLevelChanged();
     }
     
@@ -722,34 +1217,25 @@ public class ImageViewerPanel extends JPanel {
     public void setWindowLevel(double center, double width) {
         windowCenter = center;
         windowWidth = Math.max(1, width);
-        // ウィンドウ/レベルを変更した場合は、画像を再読み込みする
-        reloadImageWithWindowLevel();
+        // ウィンドウ/レベルを変更した場合は、メモリ上のRAWデータに再適用する
+        reapplyWindowLevel();
         notifyWindowLevelChanged();
     }
     
     /**
-     * 現在のウィンドウ/レベルで画像を再読み込み
+     * 現在のウィンドウ/レベルを再適用
+     * デコード済みのRAWピクセルデータ（originalImage）をメモリ上で再処理するのみで、ファイルI/Oは行わない
      */
-    private void reloadImageWithWindowLevel() {
-        if (currentInstance == null || currentInstance.getFilePath() == null) {
-            // インスタンスがない場合は、processImage()のみ実行
-            processImage();
-            repaint();
-            return;
-        }
-        
-        try {
-            originalImage = dicomLoader.loadDicomImage(currentInstance.getFilePath().toFile(), 
-                    windowCenter, windowWidth);
-            originalImage = applyRoiIfAvailable(originalImage);
-            
-            if (originalImage != null) {
-                processImage();
-                repaint();
-            }
-        } catch (Exception e) {
-            logger.error("画像の再読み込み中にエラーが発生しました", e);
-        }
+    private void reapplyWindowLevel() {
+        processImage();
+        requestRepaint();
+    }
+    
+    /**
+     * DICOMファイルの読み込み回数を取得（W/L操作中にディスクアクセスが発生していないことの確認用）
+     */
+    public long getDiskReadCount() {
+        return dicomLoader.getFileReadCount();
     }
     
     /**
@@ -804,8 +1290,8 @@ public class ImageViewerPanel extends JPanel {
         // 現在のインスタンスを使って、シリーズ選択時と同じ初期値にリセット
         if (currentInstance != null) {
             setDefaultWindowLevel(currentInstance);
-            // ウィンドウ/レベルを変更したので、画像を再読み込み
-            reloadImageWithWindowLevel();
+            // ウィンドウ/レベルを変更したので、メモリ上のRAWデータに再適用
+            reapplyWindowLevel();
         } else {
             // インスタンスがない場合はデフォルト値を使用
             setDefaultWindowLevel(null);
@@ -817,6 +1303,7 @@ public class ImageViewerPanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
+        lastPaintNanos = System.nanoTime();
         
         // 背景をクリア（重複描画を防ぐ）
         g.setColor(getBackground());
@@ -831,8 +1318,10 @@ public class ImageViewerPanel extends JPanel {
         if (processedImage != null) {
             int panelWidth = getWidth();
             int panelHeight = getHeight();
-            int imageWidth = processedImage.getWidth();
-            int imageHeight = processedImage.getHeight();
+            // 表示位置・倍率は元画像のサイズで計算する（processedImageは縮小レベルの画像の場合がある）
+            BufferedImage baseImage = originalImage != null ? originalImage : processedImage;
+            int imageWidth = baseImage.getWidth();
+            int imageHeight = baseImage.getHeight();
             
             // パネルのサイズが0の場合は描画しない
             if (panelWidth <= 0 || panelHeight <= 0) {
@@ -850,12 +1339,12 @@ public class ImageViewerPanel extends JPanel {
                 if (fitScale > 0) {
                     baseZoomFactor = fitScale;
                     isInitialDisplay = false;
-                    logger.info("初期表示: 画像サイズ={}x{}, パネルサイズ={}x{}, fitScale={}, baseZoomFactor={}", 
+                    logger.debug("初期表示: 画像サイズ={}x{}, パネルサイズ={}x{}, fitScale={}, baseZoomFactor={}", 
                         imageWidth, imageHeight, panelWidth, panelHeight, fitScale, baseZoomFactor);
                 } else {
                     // fitScaleが0以下の場合（画像がパネルより大きい場合）、1.0を使用
                     baseZoomFactor = 1.0;
-                    logger.warn("fitScaleが0以下: 画像サイズ={}x{}, パネルサイズ={}x{}, baseZoomFactor=1.0に設定", 
+                    logger.debug("fitScaleが0以下: 画像サイズ={}x{}, パネルサイズ={}x{}, baseZoomFactor=1.0に設定", 
                         imageWidth, imageHeight, panelWidth, panelHeight);
                 }
             }
@@ -870,7 +1359,7 @@ public class ImageViewerPanel extends JPanel {
             
             // スケール後のサイズが異常に小さい場合の警告
             if (scaledWidth < 10 || scaledHeight < 10) {
-                logger.error("スケール後の画像サイズが異常に小さい: 元のサイズ={}x{}, スケール後={}x{}, baseZoomFactor={}, zoomFactor={}, effectiveZoom={}", 
+                logger.debug("スケール後の画像サイズが異常に小さい: 元のサイズ={}x{}, スケール後={}x{}, baseZoomFactor={}, zoomFactor={}, effectiveZoom={}", 
                     imageWidth, imageHeight, scaledWidth, scaledHeight, baseZoomFactor, zoomFactor, effectiveZoom);
             }
             
@@ -888,7 +1377,7 @@ public class ImageViewerPanel extends JPanel {
             
             // デバッグログ（画像サイズが異常に小さい場合を検出）
             if (scaledWidth < panelWidth / 3.0 || scaledHeight < panelHeight / 3.0) {
-                logger.warn("画像サイズが異常に小さい可能性: 画像={}x{}, スケール後={}x{}, パネル={}x{}, baseZoomFactor={}, zoomFactor={}, effectiveZoom={}", 
+                logger.debug("画像サイズが異常に小さい可能性: 画像={}x{}, スケール後={}x{}, パネル={}x{}, baseZoomFactor={}, zoomFactor={}, effectiveZoom={}", 
                     imageWidth, imageHeight, scaledWidth, scaledHeight, panelWidth, panelHeight, 
                     baseZoomFactor, zoomFactor, effectiveZoom);
             }
@@ -898,12 +1387,12 @@ public class ImageViewerPanel extends JPanel {
             g2d.setClip(0, 0, panelWidth, panelHeight);
             
             // 画像を描画（1回のみ、絶対に1回だけ）
-            logger.info("画像描画: 位置=({}, {}), サイズ={}x{}, 元のサイズ={}x{}, パネル={}x{}", 
+            logger.debug("画像描画: 位置=({}, {}), サイズ={}x{}, 元のサイズ={}x{}, パネル={}x{}", 
                 (int)drawX, (int)drawY, (int)scaledWidth, (int)scaledHeight, imageWidth, imageHeight, panelWidth, panelHeight);
             
             // 画像が異常に小さい場合、強制的にパネルサイズに合わせる（デバッグ用）
             if (scaledWidth < panelWidth / 2.0 || scaledHeight < panelHeight / 2.0) {
-                logger.warn("画像サイズが異常に小さいため、強制的にパネルサイズに合わせます");
+                logger.debug("画像サイズが異常に小さいため、強制的にパネルサイズに合わせます");
                 // アスペクト比を維持してパネルに収める
                 double aspectRatio = (double) imageWidth / imageHeight;
                 double panelAspectRatio = (double) panelWidth / panelHeight;
@@ -917,11 +1406,20 @@ public class ImageViewerPanel extends JPanel {
                 }
                 drawX = (panelWidth - scaledWidth) / 2.0;
                 drawY = (panelHeight - scaledHeight) / 2.0;
-                logger.info("修正後: 位置=({}, {}), サイズ={}x{}", (int)drawX, (int)drawY, (int)scaledWidth, (int)scaledHeight);
+                logger.debug("修正後: 位置=({}, {}), サイズ={}x{}", (int)drawX, (int)drawY, (int)scaledWidth, (int)scaledHeight);
+            }
+            
+            // 表示倍率に対応する縮小レベルに切り替え（W/Lはそのレベルの画像に対して適用し直す）
+            if (pyramid != null && pyramid.getBase() == originalImage) {
+                int level = pyramid.levelFor(scaledWidth / imageWidth);
+                if (level != displayLevel) {
+                    logger.debug("縮小レベルを変更: {} -> {} (表示倍率={})", displayLevel, level, scaledWidth / imageWidth);
+                    displayLevel = level;
+                    processImage();
+                }
             }
             
-            g2d.drawImage(processedImage, (int) drawX, (int) drawY, 
-                         (int) scaledWidth, (int) scaledHeight, null);
+            drawCachedImage(g2d, drawX, drawY, scaledWidth, scaledHeight, panelWidth, panelHeight);
             
             // クリッピング領域を復元
             g2d.setClip(oldClip);
@@ -942,6 +1440,96 @@ public class ImageViewerPanel extends JPanel {
         }
     }
     
+    /**
+     * 拡大縮小済みの表示画像をVolatileImage（displayCache）に保持して描画
+     * 表示位置・サイズ・processedImageが前回と同じ場合（オーバーレイのみの変更、ウィンドウの再表示など）は転送のみを行う
+     * VolatileImageを使用できない場合（GraphicsConfigurationがない場合）は直接描画する
+     */
+    private void drawCachedImage(Graphics2D g2d, double drawX, double drawY, double scaledWidth, double scaledHeight,
+                                 int panelWidth, int panelHeight) {
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        if (gc == null) {
+            drawVisibleRegion(g2d, drawX, drawY, scaledWidth, scaledHeight, panelWidth, panelHeight);
+            return;
+        }
+        boolean valid = displayCache != null && displayCacheVersion == processedVersion
+            && displayCacheBounds.x == drawX && displayCacheBounds.y == drawY
+            && displayCacheBounds.width == scaledWidth && displayCacheBounds.height == scaledHeight;
+        do {
+            if (displayCache == null || displayCache.getWidth() != panelWidth || displayCache.getHeight() != panelHeight) {
+                releaseDisplayCache();
+                displayCache = gc.createCompatibleVolatileImage(panelWidth, panelHeight, Transparency.OPAQUE);
+                valid = false;
+            }
+            int status = displayCache.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                releaseDisplayCache();
+                displayCache = gc.createCompatibleVolatileImage(panelWidth, panelHeight, Transparency.OPAQUE);
+                valid = false;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                valid = false;
+            }
+            if (!valid) {
+                Graphics2D cacheGraphics = displayCache.createGraphics();
+                try {
+                    cacheGraphics.setColor(getBackground());
+                    cacheGraphics.fillRect(0, 0, panelWidth, panelHeight);
+                    cacheGraphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                                                   RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    cacheGraphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+                                                   RenderingHints.VALUE_RENDER_QUALITY);
+                    drawVisibleRegion(cacheGraphics, drawX, drawY, scaledWidth, scaledHeight, panelWidth, panelHeight);
+                } finally {
+                    cacheGraphics.dispose();
+                }
+                displayCacheBounds.setRect(drawX, drawY, scaledWidth, scaledHeight);
+                displayCacheVersion = processedVersion;
+                valid = true;
+            }
+            g2d.drawImage(displayCache, 0, 0, null);
+            // 転送中に内容が失われた場合（画面モードの変更など）は描画し直す
+            if (displayCache.contentsLost()) {
+                valid = false;
+            }
+        } while (!valid);
+    }
+    
+    /**
+     * 表示画像のキャッシュ（VolatileImage）を解放
+     */
+    private void releaseDisplayCache() {
+        if (displayCache != null) {
+            displayCache.flush();
+            displayCache = null;
+        }
+        displayCacheVersion = -1;
+    }
+    
+    /**
+     * 画像のうちパネルに表示される範囲のみを、未描画のタイルを変換したうえで拡大縮小して描画
+     * 拡大表示中は表示範囲外の画素の変換・補間を行わない
+     */
+    private void drawVisibleRegion(Graphics2D g2d, double drawX, double drawY, double scaledWidth, double scaledHeight,
+                                   int panelWidth, int panelHeight) {
+        int imageWidth = processedImage.getWidth();
+        int imageHeight = processedImage.getHeight();
+        double scaleX = scaledWidth / imageWidth;
+        double scaleY = scaledHeight / imageHeight;
+        
+        // パネルの範囲を画像座標に変換（バイリニア補間で参照される隣接画素のため1画素広げる）
+        int x0 = Math.max(0, (int) Math.floor(-drawX / scaleX) - 1);
+        int y0 = Math.max(0, (int) Math.floor(-drawY / scaleY) - 1);
+        int x1 = Math.min(imageWidth, (int) Math.ceil((panelWidth - drawX) / scaleX) + 1);
+        int y1 = Math.min(imageHeight, (int) Math.ceil((panelHeight - drawY) / scaleY) + 1);
+        if (x0 >= x1 || y0 >= y1) {
+            return;
+        }
+        
+        renderVisibleTiles(new Rectangle(x0, y0, x1 - x0, y1 - y0));
+        AffineTransform transform = new AffineTransform(scaleX, 0, 0, scaleY, drawX + x0 * scaleX, drawY + y0 * scaleY);
+        g2d.drawImage(processedImage.getSubimage(x0, y0, x1 - x0, y1 - y0), transform, null);
+    }
+    
     /**
      * オーバーレイ情報を描画
      */
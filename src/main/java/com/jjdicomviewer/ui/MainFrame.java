@@ -1,12 +1,17 @@
 package com.jjdicomviewer.ui;
 
+import com.jjdicomviewer.config.AppConfig;
 import com.jjdicomviewer.core.ImportService;
 import com.jjdicomviewer.core.Instance;
+import com.jjdicomviewer.core.InstanceFrame;
 import com.jjdicomviewer.core.Series;
+import com.jjdicomviewer.core.StorageReconciler;
 import com.jjdicomviewer.core.Study;
 import com.jjdicomviewer.i18n.Messages;
 import com.jjdicomviewer.storage.DatabaseManager;
+import com.jjdicomviewer.storage.StorageIndex;
 import com.jjdicomviewer.storage.StudyRepository;
+import com.jjdicomviewer.storage.StudySearchCriteria;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,11 +19,16 @@ import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.List;
 
 /**
@@ -30,15 +40,29 @@ public class MainFrame extends JFrame {
     private final Messages messages = Messages.getInstance(); // 静的フィールドではなくインスタンスフィールドに変更
     private static final int DEFAULT_WIDTH = 1200;
     private static final int DEFAULT_HEIGHT = 800;
+    // 検索語の入力が止まってから検索を実行するまでの待ち時間（ミリ秒）
+    private static final int SEARCH_DELAY_MS = 250;
+    // 検索用モダリティの選択肢（先頭は「全モダリティ」）
+    private static final String[] SEARCH_MODALITIES = {"", "CT", "MR", "CR", "DX", "US", "XA", "RF", "NM", "PT", "MG", "OT"};
+    // 検索用検査日の入力形式（区切りの'-'・'/'は取り除いてから解釈する）
+    private static final DateTimeFormatter SEARCH_DATE_FORMATTER = DateTimeFormatter.ofPattern("uuuuMMdd")
+        .withResolverStyle(ResolverStyle.STRICT);
 
     // データベース
     private DatabaseManager dbManager;
     private StudyRepository studyRepository;
     private ImportService importService;
+    private StorageIndex storageIndex;
+    private StorageReconciler storageReconciler;
     
     // UIコンポーネント
     private JList<Study> studyListView;
-    private DefaultListModel<Study> studyListModel;
+    private StudyListModel studyListModel;
+    private JTextField searchField;
+    private JComboBox<String> modalityCombo;
+    private JTextField dateFromField;
+    private JTextField dateToField;
+    private Timer searchTimer;
     private JList<String> seriesListView;
     private DefaultListModel<String> seriesListModel;
     private ImageViewerPanel imageViewerPanel;
@@ -50,14 +74,21 @@ public class MainFrame extends JFrame {
     private JButton resetButton;
     private JSlider sliceSlider;
     private JLabel sliceLabel;
+    private JButton cineButton;
+    private JComboBox<CinePlayer.Mode> cineModeCombo;
     private JLabel statusLabel;
+    private JLabel cineStatusLabel;
     private JProgressBar progressBar;
     
     // 現在の選択
     private Study currentStudy;
     private Series currentSeries;
-    private List<Instance> currentInstances;
-    private int currentInstanceIndex = 0;
+    // 現在のシリーズのフレーム一覧（マルチフレームのInstanceはフレーム数分）
+    private List<InstanceFrame> currentFrames;
+    private int currentFrameIndex = 0;
+    
+    // シネ再生（現在のシリーズのフレームを順に表示）
+    private CinePlayer cinePlayer;
 
     public MainFrame() {
         initializeDatabase();
@@ -79,6 +110,9 @@ public class MainFrame extends JFrame {
             dbManager = new DatabaseManager();
             studyRepository = new StudyRepository(dbManager);
             importService = new ImportService(dbManager);
+            storageIndex = new StorageIndex(dbManager);
+            // 照合はストレージ全体を走査するため起動時には行わない（メニューから実行、またはファイルが見つからない場合に実行）
+            storageReconciler = new StorageReconciler(storageIndex);
             logger.info(messages.get("message.info.database_initialized"));
         } catch (Exception e) {
             logger.error(messages.get("message.error.database_init_failed", e.getMessage()), e);
@@ -91,15 +125,58 @@ public class MainFrame extends JFrame {
 
     private void initializeComponents() {
         // スタディ一覧
-        studyListModel = new DefaultListModel<>();
+        // 表示範囲のページのみをデータベースから取得する仮想モデル
+        studyListModel = new StudyListModel(studyRepository);
         studyListView = new JList<>(studyListModel);
         studyListView.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // セルサイズを固定し、全件のサイズ計算（全ページの読み込み）を避ける
+        studyListView.setPrototypeCellValue(createPrototypeStudy());
         studyListView.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 onStudySelected(studyListView.getSelectedValue());
             }
         });
         
+        // スタディ検索（入力のたびに検索せず、入力が止まってから検索する）
+        searchTimer = new Timer(SEARCH_DELAY_MS, e -> applySearch());
+        searchTimer.setRepeats(false);
+        javax.swing.event.DocumentListener searchInputListener = new javax.swing.event.DocumentListener() {
+            @Override
+            public void insertUpdate(javax.swing.event.DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) {
+                searchTimer.restart();
+            }
+            
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) {
+                searchTimer.restart();
+            }
+        };
+        ActionListener searchNowListener = e -> {
+            searchTimer.stop();
+            applySearch();
+        };
+        searchField = new JTextField();
+        searchField.setToolTipText(messages.get("panel.search.tooltip"));
+        searchField.getDocument().addDocumentListener(searchInputListener);
+        searchField.addActionListener(searchNowListener);
+        dateFromField = createSearchDateField(searchInputListener, searchNowListener);
+        dateToField = createSearchDateField(searchInputListener, searchNowListener);
+        modalityCombo = new JComboBox<>(SEARCH_MODALITIES);
+        modalityCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object text = "".equals(value) ? messages.get("panel.search.modality_all") : value;
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        modalityCombo.addActionListener(e -> applySearch());
+        
         // シリーズ一覧
         seriesListModel = new DefaultListModel<>();
         seriesListView = new JList<>(seriesListModel);
@@ -115,24 +192,33 @@ public class MainFrame extends JFrame {
         imageViewerPanel.setSliceChangeCallback(new ImageViewerPanel.SliceChangeCallback() {
             @Override
             public void onNextSlice() {
-                if (currentInstances != null && currentInstanceIndex < currentInstances.size() - 1) {
-                    gotoSlice(currentInstanceIndex + 1);
+                if (currentFrames != null && currentFrameIndex < currentFrames.size() - 1) {
+                    gotoSlice(currentFrameIndex + 1);
                 }
             }
             
             @Override
             public void onPreviousSlice() {
-                if (currentInstances != null && currentInstanceIndex > 0) {
-                    gotoSlice(currentInstanceIndex - 1);
+                if (currentFrames != null && currentFrameIndex > 0) {
+                    gotoSlice(currentFrameIndex - 1);
                 }
             }
         });
         
+        // ファイルが移動されていた場合はストレージ索引からパスを解決
+        imageViewerPanel.setMissingFileResolver(this::resolveMissingFile);
+        
         // WW/WL変更コールバックを設定
         imageViewerPanel.setWindowLevelChangeCallback((center, width) -> {
             updateControlPanel();
         });
         
+        // シネ再生（デコードはシネ再生用スレッド、表示はビューアで行う）
+        AppConfig appConfig = AppConfig.getInstance();
+        cinePlayer = new CinePlayer(imageViewerPanel::decodeFrame, this::showCineFrame,
+            appConfig.getCineFps(), appConfig.getCineBufferFrames());
+        cinePlayer.setStatsListener(this::updateCineStatus);
+        
         // コントロールパネル
         setupControlPanel();
     }
@@ -157,6 +243,17 @@ public class MainFrame extends JFrame {
         // 左側：スタディ一覧
         JPanel studyPanel = new JPanel(new BorderLayout());
         studyPanel.setBorder(BorderFactory.createTitledBorder(messages.get("panel.study_list")));
+        JPanel searchPanel = new JPanel(new BorderLayout(4, 0));
+        searchPanel.add(new JLabel(messages.get("panel.search.label")), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        filterPanel.add(new JLabel(messages.get("panel.search.date_label")));
+        filterPanel.add(dateFromField);
+        filterPanel.add(new JLabel("〜"));
+        filterPanel.add(dateToField);
+        filterPanel.add(modalityCombo);
+        searchPanel.add(filterPanel, BorderLayout.SOUTH);
+        studyPanel.add(searchPanel, BorderLayout.NORTH);
         studyPanel.add(new JScrollPane(studyListView), BorderLayout.CENTER);
         leftSplitPane.setLeftComponent(studyPanel);
         
@@ -228,6 +325,22 @@ public class MainFrame extends JFrame {
         
         sliceLabel = new JLabel(messages.get("control.slice.format", 0, 0));
         
+        // シネ再生の開始/停止と再生モード
+        cineButton = new JButton(messages.get("control.cine.play"));
+        cineButton.setEnabled(false);
+        cineButton.addActionListener(e -> toggleCine());
+        cineModeCombo = new JComboBox<>(CinePlayer.Mode.values());
+        cineModeCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                Object text = value == CinePlayer.Mode.BOUNCE
+                    ? messages.get("control.cine.mode_bounce") : messages.get("control.cine.mode_loop");
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        cineModeCombo.addActionListener(e -> cinePlayer.setMode((CinePlayer.Mode) cineModeCombo.getSelectedItem()));
+        
         // ウィンドウ/レベル入力のイベントハンドラ
         wlActionListener = e -> {
             try {
@@ -260,6 +373,8 @@ public class MainFrame extends JFrame {
         sliceSlider.setPreferredSize(new Dimension(200, 40));
         topPanel.add(sliceSlider);
         topPanel.add(sliceLabel);
+        topPanel.add(cineButton);
+        topPanel.add(cineModeCombo);
         
         topPanel.add(Box.createHorizontalStrut(20));
         
@@ -288,6 +403,8 @@ public class MainFrame extends JFrame {
         JPanel statusBar = new JPanel(new BorderLayout());
         statusLabel = new JLabel(messages.get("panel.status_ready"));
         statusBar.add(statusLabel, BorderLayout.WEST);
+        cineStatusLabel = new JLabel();
+        statusBar.add(cineStatusLabel, BorderLayout.EAST);
         statusBar.setBorder(BorderFactory.createLoweredBevelBorder());
         return statusBar;
     }
@@ -323,9 +440,22 @@ public class MainFrame extends JFrame {
                 java.awt.event.InputEvent.CTRL_DOWN_MASK));
         importMenuItem.addActionListener(e -> handleImport());
 
+        JMenuItem reconcileMenuItem = new JMenuItem(messages.get("menu.file.reconcile_storage"));
+        reconcileMenuItem.setMnemonic('R');
+        reconcileMenuItem.addActionListener(e -> {
+            if (storageReconciler != null) {
+                storageReconciler.requestReconcile();
+            }
+        });
+
         JMenuItem exitMenuItem = new JMenuItem(messages.get("menu.file.exit"));
         exitMenuItem.setMnemonic('X');
         exitMenuItem.addActionListener(e -> {
+            cinePlayer.shutdown();
+            imageViewerPanel.shutdown();
+            if (storageReconciler != null) {
+                storageReconciler.shutdown();
+            }
             if (dbManager != null) {
                 dbManager.close();
             }
@@ -333,6 +463,7 @@ public class MainFrame extends JFrame {
         });
 
         fileMenu.add(importMenuItem);
+        fileMenu.add(reconcileMenuItem);
         fileMenu.addSeparator();
         fileMenu.add(exitMenuItem);
 
@@ -474,6 +605,9 @@ public class MainFrame extends JFrame {
             
             // データベースから削除（ファイル削除の有無に関わらず）
             studyRepository.deleteStudy(studyUID);
+            if (deleteFiles) {
+                storageIndex.removeStudy(studyUID);
+            }
             
             if (deleteFiles) {
                 logger.info("スタディを削除しました: {} (DB+DCM、ファイル: {}件削除, {}件失敗)", 
@@ -574,17 +708,90 @@ public class MainFrame extends JFrame {
         worker.execute();
     }
     
+    /**
+     * スタディ一覧のセルサイズ計算用のStudy
+     */
+    private static Study createPrototypeStudy() {
+        Study prototype = new Study();
+        prototype.setPatientName("XXXXXXXXXXXXXXXXXXXXXXXX");
+        prototype.setStudyDate(java.time.LocalDate.of(2000, 12, 31));
+        prototype.setStudyDescription("XXXXXXXXXXXXXXXXXXXX");
+        return prototype;
+    }
+    
+    /**
+     * 見つからないファイルのパスをストレージ索引から解決し、データベースのパスを更新
+     * 索引にない場合や索引のパスも存在しない場合は、バックグラウンドで索引の照合を要求する（前回の照合から一定時間内は行わない）
+     */
+    private Path resolveMissingFile(Instance instance) {
+        try {
+            Path indexedPath = storageIndex.findPath(instance.getSopInstanceUID());
+            if (indexedPath != null && java.nio.file.Files.exists(indexedPath)) {
+                studyRepository.updateInstanceFilePath(instance.getSopInstanceUID(), indexedPath);
+                logger.info("ファイルのパスを更新しました: {} -> {} (SOPInstanceUID: {})",
+                    instance.getFilePath(), indexedPath, instance.getSopInstanceUID());
+                return indexedPath;
+            }
+        } catch (SQLException e) {
+            logger.error("ストレージ索引の検索に失敗しました: {}", instance.getSopInstanceUID(), e);
+        }
+        storageReconciler.requestReconcileIfDue();
+        return null;
+    }
+    
+    /**
+     * 検索欄の内容で検索条件を設定し、スタディリストを更新
+     */
+    private void applySearch() {
+        StudySearchCriteria criteria = new StudySearchCriteria();
+        criteria.setText(searchField.getText());
+        criteria.setModality((String) modalityCombo.getSelectedItem());
+        criteria.setStudyDateFrom(parseSearchDate(dateFromField));
+        criteria.setStudyDateTo(parseSearchDate(dateToField));
+        studyListModel.setSearchCriteria(criteria);
+        refreshStudyList();
+    }
+    
+    /**
+     * 検査日の入力欄を作成（入力が止まってから検索し、Enterで即時検索する）
+     */
+    private JTextField createSearchDateField(javax.swing.event.DocumentListener inputListener,
+                                             ActionListener actionListener) {
+        JTextField field = new JTextField(8);
+        field.setToolTipText(messages.get("panel.search.date_tooltip"));
+        field.getDocument().addDocumentListener(inputListener);
+        field.addActionListener(actionListener);
+        return field;
+    }
+    
+    /**
+     * 検査日の入力欄を解釈（空欄または解釈できない場合はnullとし、条件に含めない）
+     * 解釈できない入力は文字色を赤にして示す
+     */
+    private LocalDate parseSearchDate(JTextField field) {
+        String text = field.getText().replaceAll("[-/\\s]", "");
+        LocalDate date = null;
+        if (!text.isEmpty()) {
+            try {
+                date = LocalDate.parse(text, SEARCH_DATE_FORMATTER);
+            } catch (DateTimeParseException e) {
+                logger.debug("検査日を解釈できません: {}", field.getText());
+            }
+        }
+        field.setForeground(text.isEmpty() || date != null
+            ? UIManager.getColor("TextField.foreground") : Color.RED);
+        return date;
+    }
+    
     /**
      * スタディリストを更新
      */
     private void refreshStudyList() {
         try {
-            List<Study> studies = studyRepository.findAllStudies();
-            studyListModel.clear();
-            for (Study study : studies) {
-                studyListModel.addElement(study);
-            }
-            statusLabel.setText(messages.get("status.studies_loaded", studies.size()));
+            int studyCount = studyListModel.refresh();
+            statusLabel.setText(studyListModel.isSearching()
+                ? messages.get("status.studies_found", studyCount)
+                : messages.get("status.studies_loaded", studyCount));
         } catch (SQLException e) {
             logger.error(messages.get("status.study_list_update_failed"), e);
             JOptionPane.showMessageDialog(this, 
@@ -601,10 +808,12 @@ public class MainFrame extends JFrame {
         String studyUID = study != null ? study.getStudyInstanceUID() : "null";
         logger.info(messages.get("message.info.study_selected", studyUID));
         
+        stopCine();
+        cineButton.setEnabled(false);
         this.currentStudy = study;
         this.currentSeries = null;
-        this.currentInstances = null;
-        currentInstanceIndex = 0;
+        this.currentFrames = null;
+        currentFrameIndex = 0;
         
         // ビューアをクリア
         imageViewerPanel.loadSeries(null);
@@ -619,8 +828,8 @@ public class MainFrame extends JFrame {
         }
         
         try {
-            // シリーズリストを更新
-            study.setSeriesList(studyRepository.findSeriesByStudyUID(study.getStudyInstanceUID()));
+            // シリーズリストを更新（Instanceはシリーズ選択時に読み込む）
+            study.setSeriesList(studyRepository.findSeriesSummariesByStudyUID(study.getStudyInstanceUID()));
             
             seriesListModel.clear();
             for (Series series : study.getSeriesList()) {
@@ -661,24 +870,44 @@ public class MainFrame extends JFrame {
         Series selectedSeries = currentStudy.getSeriesList().get(selectedIndex);
         logger.info(messages.get("message.info.series_selected", selectedSeries.getSeriesInstanceUID()));
         
+        // Instanceが未読み込みの場合は読み込む
+        if (selectedSeries.getInstanceList().isEmpty() && selectedSeries.getInstanceCount() > 0) {
+            try {
+                selectedSeries.setInstanceList(
+                    studyRepository.findInstancesBySeriesUID(selectedSeries.getSeriesInstanceUID()));
+            } catch (SQLException e) {
+                logger.error(messages.get("status.series_list_load_failed"), e);
+                JOptionPane.showMessageDialog(this, 
+                    messages.get("status.series_list_load_failed", e.getMessage()), 
+                    messages.get("message.error.title"), 
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        
+        stopCine();
         this.currentSeries = selectedSeries;
-        this.currentInstances = selectedSeries.getInstanceList();
-        currentInstanceIndex = 0;
+        List<Instance> instances = selectedSeries.getInstanceList();
+        currentFrameIndex = 0;
         
-        // インスタンスをソート（InstanceNumber順）
-        if (currentInstances != null) {
-            currentInstances.sort((a, b) -> {
+        // インスタンスをソート（InstanceNumber順）し、フレーム単位に展開
+        if (instances != null) {
+            instances.sort((a, b) -> {
                 int numA = a.getInstanceNumber() != null ? a.getInstanceNumber() : 0;
                 int numB = b.getInstanceNumber() != null ? b.getInstanceNumber() : 0;
                 return Integer.compare(numA, numB);
             });
+            this.currentFrames = InstanceFrame.expand(instances);
+        } else {
+            this.currentFrames = null;
         }
         
-        // スライダーを更新
-        int instanceCount = currentInstances != null ? currentInstances.size() : 0;
-        sliceSlider.setMaximum(Math.max(0, instanceCount - 1));
+        // スライダーを更新（マルチフレームの場合は全フレームを対象とする）
+        int frameCount = currentFrames != null ? currentFrames.size() : 0;
+        sliceSlider.setMaximum(Math.max(0, frameCount - 1));
         sliceSlider.setValue(0);
         updateSliceLabel();
+        cineButton.setEnabled(frameCount > 1);
         
         // ビューアに読み込む（新しいシリーズなのでWW/WLをリセット）
         imageViewerPanel.loadSeries(selectedSeries);
@@ -696,31 +925,88 @@ public class MainFrame extends JFrame {
      * 指定されたスライスに移動
      */
     private void gotoSlice(int index) {
-        if (currentInstances == null || index < 0 || index >= currentInstances.size()) {
+        if (currentFrames == null || index < 0 || index >= currentFrames.size()) {
             return;
         }
+        // 手動でスライスを移動した場合はシネ再生を停止
+        stopCine();
         
-        // スライダーの値が異なる場合のみ更新（無限ループを防ぐ）
+        setSliderValue(index);
+        currentFrameIndex = index;
+        // 同一シリーズ内のスクロールなので、WW/WLを維持
+        imageViewerPanel.loadFrame(currentFrames.get(index), false);
+        updateSliceLabel();
+    }
+    
+    /**
+     * スライダーの値を更新（値が異なる場合のみ、ChangeListenerを一時的に削除して無限ループを防ぐ）
+     */
+    private void setSliderValue(int index) {
         if (sliceSlider.getValue() != index) {
-            // ChangeListenerを一時的に削除してから値を更新
             sliceSlider.removeChangeListener(sliceSliderChangeListener);
             sliceSlider.setValue(index);
             sliceSlider.addChangeListener(sliceSliderChangeListener);
         }
-        
-        currentInstanceIndex = index;
-        Instance instance = currentInstances.get(index);
-        // 同一シリーズ内のスクロールなので、WW/WLを維持
-        imageViewerPanel.loadInstance(instance, false);
+    }
+    
+    /**
+     * シネ再生の開始/停止を切り替え（現在のスライスから再生する）
+     */
+    private void toggleCine() {
+        if (cinePlayer.isPlaying()) {
+            stopCine();
+            return;
+        }
+        if (currentFrames == null || currentFrames.size() < 2) {
+            return;
+        }
+        cinePlayer.play(currentFrames, currentFrameIndex);
+        cineButton.setText(messages.get("control.cine.stop"));
+    }
+    
+    /**
+     * シネ再生を停止（表示中のフレームはそのまま）
+     */
+    private void stopCine() {
+        if (cinePlayer.isPlaying()) {
+            cinePlayer.stop();
+        }
+        cineButton.setText(messages.get("control.cine.play"));
+    }
+    
+    /**
+     * シネ再生のフレームを表示（EDT）
+     */
+    private void showCineFrame(int index, InstanceFrame frame, BufferedImage image) {
+        if (currentFrames == null || index >= currentFrames.size()) {
+            return;
+        }
+        setSliderValue(index);
+        currentFrameIndex = index;
+        imageViewerPanel.showDecodedFrame(frame, index, image);
         updateSliceLabel();
     }
     
+    /**
+     * ステータスバーのシネ再生の情報を更新（EDT）
+     */
+    private void updateCineStatus(CineStats stats) {
+        if (stats.isBuffering()) {
+            cineStatusLabel.setText(messages.get("control.cine.buffering",
+                stats.getBufferedFrames(), stats.getBufferCapacity()));
+        } else {
+            cineStatusLabel.setText(messages.get("control.cine.status",
+                String.format("%.1f", stats.getAchievedFps()), String.format("%.1f", stats.getTargetFps()),
+                stats.getDroppedFrames()));
+        }
+    }
+    
     /**
      * スライスラベルを更新
      */
     private void updateSliceLabel() {
-        int total = currentInstances != null ? currentInstances.size() : 0;
-        sliceLabel.setText(messages.get("control.slice.format", currentInstanceIndex + 1, total));
+        int total = currentFrames != null ? currentFrames.size() : 0;
+        sliceLabel.setText(messages.get("control.slice.format", currentFrameIndex + 1, total));
     }
 
     /**
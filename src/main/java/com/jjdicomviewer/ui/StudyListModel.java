@@ -0,0 +1,143 @@
+package com.jjdicomviewer.ui;
+
+import com.jjdicomviewer.core.Study;
+import com.jjdicomviewer.storage.StudyPage;
+import com.jjdicomviewer.storage.StudyPageCursor;
+import com.jjdicomviewer.storage.StudyRepository;
+import com.jjdicomviewer.storage.StudySearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.AbstractListModel;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * スタディ一覧の仮想ListModel
+ * 全件を保持せず、表示に必要なページのみをデータベースから取得してキャッシュする
+ *
+ * 直前のページのカーソルがある場合はキーセットページングで、
+ * ない場合（スクロールバーで離れた位置へ移動した場合）はOFFSET指定で取得する。
+ * JListには固定のセルサイズ（setPrototypeCellValue等）を設定すること（全件の描画サイズ計算を避けるため）。
+ *
+ * 検索条件が設定されている場合は、条件に一致するStudy（上限 {@link #SEARCH_LIMIT} 件）のみを表示する。
+ */
+public class StudyListModel extends AbstractListModel<Study> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudyListModel.class);
+
+    // 1ページの件数
+    static final int PAGE_SIZE = 200;
+    // キャッシュするページ数の上限
+    private static final int MAX_CACHED_PAGES = 20;
+    // 検索結果の件数の上限
+    static final int SEARCH_LIMIT = 1000;
+
+    private final StudyRepository studyRepository;
+    private int size = 0;
+    // 検索条件（nullの場合は全件表示）と検索結果
+    private StudySearchCriteria searchCriteria;
+    private List<Study> searchResults;
+
+    // ページ番号 -> ページ（アクセス順、上限を超えたら古いページから破棄）
+    private final Map<Integer, StudyPage> pageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, StudyPage> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+
+    public StudyListModel(StudyRepository studyRepository) {
+        this.studyRepository = studyRepository;
+    }
+
+    /**
+     * 検索条件を設定（nullまたは空の条件の場合は全件表示）
+     * 反映するには {@link #refresh()} を呼び出すこと
+     */
+    public void setSearchCriteria(StudySearchCriteria criteria) {
+        this.searchCriteria = criteria != null && !criteria.isEmpty() ? criteria : null;
+    }
+
+    /**
+     * 検索条件で絞り込んでいるかどうか
+     */
+    public boolean isSearching() {
+        return searchCriteria != null;
+    }
+
+    /**
+     * 件数（検索中は検索結果）を再取得し、キャッシュを破棄して一覧を更新
+     * @return Study数
+     */
+    public int refresh() throws SQLException {
+        List<Study> newResults = null;
+        int newSize;
+        if (searchCriteria != null) {
+            newResults = studyRepository.searchStudies(searchCriteria, SEARCH_LIMIT);
+            newSize = newResults.size();
+        } else {
+            newSize = studyRepository.countStudies();
+        }
+        int oldSize = size;
+
+        pageCache.clear();
+        searchResults = newResults;
+        size = 0;
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        size = newSize;
+        if (newSize > 0) {
+            fireIntervalAdded(this, 0, newSize - 1);
+        }
+        return newSize;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public Study getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        if (searchResults != null) {
+            return searchResults.get(index);
+        }
+        StudyPage page = getPage(index / PAGE_SIZE);
+        if (page == null) {
+            return null;
+        }
+        int offsetInPage = index % PAGE_SIZE;
+        return offsetInPage < page.getStudies().size() ? page.getStudies().get(offsetInPage) : null;
+    }
+
+    private StudyPage getPage(int pageIndex) {
+        StudyPage page = pageCache.get(pageIndex);
+        if (page != null) {
+            return page;
+        }
+
+        try {
+            StudyPage previous = pageIndex > 0 ? pageCache.get(pageIndex - 1) : null;
+            StudyPageCursor cursor = previous != null ? previous.getNextCursor() : null;
+            if (cursor != null) {
+                page = studyRepository.findStudyPage(cursor, PAGE_SIZE);
+            } else {
+                page = studyRepository.findStudyPageAt(pageIndex * PAGE_SIZE, PAGE_SIZE);
+            }
+            pageCache.put(pageIndex, page);
+            logger.debug("スタディ一覧のページを読み込みました: {} ({}件, キーセット: {})",
+                pageIndex, page.getStudies().size(), cursor != null);
+            return page;
+        } catch (SQLException e) {
+            logger.error("スタディ一覧のページの読み込みに失敗しました: {}", pageIndex, e);
+            return null;
+        }
+    }
+}
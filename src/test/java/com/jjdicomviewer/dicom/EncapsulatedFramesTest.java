@@ -0,0 +1,217 @@
+package com.jjdicomviewer.dicom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * EncapsulatedFrames.readFrameのテスト
+ *
+ * PixelDataの値（Basic Offset Table、フラグメント、Sequence Delimitation Item）を合成したファイルから
+ * 各フレームを読み込み、期待するバイト列と比較する。
+ * PixelDataの位置が0でない場合を確認するため、値の前にダミーのヘッダーを置く。
+ */
+class EncapsulatedFramesTest {
+
+    private static final int PREFIX_LENGTH = 132;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsFramesUsingBasicOffsetTable() throws IOException {
+        // フレーム1は2つのフラグメントに分割
+        byte[][][] frames = {
+            {jpeg(10, 1)},
+            {jpeg(8, 2), bytes(6, 3)},
+            {jpeg(12, 4)}
+        };
+        Path file = write(frames, true, true);
+
+        for (int i = 0; i < frames.length; i++) {
+            assertArrayEquals(concat(frames[i]), readFrame(file, i, frames.length), "フレーム " + i);
+        }
+    }
+
+    @Test
+    void readsLastFrameUsingBasicOffsetTableWithoutDelimiter() throws IOException {
+        byte[][][] frames = {
+            {jpeg(10, 1)},
+            {jpeg(6, 2), bytes(4, 3), bytes(8, 4)}
+        };
+        Path file = write(frames, true, false);
+
+        assertArrayEquals(concat(frames[1]), readFrame(file, 1, frames.length));
+    }
+
+    @Test
+    void readsOneFragmentPerFrameWithoutOffsetTable() throws IOException {
+        byte[][][] frames = {
+            {jpeg(10, 1)},
+            {jpeg(12, 2)},
+            {jpeg(10, 3)}
+        };
+        Path file = write(frames, false, true);
+
+        for (int i = 0; i < frames.length; i++) {
+            assertArrayEquals(concat(frames[i]), readFrame(file, i, frames.length), "フレーム " + i);
+        }
+    }
+
+    @Test
+    void concatenatesFragmentsOfSingleFrame() throws IOException {
+        byte[][][] frames = {
+            {jpeg(10, 1), bytes(6, 2), bytes(4, 3)}
+        };
+        Path file = write(frames, false, true);
+
+        assertArrayEquals(concat(frames[0]), readFrame(file, 0, 1));
+    }
+
+    @Test
+    void findsFramesBySoiMarker() throws IOException {
+        // フラグメント数（5）とフレーム数（3）が一致しないため、SOIマーカーでフレームの先頭を判定する
+        byte[][][] frames = {
+            {jpeg(10, 1), bytes(6, 2)},
+            {jpeg(8, 3)},
+            {jpeg(10, 4), bytes(4, 5)}
+        };
+        Path file = write(frames, false, true);
+
+        for (int i = 0; i < frames.length; i++) {
+            assertArrayEquals(concat(frames[i]), readFrame(file, i, frames.length), "フレーム " + i);
+        }
+    }
+
+    @Test
+    void findsFramesBySocMarker() throws IOException {
+        // JPEG 2000（SOCマーカー）、最後のフレームが複数のフラグメントに分割されている場合
+        byte[][][] frames = {
+            {jpeg2000(10, 1)},
+            {jpeg2000(12, 2), bytes(4, 3), bytes(8, 4)}
+        };
+        Path file = write(frames, false, false);
+
+        for (int i = 0; i < frames.length; i++) {
+            assertArrayEquals(concat(frames[i]), readFrame(file, i, frames.length), "フレーム " + i);
+        }
+    }
+
+    @Test
+    void failsWhenFrameBoundariesCannotBeFound() throws IOException {
+        // マーカーで始まるフラグメントが2つしかないため3フレームに分割できない
+        byte[][][] frames = {
+            {jpeg(10, 1), bytes(6, 2)},
+            {jpeg(8, 3), bytes(6, 4)}
+        };
+        Path file = write(frames, false, true);
+
+        assertThrows(IOException.class, () -> readFrame(file, 0, 3));
+    }
+
+    @Test
+    void failsWhenOffsetTableItemIsMissing() throws IOException {
+        Path file = tempDir.resolve("invalid.dcm");
+        Files.write(file, new byte[PREFIX_LENGTH + 16]);
+
+        assertThrows(IOException.class, () -> readFrame(file, 0, 1));
+    }
+
+    private static byte[] readFrame(Path file, int frameIndex, int numberOfFrames) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return EncapsulatedFrames.readFrame(channel, PREFIX_LENGTH, frameIndex, numberOfFrames);
+        }
+    }
+
+    /**
+     * PixelDataの値を合成してファイルに書き込む
+     * @param frames フレームごとのフラグメント
+     * @param withOffsetTable Basic Offset Tableに各フレームの位置を書き込むかどうか（falseの場合は空のItem）
+     * @param withDelimiter 末尾にSequence Delimitation Itemを書き込むかどうか
+     */
+    private Path write(byte[][][] frames, boolean withOffsetTable, boolean withDelimiter) throws IOException {
+        ByteArrayOutputStream fragments = new ByteArrayOutputStream();
+        ByteBuffer table = ByteBuffer.allocate(withOffsetTable ? 4 * frames.length : 0).order(ByteOrder.LITTLE_ENDIAN);
+        for (byte[][] frame : frames) {
+            if (withOffsetTable) {
+                table.putInt(fragments.size());
+            }
+            for (byte[] fragment : frame) {
+                writeItem(fragments, 0xE000, fragment);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[PREFIX_LENGTH]);
+        writeItem(out, 0xE000, table.array());
+        fragments.writeTo(out);
+        if (withDelimiter) {
+            writeItem(out, 0xE0DD, new byte[0]);
+        }
+        Path file = Files.createTempFile(tempDir, "frames", ".dcm");
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    /**
+     * Item（タグ (FFFE,element)、長さ、値）をリトルエンディアンで書き込む
+     */
+    private static void writeItem(ByteArrayOutputStream out, int element, byte[] value) {
+        ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        header.putShort((short) 0xFFFE);
+        header.putShort((short) element);
+        header.putInt(value.length);
+        out.write(header.array(), 0, 8);
+        out.write(value, 0, value.length);
+    }
+
+    /**
+     * JPEGのSOIマーカー（FFD8）で始まるフラグメント
+     */
+    private static byte[] jpeg(int length, int seed) {
+        byte[] value = bytes(length, seed);
+        value[0] = (byte) 0xFF;
+        value[1] = (byte) 0xD8;
+        return value;
+    }
+
+    /**
+     * JPEG 2000のSOCマーカー（FF4F）で始まるフラグメント
+     */
+    private static byte[] jpeg2000(int length, int seed) {
+        byte[] value = bytes(length, seed);
+        value[0] = (byte) 0xFF;
+        value[1] = (byte) 0x4F;
+        return value;
+    }
+
+    /**
+     * マーカーで始まらない（0xFFを含まない）フラグメント
+     */
+    private static byte[] bytes(int length, int seed) {
+        byte[] value = new byte[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = (byte) ((seed * 31 + i) % 0xFF);
+        }
+        return value;
+    }
+
+    private static byte[] concat(byte[][] fragments) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] fragment : fragments) {
+            out.write(fragment, 0, fragment.length);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,142 @@
+package com.jjdicomviewer.dicom;
+
+import com.jjdicomviewer.core.Instance;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SeriesVolumeLoader.orderSlices・sliceSpacingのテスト
+ *
+ * ImagePositionPatient・ImageOrientationPatientを設定したInstanceを合成し、
+ * 法線方向の位置による並び替えと、位置が使えない場合のInstanceNumberによる並び替え、
+ * スライス間隔（中央値、SliceThickness、既定値）を確認する。
+ */
+class SeriesVolumeLoaderTest {
+
+    private static final double[] AXIAL = {1, 0, 0, 0, 1, 0};
+    private static final double[] CORONAL = {1, 0, 0, 0, 0, -1};
+    // 列方向をX軸回りに30度傾けた斜位断（法線は (0, sin30, cos30)）
+    private static final double[] TILTED = {1, 0, 0, 0, Math.cos(Math.PI / 6), -Math.sin(Math.PI / 6)};
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void ordersByPositionAlongNormal() {
+        // InstanceNumberの順序と位置の順序が逆
+        List<Instance> instances = List.of(
+            slice("a", 1, AXIAL, 0, 0, 20),
+            slice("b", 2, AXIAL, 0, 0, 10),
+            slice("c", 3, AXIAL, 0, 0, 0));
+
+        assertEquals(List.of("c", "b", "a"), uids(SeriesVolumeLoader.orderSlices(instances)));
+    }
+
+    @Test
+    void ordersTiltedSlicesByProjectionNotByZ() {
+        // 法線方向の位置は b < a < c、Z座標の順序（面内のずれを含む）とは異なる
+        double s = Math.sin(Math.PI / 6);
+        double c = Math.cos(Math.PI / 6);
+        List<Instance> instances = List.of(
+            slice("a", 1, TILTED, 5, 2 * s + 30 * c, 2 * c - 30 * s),
+            slice("b", 2, TILTED, -5, 0, 0),
+            slice("c", 3, TILTED, 0, 4 * s - 40 * c, 4 * c + 40 * s));
+
+        List<Instance> ordered = SeriesVolumeLoader.orderSlices(instances);
+
+        assertEquals(List.of("b", "a", "c"), uids(ordered));
+        assertEquals(2.0, SeriesVolumeLoader.sliceSpacing(ordered), DELTA);
+    }
+
+    @Test
+    void fallsBackToInstanceNumberWhenPositionIsMissing() {
+        List<Instance> instances = List.of(
+            slice("a", 3, AXIAL, 0, 0, 0),
+            slice("b", 1, AXIAL, 0, 0, 10),
+            slice("c", 2, AXIAL, 0, 0, 20));
+        instances.get(1).setImagePositionPatient(null);
+
+        assertEquals(List.of("b", "c", "a"), uids(SeriesVolumeLoader.orderSlices(instances)));
+    }
+
+    @Test
+    void fallsBackToInstanceNumberWhenOrientationDiffers() {
+        List<Instance> instances = List.of(
+            slice("a", 3, AXIAL, 0, 0, 0),
+            slice("b", 1, AXIAL, 0, 0, 10),
+            slice("c", 2, CORONAL, 0, 0, 20));
+
+        assertEquals(List.of("b", "c", "a"), uids(SeriesVolumeLoader.orderSlices(instances)));
+    }
+
+    @Test
+    void fallsBackToInstanceNumberWithoutOrientation() {
+        List<Instance> instances = List.of(
+            slice("a", 2, null, 0, 0, 0),
+            slice("b", 1, null, 0, 0, 10));
+
+        assertEquals(List.of("b", "a"), uids(SeriesVolumeLoader.orderSlices(instances)));
+    }
+
+    @Test
+    void spacingIsMedianOfGaps() {
+        // 1スライス欠けている（間隔 2, 2, 4, 2）
+        List<Instance> slices = List.of(
+            slice("a", 1, AXIAL, 0, 0, 0),
+            slice("b", 2, AXIAL, 0, 0, 2),
+            slice("c", 3, AXIAL, 0, 0, 4),
+            slice("d", 4, AXIAL, 0, 0, 8),
+            slice("e", 5, AXIAL, 0, 0, 10));
+
+        assertEquals(2.0, SeriesVolumeLoader.sliceSpacing(slices), DELTA);
+    }
+
+    @Test
+    void spacingFallsBackToSliceThickness() {
+        List<Instance> slices = List.of(
+            slice("a", 1, AXIAL, 0, 0, 0),
+            slice("b", 2, AXIAL, 0, 0, 3));
+        slices.get(0).setSliceThickness(2.5);
+        slices.get(1).setImagePositionPatient(null);
+
+        assertEquals(2.5, SeriesVolumeLoader.sliceSpacing(slices), DELTA);
+    }
+
+    @Test
+    void spacingFallsBackToSliceThicknessForSingleSlice() {
+        List<Instance> slices = List.of(slice("a", 1, AXIAL, 0, 0, 0));
+        slices.get(0).setSliceThickness(5.0);
+
+        assertEquals(5.0, SeriesVolumeLoader.sliceSpacing(slices), DELTA);
+    }
+
+    @Test
+    void spacingDefaultsToOneWithoutPositionOrThickness() {
+        // 全スライスが同じ位置（間隔0）で、SliceThicknessもない
+        List<Instance> slices = List.of(
+            slice("a", 1, AXIAL, 0, 0, 0),
+            slice("b", 2, AXIAL, 0, 0, 0));
+
+        assertEquals(1.0, SeriesVolumeLoader.sliceSpacing(slices), DELTA);
+    }
+
+    private static Instance slice(String sopInstanceUID, int instanceNumber, double[] orientation,
+                                  double x, double y, double z) {
+        Instance instance = new Instance();
+        instance.setSopInstanceUID(sopInstanceUID);
+        instance.setInstanceNumber(instanceNumber);
+        instance.setImageOrientationPatient(orientation);
+        instance.setImagePositionPatient(new double[] {x, y, z});
+        return instance;
+    }
+
+    private static List<String> uids(List<Instance> instances) {
+        List<String> uids = new ArrayList<>();
+        for (Instance instance : instances) {
+            uids.add(instance.getSopInstanceUID());
+        }
+        return uids;
+    }
+}
@@ -0,0 +1,50 @@
+package com.jjdicomviewer.image;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * ImageGeometry.normalOf・projectのテスト
+ */
+class ImageGeometryTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void normalOfAxialPointsToHead() {
+        assertArrayEquals(new double[] {0, 0, 1}, ImageGeometry.normalOf(new double[] {1, 0, 0, 0, 1, 0}), DELTA);
+    }
+
+    @Test
+    void normalOfCoronalAndSagittal() {
+        assertArrayEquals(new double[] {0, 1, 0}, ImageGeometry.normalOf(new double[] {1, 0, 0, 0, 0, -1}), DELTA);
+        assertArrayEquals(new double[] {-1, 0, 0}, ImageGeometry.normalOf(new double[] {0, 1, 0, 0, 0, -1}), DELTA);
+    }
+
+    @Test
+    void normalOfTiltedPlane() {
+        double s = Math.sin(Math.PI / 6);
+        double c = Math.cos(Math.PI / 6);
+        assertArrayEquals(new double[] {0, s, c}, ImageGeometry.normalOf(new double[] {1, 0, 0, 0, c, -s}), DELTA);
+    }
+
+    @Test
+    void normalOfMissingOrientationIsNull() {
+        assertNull(ImageGeometry.normalOf(null));
+        assertNull(ImageGeometry.normalOf(new double[] {1, 0, 0}));
+    }
+
+    @Test
+    void projectIsComponentAlongNormal() {
+        double s = Math.sin(Math.PI / 6);
+        double c = Math.cos(Math.PI / 6);
+        double[] normal = {0, s, c};
+        // 面内方向（行方向・列方向）のずれは射影に影響しない
+        assertEquals(7.0, ImageGeometry.project(new double[] {0, 7 * s, 7 * c}, normal), DELTA);
+        assertEquals(7.0, ImageGeometry.project(new double[] {12, 7 * s + 3 * c, 7 * c - 3 * s}, normal), DELTA);
+        assertEquals(-4.0, ImageGeometry.project(new double[] {3, -4 * s, -4 * c}, normal), DELTA);
+    }
+}
@@ -0,0 +1,149 @@
+package com.jjdicomviewer.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferUShort;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RowBandRendererの並列処理の結果が逐次処理と同一であることを確認する
+ *
+ * 同じ画像・同じLUTをRowBandRenderer(1)とRowBandRenderer(N)で変換し、出力配列を比較する。
+ * 画像は並列処理に切り替わる大きさ（2 x 65536画素以上）とする。
+ */
+class RowBandRendererTest {
+
+    private static final int WIDTH = 1031;
+    private static final int HEIGHT = 517;
+    private static final int THREADS = 4;
+
+    private RowBandRenderer serial;
+    private RowBandRenderer parallel;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        serial = new RowBandRenderer(1);
+        parallel = new RowBandRenderer(THREADS);
+        random = new Random(20240601L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        serial.shutdown();
+        parallel.shutdown();
+    }
+
+    @Test
+    void rendersInParallelOnlyWhenThreadsAreAvailable() {
+        assertFalse(serial.isParallel());
+        assertTrue(parallel.isParallel());
+    }
+
+    @Test
+    void unsignedShortMatchesSerial() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_USHORT_GRAY);
+        short[] src = ((DataBufferUShort) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < src.length; i++) {
+            src[i] = (short) random.nextInt(65536);
+        }
+        WindowLevelLut lut = WindowLevelLut.forUnsignedShort(true);
+        lut.update(40, 400, 1.0, -1024.0, false);
+
+        assertArrayEquals(renderGray(serial, (dst, from, to) -> lut.applyUnsignedShort(src, dst, from, to)),
+            renderGray(parallel, (dst, from, to) -> lut.applyUnsignedShort(src, dst, from, to)));
+    }
+
+    @Test
+    void byteMatchesSerial() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        byte[] src = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        random.nextBytes(src);
+        WindowLevelLut lut = WindowLevelLut.forByte();
+        lut.update(100, 180, 1.0, 0.0, true);
+
+        assertArrayEquals(renderGray(serial, (dst, from, to) -> lut.applyByte(src, dst, from, to)),
+            renderGray(parallel, (dst, from, to) -> lut.applyByte(src, dst, from, to)));
+    }
+
+    @Test
+    void rgbChannelsMatchSerial() {
+        BufferedImage image = randomRgbImage();
+        WindowLevelLut lut = WindowLevelLut.forByte();
+        lut.update(128, 200, 1.0, 0.0, false);
+
+        assertArrayEquals(renderRgb(serial, image, 0, WIDTH, lut, false),
+            renderRgb(parallel, image, 0, WIDTH, lut, false));
+    }
+
+    @Test
+    void rgbSumMatchesSerial() {
+        BufferedImage image = randomRgbImage();
+        WindowLevelLut lut = WindowLevelLut.forRgbSum();
+        lut.update(128, 255, 1.0, 0.0, false);
+
+        assertArrayEquals(renderRgb(serial, image, 0, WIDTH, lut, true),
+            renderRgb(parallel, image, 0, WIDTH, lut, true));
+    }
+
+    @Test
+    void rgbRegionMatchesSerial() {
+        // 表示範囲のタイルのみを変換する場合（列の範囲が画像の幅と異なる）
+        BufferedImage image = randomRgbImage();
+        WindowLevelLut lut = WindowLevelLut.forByte();
+        lut.update(90, 150, 1.0, 0.0, true);
+
+        assertArrayEquals(renderRgb(serial, image, 200, 900, lut, false),
+            renderRgb(parallel, image, 200, 900, lut, false));
+    }
+
+    /**
+     * グレースケール画像の変換（出力のインデックスは入力と同じ）
+     */
+    private interface GrayApply {
+        void apply(int[] dst, int from, int to);
+    }
+
+    private static int[] renderGray(RowBandRenderer renderer, GrayApply apply) {
+        int[] dst = new int[WIDTH * HEIGHT];
+        renderer.render(WIDTH, HEIGHT, (fromRow, toRow) -> apply.apply(dst, fromRow * WIDTH, toRow * WIDTH));
+        return dst;
+    }
+
+    /**
+     * ImageViewerPanelと同様に、バンドごとにスレッド専用の作業用配列へRGB画素を取得して変換
+     */
+    private static int[] renderRgb(RowBandRenderer renderer, BufferedImage image, int x0, int x1,
+                                   WindowLevelLut lut, boolean sum) {
+        int width = x1 - x0;
+        int[] dst = new int[WIDTH * HEIGHT];
+        renderer.render(width, HEIGHT, (fromRow, toRow) -> {
+            int[] region = renderer.scratch((toRow - fromRow) * width);
+            image.getRGB(x0, fromRow, width, toRow - fromRow, region, 0, width);
+            for (int y = fromRow; y < toRow; y++) {
+                int srcFrom = (y - fromRow) * width;
+                int from = y * WIDTH + x0;
+                if (sum) {
+                    lut.applyRgbSum(region, srcFrom, dst, from, from + width);
+                } else {
+                    lut.applyRgbChannels(region, srcFrom, dst, from, from + width);
+                }
+            }
+        });
+        return dst;
+    }
+
+    private BufferedImage randomRgbImage() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        random.nextBytes(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+        return image;
+    }
+}